@@ -0,0 +1,98 @@
+package br.com.andervilo.timesheet.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares a JMH JSON result file with the committed baseline and fails when a benchmark got slower,
+ * or allocates more per operation, by more than the given relative threshold.
+ * The baseline is only as current as the code it was recorded on: a commit that accepts a change in the
+ * benchmarked code re-records it from {@code target/jmh-result.json}.
+ * <p>
+ * Usage: {@code BaselineCheck <baseline.json> <result.json> <threshold>}
+ */
+public final class BaselineCheck {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File baselineFile = new File(args[0]);
+        File resultFile = new File(args[1]);
+        double threshold = Double.parseDouble(args[2]);
+
+        if (!baselineFile.exists() || !resultFile.exists()) {
+            System.out.println("No baseline or result to compare: " + baselineFile + ", " + resultFile);
+            return;
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(baselineFile));
+        Map<String, JsonNode> result = index(objectMapper.readTree(resultFile));
+
+        List<String> regressions = new ArrayList<>();
+        result.forEach((key, current) -> {
+            JsonNode previous = baseline.get(key);
+            if (previous == null) {
+                System.out.println("NEW        " + key);
+                return;
+            }
+            compare(key, "time", score(previous.path("primaryMetric")), score(current.path("primaryMetric")), threshold, regressions);
+            compare(key, "alloc", allocation(previous), allocation(current), threshold, regressions);
+        });
+
+        if (!regressions.isEmpty()) {
+            System.out.println(regressions.size() + " regression(s) above " + (threshold * 100) + "%:");
+            regressions.forEach(System.out::println);
+            System.exit(1);
+        }
+    }
+
+    private static void compare(String key, String metric, double previous, double current, double threshold, List<String> regressions) {
+        if (Double.isNaN(previous) || Double.isNaN(current) || previous == 0) {
+            return;
+        }
+        double change = (current - previous) / previous;
+        String line = String.format("%-10s %s [%s] %.2f -> %.2f (%+.1f%%)",
+            change > threshold ? "REGRESSION" : "ok", key, metric, previous, current, change * 100);
+        System.out.println(line);
+        if (change > threshold) {
+            regressions.add(line);
+        }
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> indexed = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            result.path("params").fields().forEachRemaining(param ->
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            indexed.put(key.toString(), result);
+        }
+        return indexed;
+    }
+
+    private static double allocation(JsonNode result) {
+        var metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            var metric = metrics.next();
+            if (metric.getKey().replace("·", "").equals(ALLOCATION_METRIC)) {
+                return score(metric.getValue());
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static double score(JsonNode metric) {
+        return metric.has("score") ? metric.path("score").asDouble() : Double.NaN;
+    }
+}
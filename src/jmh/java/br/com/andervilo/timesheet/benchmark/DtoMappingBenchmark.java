@@ -0,0 +1,65 @@
+package br.com.andervilo.timesheet.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import br.com.andervilo.timesheet.application.dto.EmployeDTO;
+import br.com.andervilo.timesheet.application.dto.EmployerDTO;
+import br.com.andervilo.timesheet.application.dto.PageDTO;
+import br.com.andervilo.timesheet.application.query.FilterSlice;
+import br.com.andervilo.timesheet.domain.Employe;
+import br.com.andervilo.timesheet.domain.Employer;
+
+/**
+ * Entity to DTO mapping of one page, as done by the services for every filter call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private List<Employe> employes;
+    private List<Employer> employers;
+    private FilterSlice<Employe> employeSlice;
+
+    @Setup
+    public void setUp() {
+        employes = SampleData.employes(pageSize);
+        employers = SampleData.employers(pageSize);
+        employeSlice = new FilterSlice<>(employes, PageRequest.of(0, pageSize), true, 250_000L, "cursor");
+    }
+
+    @Benchmark
+    public List<EmployeDTO> employeDtos() {
+        return employes.stream().map(EmployeDTO::from).toList();
+    }
+
+    @Benchmark
+    public List<EmployerDTO> employerDtos() {
+        return employers.stream().map(EmployerDTO::from).toList();
+    }
+
+    @Benchmark
+    public PageDTO<EmployeDTO> employePage() {
+        return PageDTO.from(employeSlice.map(EmployeDTO::from));
+    }
+}
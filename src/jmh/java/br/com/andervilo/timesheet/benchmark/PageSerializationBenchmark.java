@@ -0,0 +1,64 @@
+package br.com.andervilo.timesheet.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.andervilo.timesheet.application.dto.EmployeDTO;
+import br.com.andervilo.timesheet.application.dto.EmployerDTO;
+import br.com.andervilo.timesheet.application.dto.PageDTO;
+import br.com.andervilo.timesheet.application.dto.SparseFields;
+import br.com.andervilo.timesheet.application.query.FilterSlice;
+
+/**
+ * Jackson serialization of a filter response, with the ObjectMapper defaults Spring Boot applies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PageDTO<EmployeDTO> employePage;
+    private PageDTO<EmployerDTO> employerPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().filters(SparseFields.provider(null)).build();
+        employePage = PageDTO.from(new FilterSlice<>(SampleData.employes(pageSize), PageRequest.of(0, pageSize), true, 250_000L, "cursor")
+            .map(EmployeDTO::from));
+        employerPage = PageDTO.from(new FilterSlice<>(SampleData.employers(pageSize), PageRequest.of(0, pageSize), true, 250_000L, "cursor")
+            .map(EmployerDTO::from));
+    }
+
+    @Benchmark
+    public byte[] employePageJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(employePage);
+    }
+
+    @Benchmark
+    public byte[] employerPageJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(employerPage);
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.andervilo.timesheet.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.bson.types.ObjectId;
+
+import br.com.andervilo.timesheet.domain.Employe;
+import br.com.andervilo.timesheet.domain.Employer;
+
+/**
+ * Deterministic, realistically shaped documents for the benchmarks.
+ */
+final class SampleData {
+
+    private static final String[] FIRST_NAMES = {"Ana", "João", "Maria", "José", "Francisca", "Antônio", "Luíza", "Carlos"};
+    private static final String[] LAST_NAMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira"};
+
+    private SampleData() {
+    }
+
+    static List<Employe> employes(int count) {
+        Random random = new Random(42);
+        List<Employe> employes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            Employe employe = Employe.of(name, "user" + i + "@example.com.br",
+                LocalDate.of(1960 + random.nextInt(45), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            employe.setId(new ObjectId().toHexString());
+            employes.add(employe);
+        }
+        return employes;
+    }
+
+    static List<Employer> employers(int count) {
+        Random random = new Random(42);
+        List<Employer> employers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Employer employer = Employer.of(
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " Comércio Ltda " + i,
+                String.format("%02d.%03d.%03d/0001-%02d", random.nextInt(100), random.nextInt(1000), random.nextInt(1000), random.nextInt(100)),
+                "Rua " + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + ", " + random.nextInt(2000) + " - São Paulo/SP",
+                String.format("(11) 9%04d-%04d", random.nextInt(10000), random.nextInt(10000)),
+                "contato" + i + "@empresa.com.br");
+            employer.setId(new ObjectId().toHexString());
+            employers.add(employer);
+        }
+        return employers;
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+
+import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import br.com.andervilo.timesheet.application.query.EmployerFilterQuery;
+import br.com.andervilo.timesheet.application.query.MatchMode;
+import br.com.andervilo.timesheet.domain.Employe;
+import br.com.andervilo.timesheet.domain.Employer;
+
+/**
+ * Cost of turning a filter query into the document sent to MongoDB: criteria tree, page query and field mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterQueryBenchmark {
+
+    @Param({"name", "name_email_month", "all"})
+    private String shape;
+
+    private EmployeFilterQuery employeFilter;
+    private EmployerFilterQuery employerFilter;
+    private Pageable pageable;
+    private QueryMapper queryMapper;
+    private MongoPersistentEntity<?> employeEntity;
+
+    @Setup
+    public void setUp() {
+        employeFilter = new EmployeFilterQuery();
+        employerFilter = new EmployerFilterQuery();
+        employeFilter.setName("Silva");
+        employerFilter.setName("Comercio");
+        if (!shape.equals("name")) {
+            employeFilter.setEmail("gmail");
+            employeFilter.setBirthMonth(7);
+            employerFilter.setEmail("contato");
+            employerFilter.setCnpj("12.345");
+        }
+        if (shape.equals("all")) {
+            employeFilter.setBirthMonth(null);
+            employeFilter.setBirthDateStart(LocalDate.of(1980, 1, 1));
+            employeFilter.setBirthDateEnd(LocalDate.of(1999, 12, 31));
+            employeFilter.setMatchMode(MatchMode.PREFIX);
+            employerFilter.setPhone("11 9");
+            employerFilter.setAddress("Rua");
+            employerFilter.setMatchMode(MatchMode.PREFIX);
+        }
+        pageable = PageRequest.of(3, 100, Sort.Direction.ASC, "name");
+
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        queryMapper = new QueryMapper(converter);
+        employeEntity = mappingContext.getRequiredPersistentEntity(Employe.class);
+        mappingContext.getRequiredPersistentEntity(Employer.class);
+    }
+
+    @Benchmark
+    public Document employeCriteria() {
+        return CustomEmployeRepositoryImpl.toCriteria(employeFilter).getCriteriaObject();
+    }
+
+    @Benchmark
+    public Document employerCriteria() {
+        return CustomEmployerRepositoryImpl.toCriteria(employerFilter).getCriteriaObject();
+    }
+
+    @Benchmark
+    public Document employeMappedPageQuery() {
+        Query query = KeysetCursor.pageQuery(CustomEmployeRepositoryImpl.toCriteria(employeFilter), null, pageable);
+        return queryMapper.getMappedObject(query.getQueryObject(), employeEntity);
+    }
+}
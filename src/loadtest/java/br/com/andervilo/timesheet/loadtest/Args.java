@@ -0,0 +1,49 @@
+package br.com.andervilo.timesheet.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * {@code --key=value} command line options with defaults.
+ */
+final class Args {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    private Args() {
+    }
+
+    static Args parse(String[] args) {
+        Args parsed = new Args();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            parsed.values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return parsed;
+    }
+
+    String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    int getInt(String key, int defaultValue) {
+        return values.containsKey(key) ? Integer.parseInt(values.get(key).replace("_", "")) : defaultValue;
+    }
+
+    boolean getBoolean(String key, boolean defaultValue) {
+        return values.containsKey(key) ? Boolean.parseBoolean(values.get(key)) : defaultValue;
+    }
+
+    /**
+     * Durations as in application.yml: 30s, 5m, 200ms.
+     */
+    Duration getDuration(String key, Duration defaultValue) {
+        return values.containsKey(key) ? DurationStyle.detectAndParse(values.get(key)) : defaultValue;
+    }
+}
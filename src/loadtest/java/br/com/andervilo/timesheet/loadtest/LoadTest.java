@@ -0,0 +1,184 @@
+package br.com.andervilo.timesheet.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Open-model HTTP load against a running instance: requests are sent on a fixed schedule of {@code --rate}
+ * per second, whether or not earlier ones have completed, drawn from a weighted mix of {@link Workload}s.
+ * Latency is measured from the time a request was scheduled to go out, not from when it actually went out,
+ * so a stalled server shows up in the percentiles instead of slowing the client down (coordinated omission).
+ * Requests beyond {@code --max-in-flight} are not sent and counted as dropped.
+ * <p>
+ * Usage: {@code mvn -P loadtest test-compile exec:exec@run-load -Dloadtest.args="--rate=500 --duration=2m"}
+ * <p>
+ * Options: --base-url (http://localhost:8080), --rate (200), --warmup (10s), --duration (60s),
+ * --arrivals (constant|poisson), --mix (see {@link Workload#DEFAULT_MIX}), --max-in-flight (1000),
+ * --timeout (10s), --seed (42), --output (target/loadtest)
+ */
+public final class LoadTest {
+
+    // Latencies are recorded in microseconds, up to a minute
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toMicros(1);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] arguments) throws IOException, InterruptedException {
+        Args args = Args.parse(arguments);
+        URI baseUrl = URI.create(args.get("base-url", "http://localhost:8080"));
+        double rate = Double.parseDouble(args.get("rate", "200"));
+        Duration warmup = args.getDuration("warmup", Duration.ofSeconds(10));
+        Duration duration = args.getDuration("duration", Duration.ofSeconds(60));
+        boolean poisson = "poisson".equals(args.get("arrivals", "constant"));
+        Map<Workload, Integer> mix = Workload.parseMix(args.get("mix", Workload.DEFAULT_MIX));
+        int maxInFlight = args.getInt("max-in-flight", 1000);
+        Duration timeout = args.getDuration("timeout", Duration.ofSeconds(10));
+        SplittableRandom random = new SplittableRandom(args.getInt("seed", 42));
+        Path output = Path.of(args.get("output", "target/loadtest"));
+
+        HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(timeout)
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+        Workload.Context context = Workload.Context.sample(client, baseUrl, timeout);
+        Workload[] schedule = schedule(mix);
+        Map<Workload, Stats> stats = new EnumMap<>(Workload.class);
+        mix.keySet().forEach(workload -> stats.put(workload, new Stats()));
+        AtomicInteger inFlight = new AtomicInteger();
+
+        System.out.printf("%s: %.0f req/s, %s warmup + %s measured, %s arrivals%n",
+            baseUrl, rate, warmup, duration, poisson ? "poisson" : "constant");
+
+        double interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        double offset = 0;
+        while (true) {
+            offset += poisson ? -Math.log(1 - random.nextDouble()) * interval : interval;
+            long intended = start + (long) offset;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Workload workload = schedule[random.nextInt(schedule.length)];
+            Stats workloadStats = intended >= measureFrom ? stats.get(workload) : null;
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                if (workloadStats != null) {
+                    workloadStats.dropped.increment();
+                }
+                continue;
+            }
+            client.sendAsync(workload.request(context, random), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    inFlight.decrementAndGet();
+                    if (workloadStats != null) {
+                        workloadStats.record(System.nanoTime() - intended, error == null && isSuccess(response.statusCode()));
+                    }
+                });
+        }
+
+        long drainUntil = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+        report(stats, duration, output);
+    }
+
+    /**
+     * One slot per unit of weight, so a uniform pick over the slots follows the mix.
+     */
+    private static Workload[] schedule(Map<Workload, Integer> mix) {
+        Workload[] schedule = new Workload[mix.values().stream().mapToInt(Integer::intValue).sum()];
+        int slot = 0;
+        for (Map.Entry<Workload, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                schedule[slot++] = entry.getKey();
+            }
+        }
+        return schedule;
+    }
+
+    private static boolean isSuccess(int status) {
+        return status / 100 == 2 || status == 304;
+    }
+
+    /**
+     * Summary table on stdout, plus one .hgrm percentile distribution per workload under {@code output}
+     * (values in milliseconds), for plotting with HdrHistogram's tools.
+     */
+    private static void report(Map<Workload, Stats> stats, Duration duration, Path output) throws IOException {
+        Files.createDirectories(output);
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.printf("%n%-22s %9s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+            "workload", "requests", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        Histogram total = new Histogram(HIGHEST_LATENCY, 3);
+        for (Map.Entry<Workload, Stats> entry : stats.entrySet()) {
+            Stats workloadStats = entry.getValue();
+            print(entry.getKey().id(), workloadStats.latencies, workloadStats.errors.sum(), workloadStats.dropped.sum(), seconds);
+            total.add(workloadStats.latencies);
+            write(output.resolve(entry.getKey().id() + ".hgrm"), workloadStats.latencies);
+        }
+        print("total", total, stats.values().stream().mapToLong(s -> s.errors.sum()).sum(),
+            stats.values().stream().mapToLong(s -> s.dropped.sum()).sum(), seconds);
+        write(output.resolve("total.hgrm"), total);
+        System.out.printf("%nPercentile distributions written to %s%n", output.toAbsolutePath());
+    }
+
+    private static void print(String name, Histogram latencies, long errors, long dropped, double seconds) {
+        StringBuilder line = new StringBuilder(String.format("%-22s %9d %7d %7d %9.1f",
+            name, latencies.getTotalCount(), errors, dropped, latencies.getTotalCount() / seconds));
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(" %9.2f", latencies.getValueAtPercentile(percentile) / 1000.0));
+        }
+        line.append(String.format(" %9.2f", latencies.getMaxValue() / 1000.0));
+        System.out.println(line);
+    }
+
+    private static void write(Path file, Histogram latencies) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            latencies.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    /**
+     * Measured requests of one workload; failed and timed-out requests are in the latencies too.
+     */
+    private static final class Stats {
+
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_LATENCY, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        void record(long nanos, boolean success) {
+            latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_LATENCY));
+            if (!success) {
+                errors.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package br.com.andervilo.timesheet.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The requests the load test can send, by name; each builds a fresh request with randomized parameters.
+ */
+enum Workload {
+
+    FILTER_NAME_PREFIX("filter-name-prefix") {
+        @Override
+        HttpRequest request(Context context, SplittableRandom random) {
+            return context.post("/api/employees/filter", "{\"name\":\"" + pick(DatasetGenerator.FIRST_NAMES, random)
+                + "\",\"matchMode\":\"PREFIX\",\"countMode\":\"NONE\",\"sortBy\":\"name\"}");
+        }
+    },
+    FILTER_NAME_CONTAINS("filter-name-contains") {
+        @Override
+        HttpRequest request(Context context, SplittableRandom random) {
+            return context.post("/api/employees/filter", "{\"name\":\"" + pick(DatasetGenerator.LAST_NAMES, random)
+                + "\",\"countMode\":\"EXACT\"}");
+        }
+    },
+    FILTER_BIRTH_MONTH("filter-birth-month") {
+        @Override
+        HttpRequest request(Context context, SplittableRandom random) {
+            return context.post("/api/employees/filter", "{\"birthMonth\":" + random.nextInt(1, 13)
+                + ",\"page\":" + random.nextInt(5) + "}");
+        }
+    },
+    FILTER_EMPLOYER("filter-employer") {
+        @Override
+        HttpRequest request(Context context, SplittableRandom random) {
+            return context.post("/api/employees/filter/with-employer", "{\"employerId\":\""
+                + pick(context.employerIds, random) + "\",\"countMode\":\"NONE\"}");
+        }
+    },
+    EMPLOYE_BY_ID("employe-by-id") {
+        @Override
+        HttpRequest request(Context context, SplittableRandom random) {
+            return context.get("/api/employees/" + pick(context.employeIds, random));
+        }
+    },
+    UPCOMING_BIRTHDAYS("upcoming-birthdays") {
+        @Override
+        HttpRequest request(Context context, SplittableRandom random) {
+            return context.get("/api/employees/birthdays/upcoming?days=" + random.nextInt(1, 31)
+                + "&from=" + LocalDate.ofYearDay(2024, random.nextInt(1, 367)));
+        }
+    },
+    EMPLOYER_FILTER("employer-filter") {
+        @Override
+        HttpRequest request(Context context, SplittableRandom random) {
+            return context.post("/api/employers/filter", "{\"name\":\"" + pick(DatasetGenerator.LAST_NAMES, random)
+                + "\",\"matchMode\":\"PREFIX\",\"countMode\":\"ESTIMATED\"}");
+        }
+    };
+
+    static final String DEFAULT_MIX = "filter-name-prefix=30,filter-name-contains=10,filter-birth-month=15,"
+        + "filter-employer=10,employe-by-id=25,upcoming-birthdays=5,employer-filter=5";
+
+    private final String id;
+
+    Workload(String id) {
+        this.id = id;
+    }
+
+    String id() {
+        return id;
+    }
+
+    abstract HttpRequest request(Context context, SplittableRandom random);
+
+    /**
+     * Weights by workload from "name=weight,..."; workloads not listed are not sent.
+     */
+    static Map<Workload, Integer> parseMix(String mix) {
+        Map<Workload, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Workload workload = byId(parts[0]);
+            int weight = Integer.parseInt(parts[1]);
+            if (weight > 0) {
+                weights.put(workload, weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Empty workload mix: " + mix);
+        }
+        return weights;
+    }
+
+    private static Workload byId(String id) {
+        for (Workload workload : values()) {
+            if (workload.id.equals(id)) {
+                return workload;
+            }
+        }
+        throw new IllegalArgumentException("Unknown workload " + id);
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String pick(List<String> values, SplittableRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    /**
+     * Target server plus ids sampled from its data, so lookups hit existing documents.
+     */
+    static final class Context {
+
+        private static final int SAMPLE_SIZE = 1000;
+
+        private final URI baseUrl;
+        private final Duration timeout;
+        private final List<String> employeIds = new ArrayList<>();
+        private final List<String> employerIds = new ArrayList<>();
+
+        private Context(URI baseUrl, Duration timeout) {
+            this.baseUrl = baseUrl;
+            this.timeout = timeout;
+        }
+
+        static Context sample(HttpClient client, URI baseUrl, Duration timeout) throws IOException, InterruptedException {
+            Context context = new Context(baseUrl, timeout);
+            HttpResponse<String> response = client.send(context.post("/api/employees/filter",
+                "{\"size\":" + SAMPLE_SIZE + ",\"fields\":[\"id\",\"employerId\"],\"countMode\":\"NONE\"}"),
+                HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Sampling ids failed with HTTP " + response.statusCode() + ": " + response.body());
+            }
+            for (JsonNode employe : new ObjectMapper().readTree(response.body()).path("content")) {
+                context.employeIds.add(employe.path("id").asText());
+                if (employe.hasNonNull("employerId")) {
+                    context.employerIds.add(employe.path("employerId").asText());
+                }
+            }
+            if (context.employeIds.isEmpty() || context.employerIds.isEmpty()) {
+                throw new IllegalStateException("No employees linked to employers found; run DatasetGenerator first");
+            }
+            return context;
+        }
+
+        HttpRequest get(String path) {
+            return HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(timeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        }
+
+        HttpRequest post(String path, String json) {
+            return HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(timeout)
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        }
+    }
+}
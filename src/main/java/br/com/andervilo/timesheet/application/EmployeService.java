@@ -1,16 +1,45 @@
 package br.com.andervilo.timesheet.application;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import br.com.andervilo.timesheet.application.command.EmployeBulkCommand;
 import br.com.andervilo.timesheet.application.command.EmployeCreateCommand;
 import br.com.andervilo.timesheet.application.command.EmployeUpdateCommand;
+import br.com.andervilo.timesheet.application.dto.BulkItemResultDTO;
+import br.com.andervilo.timesheet.application.dto.BulkItemResultDTO.Operation;
+import br.com.andervilo.timesheet.application.dto.BulkItemResultDTO.Status;
+import br.com.andervilo.timesheet.application.dto.BulkResultDTO;
 import br.com.andervilo.timesheet.application.dto.EmployeDTO;
+import br.com.andervilo.timesheet.application.dto.EmployerDTO;
+import br.com.andervilo.timesheet.application.dto.EmploymentDTO;
 import br.com.andervilo.timesheet.application.dto.PageDTO;
 import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import br.com.andervilo.timesheet.config.BulkProperties;
+import br.com.andervilo.timesheet.config.CacheConfig;
 import br.com.andervilo.timesheet.domain.Employe;
+import br.com.andervilo.timesheet.domain.Employer;
 import br.com.andervilo.timesheet.infrastructure.repository.EmployeRepository;
+import br.com.andervilo.timesheet.infrastructure.repository.EmployerRepository;
+import br.com.andervilo.timesheet.infrastructure.search.EmployeTextIndex;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -18,24 +47,178 @@ import lombok.RequiredArgsConstructor;
 public class EmployeService {
 
     private final EmployeRepository employeRepository;
+    private final EmployerRepository employerRepository;
+    private final BulkProperties bulkProperties;
+    private final EmployeTextIndex employeTextIndex;
+
+    /**
+     * Builds the text index once the application is up; the writes below keep it current in between rebuilds.
+     * Rebuilds read the primary, as a lagging secondary would drop the writes made just before them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildTextIndex() {
+        employeTextIndex.start(employeRepository::streamAllFromPrimary);
+    }
 
     public EmployeDTO create(EmployeCreateCommand command) {
         var employe = Employe.of(command.name(), command.email(), command.birthDate()); 
         employeRepository.save(employe);
+        employeTextIndex.put(employe);
         return EmployeDTO.from(employe);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES, key = "#id")
     public EmployeDTO update(String id, EmployeUpdateCommand command) {
         var employeExisting = employeRepository.findById(id).orElseThrow();
         employeExisting.update(command.name(), command.email(), command.birthDate());
         employeRepository.save(employeExisting);
+        employeTextIndex.put(employeExisting);
         return EmployeDTO.from(employeExisting);
     }
 
+    /**
+     * Applies the creates, updates and deletes as unordered bulk writes of {@code timesheet.bulk.batch-size}
+     * operations and reports every item by its position in its own list. Deletes release headcounts, so cached
+     * employers go too.
+     */
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.EMPLOYEES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.EMPLOYERS, allEntries = true)
+    })
+    public BulkResultDTO bulk(EmployeBulkCommand command) {
+        List<BulkItemResultDTO> results = new ArrayList<>();
+        int batchSize = Math.max(1, bulkProperties.batchSize());
+
+        List<EmployeCreateCommand> creates = command.create() != null ? command.create() : List.of();
+        for (int from = 0; from < creates.size(); from += batchSize) {
+            List<Employe> batch = creates.subList(from, Math.min(from + batchSize, creates.size())).stream()
+                .map(create -> Employe.of(create.name(), create.email(), create.birthDate()))
+                .toList();
+            Map<Integer, String> failures = employeRepository.bulkInsert(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                results.add(failures.containsKey(i)
+                    ? BulkItemResultDTO.failed(Operation.CREATE, from + i, batch.get(i).getId(), failures.get(i))
+                    : BulkItemResultDTO.of(Operation.CREATE, from + i, batch.get(i).getId(), Status.CREATED));
+                if (!failures.containsKey(i)) {
+                    employeTextIndex.put(batch.get(i));
+                }
+            }
+        }
+
+        List<EmployeUpdateCommand> updates = command.update() != null ? command.update() : List.of();
+        for (int from = 0; from < updates.size(); from += batchSize) {
+            List<EmployeUpdateCommand> batch = updates.subList(from, Math.min(from + batchSize, updates.size()));
+            Map<String, Employe> existing = employeRepository.findAllById(batch.stream().map(EmployeUpdateCommand::id).toList()).stream()
+                .collect(Collectors.toMap(Employe::getId, Function.identity()));
+
+            List<Employe> replacements = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                var update = batch.get(i);
+                var entity = existing.get(update.id());
+                if (entity == null) {
+                    results.add(BulkItemResultDTO.of(Operation.UPDATE, from + i, update.id(), Status.NOT_FOUND));
+                    continue;
+                }
+                entity.update(update.name(), update.email(), update.birthDate());
+                replacements.add(entity);
+                positions.add(from + i);
+            }
+
+            Map<Integer, String> failures = replacements.isEmpty() ? Map.of() : employeRepository.bulkReplace(replacements);
+            for (int i = 0; i < replacements.size(); i++) {
+                results.add(failures.containsKey(i)
+                    ? BulkItemResultDTO.failed(Operation.UPDATE, positions.get(i), replacements.get(i).getId(), failures.get(i))
+                    : BulkItemResultDTO.of(Operation.UPDATE, positions.get(i), replacements.get(i).getId(), Status.UPDATED));
+                if (!failures.containsKey(i)) {
+                    employeTextIndex.put(replacements.get(i));
+                }
+            }
+        }
+
+        List<String> deletes = command.delete() != null ? command.delete() : List.of();
+        for (int from = 0; from < deletes.size(); from += batchSize) {
+            List<String> batch = deletes.subList(from, Math.min(from + batchSize, deletes.size()));
+            Set<String> existing = employeRepository.findExistingIds(batch);
+            List<String> removals = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (!existing.contains(batch.get(i))) {
+                    results.add(BulkItemResultDTO.of(Operation.DELETE, from + i, batch.get(i), Status.NOT_FOUND));
+                    continue;
+                }
+                removals.add(batch.get(i));
+                positions.add(from + i);
+            }
+            if (removals.isEmpty()) {
+                continue;
+            }
+
+            Map<String, String> employerIds = employeRepository.findEmployerIds(removals);
+            Map<Integer, String> failures = employeRepository.bulkDelete(removals);
+            Map<String, Integer> released = new HashMap<>();
+            for (int i = 0; i < removals.size(); i++) {
+                results.add(failures.containsKey(i)
+                    ? BulkItemResultDTO.failed(Operation.DELETE, positions.get(i), removals.get(i), failures.get(i))
+                    : BulkItemResultDTO.of(Operation.DELETE, positions.get(i), removals.get(i), Status.DELETED));
+                if (!failures.containsKey(i)) {
+                    employeTextIndex.remove(removals.get(i));
+                }
+                String employerId = failures.containsKey(i) ? null : employerIds.remove(removals.get(i));
+                if (employerId != null) {
+                    released.merge(employerId, -1, Integer::sum);
+                }
+            }
+            if (!released.isEmpty()) {
+                employerRepository.incrementHeadcounts(released);
+            }
+        }
+
+        return BulkResultDTO.from(results);
+    }
+
+    /**
+     * Deletes the employee and releases its employer's headcount, which changes the employer's version too.
+     */
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.EMPLOYEES, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.EMPLOYERS, allEntries = true)
+    })
     public void delete(String id) {
-        employeRepository.deleteById(id);
+        Optional<Employe> deleted = employeRepository.findAndDeleteById(id);
+        employeTextIndex.remove(id);
+        deleted.map(Employe::getEmployerId)
+            .ifPresent(employerId -> employerRepository.incrementHeadcounts(Map.of(employerId, -1)));
+    }
+
+    /**
+     * Links the employee to the employer, or unlinks it when {@code employerId} is null, and moves one unit of
+     * headcount from the previous employer to the new one with $inc. The link and the counters are separate
+     * single-document writes, not a transaction.
+     */
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.EMPLOYEES, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.EMPLOYERS, allEntries = true)
+    })
+    public void assignEmployer(String id, String employerId) {
+        if (employerId != null && !employerRepository.existsById(employerId)) {
+            throw new NoSuchElementException("Employer not found: " + employerId);
+        }
+        String previous = employeRepository.assignEmployer(id, employerId).orElseThrow().getEmployerId();
+        if (Objects.equals(previous, employerId)) {
+            return;
+        }
+        Map<String, Integer> deltas = new HashMap<>();
+        if (previous != null) {
+            deltas.put(previous, -1);
+        }
+        if (employerId != null) {
+            deltas.put(employerId, 1);
+        }
+        employerRepository.incrementHeadcounts(deltas);
     }
 
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES, key = "#id")
     public EmployeDTO findById(String id) {
         return employeRepository
         .findById(id)
@@ -43,6 +226,13 @@ public class EmployeService {
         .orElseThrow();
     }
 
+    /**
+     * Current version without loading the document, to answer conditional requests; empty when not found.
+     */
+    public Optional<Long> findVersion(String id) {
+        return employeRepository.findVersionById(id);
+    }
+
     public List<EmployeDTO> findAll() {
         return employeRepository
         .findAll()
@@ -51,6 +241,29 @@ public class EmployeService {
         .toList();
     }
 
+    /**
+     * Like {@link #findAll()}, fetching only the given fields from Mongo; null or empty fetches every field.
+     */
+    public List<EmployeDTO> findAll(Set<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return findAll();
+        }
+        return employeRepository
+        .findAllWithFields(fields)
+        .stream()
+        .map(EmployeDTO::from)
+        .toList();
+    }
+
+    /**
+     * Lazily mapped stream over a Mongo cursor; the caller must close it.
+     */
+    public Stream<EmployeDTO> streamAll() {
+        return employeRepository
+        .streamAll()
+        .map(EmployeDTO::from);
+    }
+
     public PageDTO<EmployeDTO> findWithFilters(EmployeFilterQuery filterQuery) {
         var pageable = filterQuery.toPageable();
         var page = employeRepository.findWithFilters(filterQuery, pageable);
@@ -58,4 +271,46 @@ public class EmployeService {
         return PageDTO.from(page.map(EmployeDTO::from));
     }
 
+    /**
+     * Employees with a birthday in the {@code days} days starting at {@code from} (today when null),
+     * soonest first.
+     */
+    public List<EmployeDTO> findUpcomingBirthdays(LocalDate from, int days, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return employeRepository
+        .findUpcomingBirthdays(from != null ? from : LocalDate.now(), days, limit)
+        .stream()
+        .map(EmployeDTO::from)
+        .toList();
+    }
+
+    /**
+     * Filter page with each employee's employer resolved by a single $in over the distinct employer ids
+     * of the page, rather than one lookup per row.
+     */
+    public PageDTO<EmploymentDTO> findWithEmployers(EmployeFilterQuery filterQuery) {
+        if (filterQuery.getFields() != null && !filterQuery.getFields().isEmpty()) {
+            // The link itself is needed for the lookup even when the client did not ask for it
+            Set<String> fields = new HashSet<>(filterQuery.getFields());
+            fields.add("employerId");
+            filterQuery.setFields(fields);
+        }
+        var page = employeRepository.findWithFilters(filterQuery, filterQuery.toPageable());
+
+        Set<String> employerIds = page.getContent().stream()
+            .map(Employe::getEmployerId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Map<String, EmployerDTO> employers = employerIds.isEmpty()
+            ? Map.of()
+            : employerRepository.findAllById(employerIds).stream()
+                .collect(Collectors.toMap(Employer::getId, EmployerDTO::from));
+
+        return PageDTO.from(page.map(employe -> new EmploymentDTO(
+            EmployeDTO.from(employe),
+            employe.getEmployerId() != null ? employers.get(employe.getEmployerId()) : null)));
+    }
+
 }
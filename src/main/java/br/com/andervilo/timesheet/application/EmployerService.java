@@ -1,15 +1,34 @@
 package br.com.andervilo.timesheet.application;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import br.com.andervilo.timesheet.application.command.EmployerBulkCommand;
+import br.com.andervilo.timesheet.application.command.EmployerBulkUpdateCommand;
 import br.com.andervilo.timesheet.application.command.EmployerCreateCommand;
 import br.com.andervilo.timesheet.application.command.EmployerUpdateCommand;
+import br.com.andervilo.timesheet.application.dto.BulkItemResultDTO;
+import br.com.andervilo.timesheet.application.dto.BulkItemResultDTO.Operation;
+import br.com.andervilo.timesheet.application.dto.BulkItemResultDTO.Status;
+import br.com.andervilo.timesheet.application.dto.BulkResultDTO;
 import br.com.andervilo.timesheet.application.dto.EmployerDTO;
 import br.com.andervilo.timesheet.application.dto.PageDTO;
 import br.com.andervilo.timesheet.application.query.EmployerFilterQuery;
+import br.com.andervilo.timesheet.config.BulkProperties;
+import br.com.andervilo.timesheet.config.CacheConfig;
 import br.com.andervilo.timesheet.domain.Employer;
+import br.com.andervilo.timesheet.infrastructure.repository.EmployeRepository;
 import br.com.andervilo.timesheet.infrastructure.repository.EmployerRepository;
 import lombok.RequiredArgsConstructor;
 
@@ -17,7 +36,11 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class EmployerService {
 
+    private static final String LINKED_EMPLOYEES = "Employer still has linked employees; unlink or move them first";
+
     private final EmployerRepository employerRepository;
+    private final EmployeRepository employeRepository;
+    private final BulkProperties bulkProperties;
 
     public EmployerDTO create(EmployerCreateCommand command) {
         var employer = Employer.of(command.name(), command.cnpj(), command.address(), command.phone(), command.email());
@@ -25,6 +48,7 @@ public class EmployerService {
         return EmployerDTO.from(employer);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYERS, key = "#id")
     public EmployerDTO update(String id, EmployerUpdateCommand command) {
         var employerExisting = employerRepository.findById(id).orElseThrow();
         employerExisting.update(command.name(), command.cnpj(), command.address(), command.phone(), command.email());
@@ -32,10 +56,101 @@ public class EmployerService {
         return EmployerDTO.from(employerExisting);
     }
 
+    /**
+     * Applies the creates, updates and deletes as unordered bulk writes of {@code timesheet.bulk.batch-size}
+     * operations and reports every item by its position in its own list. Deletes of employers that employees are
+     * still linked to fail, as {@link #delete} refuses them.
+     */
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYERS, allEntries = true)
+    public BulkResultDTO bulk(EmployerBulkCommand command) {
+        List<BulkItemResultDTO> results = new ArrayList<>();
+        int batchSize = Math.max(1, bulkProperties.batchSize());
+
+        List<EmployerCreateCommand> creates = command.create() != null ? command.create() : List.of();
+        for (int from = 0; from < creates.size(); from += batchSize) {
+            List<Employer> batch = creates.subList(from, Math.min(from + batchSize, creates.size())).stream()
+                .map(create -> Employer.of(create.name(), create.cnpj(), create.address(), create.phone(), create.email()))
+                .toList();
+            Map<Integer, String> failures = employerRepository.bulkInsert(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                results.add(failures.containsKey(i)
+                    ? BulkItemResultDTO.failed(Operation.CREATE, from + i, batch.get(i).getId(), failures.get(i))
+                    : BulkItemResultDTO.of(Operation.CREATE, from + i, batch.get(i).getId(), Status.CREATED));
+            }
+        }
+
+        List<EmployerBulkUpdateCommand> updates = command.update() != null ? command.update() : List.of();
+        for (int from = 0; from < updates.size(); from += batchSize) {
+            List<EmployerBulkUpdateCommand> batch = updates.subList(from, Math.min(from + batchSize, updates.size()));
+            Map<String, Employer> existing = employerRepository.findAllById(batch.stream().map(EmployerBulkUpdateCommand::id).toList()).stream()
+                .collect(Collectors.toMap(Employer::getId, Function.identity()));
+
+            List<Employer> replacements = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                var update = batch.get(i);
+                var entity = existing.get(update.id());
+                if (entity == null) {
+                    results.add(BulkItemResultDTO.of(Operation.UPDATE, from + i, update.id(), Status.NOT_FOUND));
+                    continue;
+                }
+                entity.update(update.name(), update.cnpj(), update.address(), update.phone(), update.email());
+                replacements.add(entity);
+                positions.add(from + i);
+            }
+
+            Map<Integer, String> failures = replacements.isEmpty() ? Map.of() : employerRepository.bulkReplace(replacements);
+            for (int i = 0; i < replacements.size(); i++) {
+                results.add(failures.containsKey(i)
+                    ? BulkItemResultDTO.failed(Operation.UPDATE, positions.get(i), replacements.get(i).getId(), failures.get(i))
+                    : BulkItemResultDTO.of(Operation.UPDATE, positions.get(i), replacements.get(i).getId(), Status.UPDATED));
+            }
+        }
+
+        List<String> deletes = command.delete() != null ? command.delete() : List.of();
+        for (int from = 0; from < deletes.size(); from += batchSize) {
+            List<String> batch = deletes.subList(from, Math.min(from + batchSize, deletes.size()));
+            Set<String> existing = employerRepository.findExistingIds(batch);
+            Set<String> linked = existing.isEmpty() ? Set.of() : employeRepository.findLinkedEmployerIds(existing);
+            List<String> removals = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (!existing.contains(batch.get(i))) {
+                    results.add(BulkItemResultDTO.of(Operation.DELETE, from + i, batch.get(i), Status.NOT_FOUND));
+                    continue;
+                }
+                if (linked.contains(batch.get(i))) {
+                    results.add(BulkItemResultDTO.failed(Operation.DELETE, from + i, batch.get(i), LINKED_EMPLOYEES));
+                    continue;
+                }
+                removals.add(batch.get(i));
+                positions.add(from + i);
+            }
+
+            Map<Integer, String> failures = removals.isEmpty() ? Map.of() : employerRepository.bulkDelete(removals);
+            for (int i = 0; i < removals.size(); i++) {
+                results.add(failures.containsKey(i)
+                    ? BulkItemResultDTO.failed(Operation.DELETE, positions.get(i), removals.get(i), failures.get(i))
+                    : BulkItemResultDTO.of(Operation.DELETE, positions.get(i), removals.get(i), Status.DELETED));
+            }
+        }
+
+        return BulkResultDTO.from(results);
+    }
+
+    /**
+     * Deletes the employer, refused while employees are linked to it so that none is left pointing at a missing
+     * employer; the check reads the links themselves, not the headcount, which is kept by separate writes.
+     */
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYERS, key = "#id")
     public void delete(String id) {
+        if (!employeRepository.findLinkedEmployerIds(List.of(id)).isEmpty()) {
+            throw new DataIntegrityViolationException(LINKED_EMPLOYEES);
+        }
         employerRepository.deleteById(id);
     }
 
+    @Cacheable(cacheNames = CacheConfig.EMPLOYERS, key = "#id")
     public EmployerDTO findById(String id) {
         return employerRepository
             .findById(id)
@@ -43,6 +158,27 @@ public class EmployerService {
             .orElseThrow();
     }
 
+    /**
+     * The employer with this CNPJ, typed with or without punctuation, looked up on the unique cnpjKey index.
+     */
+    public EmployerDTO findByCnpj(String cnpj) {
+        String cnpjKey = Employer.cnpjKeyOf(cnpj);
+        if (cnpjKey == null || cnpjKey.length() != Employer.CNPJ_DIGITS) {
+            throw new IllegalArgumentException("cnpj must have " + Employer.CNPJ_DIGITS + " digits");
+        }
+        return employerRepository
+            .findByCnpjKey(cnpjKey)
+            .map(EmployerDTO::from)
+            .orElseThrow();
+    }
+
+    /**
+     * Current version without loading the document, to answer conditional requests; empty when not found.
+     */
+    public Optional<Long> findVersion(String id) {
+        return employerRepository.findVersionById(id);
+    }
+
     public List<EmployerDTO> findAll() {
         return employerRepository
             .findAll()
@@ -51,6 +187,29 @@ public class EmployerService {
             .toList();
     }
 
+    /**
+     * Like {@link #findAll()}, fetching only the given fields from Mongo; null or empty fetches every field.
+     */
+    public List<EmployerDTO> findAll(Set<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return findAll();
+        }
+        return employerRepository
+            .findAllWithFields(fields)
+            .stream()
+            .map(EmployerDTO::from)
+            .toList();
+    }
+
+    /**
+     * Lazily mapped stream over a Mongo cursor; the caller must close it.
+     */
+    public Stream<EmployerDTO> streamAll() {
+        return employerRepository
+            .streamAll()
+            .map(EmployerDTO::from);
+    }
+
     public PageDTO<EmployerDTO> findWithFilters(EmployerFilterQuery filterQuery) {
         var pageable = filterQuery.toPageable();
         var page = employerRepository.findWithFilters(filterQuery, pageable);
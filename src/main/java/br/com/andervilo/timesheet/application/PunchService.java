@@ -0,0 +1,53 @@
+package br.com.andervilo.timesheet.application;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Range;
+import org.springframework.stereotype.Service;
+
+import br.com.andervilo.timesheet.application.command.PunchCommand;
+import br.com.andervilo.timesheet.application.dto.PunchDTO;
+import br.com.andervilo.timesheet.application.dto.PunchReceiptDTO;
+import br.com.andervilo.timesheet.domain.Punch;
+import br.com.andervilo.timesheet.infrastructure.ingest.PunchBuffer;
+import br.com.andervilo.timesheet.infrastructure.repository.PunchRepository;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class PunchService {
+
+    private final PunchBuffer punchBuffer;
+    private final PunchRepository punchRepository;
+    private final Clock clock = Clock.systemUTC();
+
+    /**
+     * Queues the punches for a batched write; they become readable within one flush interval.
+     */
+    public PunchReceiptDTO record(List<PunchCommand> commands) {
+        Instant now = clock.instant();
+        List<Punch> punches = commands.stream()
+            .map(command -> {
+                if (command.employeId() == null || command.employeId().isEmpty() || command.type() == null) {
+                    throw new IllegalArgumentException("Every punch needs an employeId and a type");
+                }
+                return Punch.of(command.employeId(), command.type(), command.timestamp() != null ? command.timestamp() : now);
+            })
+            .toList();
+        int accepted = punchBuffer.offer(punches);
+        return new PunchReceiptDTO(accepted, punches.size() - accepted);
+    }
+
+    /**
+     * Punches in [from, to), oldest first.
+     */
+    public List<PunchDTO> findByEmploye(String employeId, Instant from, Instant to) {
+        return punchRepository
+            .findByEmployeIdAndTimestampBetweenOrderByTimestampAsc(employeId, Range.rightOpen(from, to))
+            .stream()
+            .map(PunchDTO::from)
+            .toList();
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.andervilo.timesheet.application;
+
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+
+import br.com.andervilo.timesheet.application.dto.EmployeDTO;
+import br.com.andervilo.timesheet.application.dto.PageDTO;
+import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import br.com.andervilo.timesheet.infrastructure.repository.ReactiveEmployeRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read side of {@link EmployeService} on the reactive driver: no thread waits on Mongo while a query runs.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveEmployeService {
+
+    private final ReactiveEmployeRepository reactiveEmployeRepository;
+
+    public Mono<EmployeDTO> findById(String id) {
+        return reactiveEmployeRepository
+            .findById(id)
+            .map(EmployeDTO::from)
+            .switchIfEmpty(Mono.error(() -> new NoSuchElementException("No value present")));
+    }
+
+    /**
+     * Current version without loading the document; empty when not found.
+     */
+    public Mono<Long> findVersion(String id) {
+        return reactiveEmployeRepository.findVersionById(id);
+    }
+
+    public Flux<EmployeDTO> findAll(Set<String> fields) {
+        return reactiveEmployeRepository
+            .findAll(fields)
+            .map(EmployeDTO::from);
+    }
+
+    public Mono<PageDTO<EmployeDTO>> findWithFilters(EmployeFilterQuery filterQuery) {
+        var pageable = filterQuery.toPageable();
+        return reactiveEmployeRepository
+            .findWithFilters(filterQuery, pageable)
+            .map(page -> PageDTO.from(page.map(EmployeDTO::from)));
+    }
+}
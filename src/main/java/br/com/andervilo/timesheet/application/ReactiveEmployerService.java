@@ -0,0 +1,51 @@
+package br.com.andervilo.timesheet.application;
+
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+
+import br.com.andervilo.timesheet.application.dto.EmployerDTO;
+import br.com.andervilo.timesheet.application.dto.PageDTO;
+import br.com.andervilo.timesheet.application.query.EmployerFilterQuery;
+import br.com.andervilo.timesheet.infrastructure.repository.ReactiveEmployerRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read side of {@link EmployerService} on the reactive driver: no thread waits on Mongo while a query runs.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveEmployerService {
+
+    private final ReactiveEmployerRepository reactiveEmployerRepository;
+
+    public Mono<EmployerDTO> findById(String id) {
+        return reactiveEmployerRepository
+            .findById(id)
+            .map(EmployerDTO::from)
+            .switchIfEmpty(Mono.error(() -> new NoSuchElementException("No value present")));
+    }
+
+    /**
+     * Current version without loading the document; empty when not found.
+     */
+    public Mono<Long> findVersion(String id) {
+        return reactiveEmployerRepository.findVersionById(id);
+    }
+
+    public Flux<EmployerDTO> findAll(Set<String> fields) {
+        return reactiveEmployerRepository
+            .findAll(fields)
+            .map(EmployerDTO::from);
+    }
+
+    public Mono<PageDTO<EmployerDTO>> findWithFilters(EmployerFilterQuery filterQuery) {
+        var pageable = filterQuery.toPageable();
+        return reactiveEmployerRepository
+            .findWithFilters(filterQuery, pageable)
+            .map(page -> PageDTO.from(page.map(EmployerDTO::from)));
+    }
+}
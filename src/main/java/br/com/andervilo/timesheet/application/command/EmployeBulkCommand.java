@@ -0,0 +1,9 @@
+package br.com.andervilo.timesheet.application.command;
+
+import java.util.List;
+
+public record EmployeBulkCommand(
+    List<EmployeCreateCommand> create,
+    List<EmployeUpdateCommand> update,
+    List<String> delete
+) {}
@@ -0,0 +1,9 @@
+package br.com.andervilo.timesheet.application.command;
+
+import java.util.List;
+
+public record EmployerBulkCommand(
+    List<EmployerCreateCommand> create,
+    List<EmployerBulkUpdateCommand> update,
+    List<String> delete
+) {}
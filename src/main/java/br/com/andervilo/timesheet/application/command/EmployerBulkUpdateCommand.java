@@ -0,0 +1,10 @@
+package br.com.andervilo.timesheet.application.command;
+
+public record EmployerBulkUpdateCommand(
+    String id,
+    String name,
+    String cnpj,
+    String address,
+    String phone,
+    String email
+) {}
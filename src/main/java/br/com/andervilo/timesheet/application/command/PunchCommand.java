@@ -0,0 +1,15 @@
+package br.com.andervilo.timesheet.application.command;
+
+import java.time.Instant;
+
+import br.com.andervilo.timesheet.domain.PunchType;
+
+/**
+ * A punch to record; the timestamp defaults to the time it is received.
+ */
+public record PunchCommand(
+    String employeId,
+    PunchType type,
+    Instant timestamp
+) {
+}
@@ -0,0 +1,21 @@
+package br.com.andervilo.timesheet.application.dto;
+
+public record BulkItemResultDTO(
+    Operation operation,
+    int index,
+    String id,
+    Status status,
+    String error
+) {
+    public enum Operation { CREATE, UPDATE, DELETE }
+
+    public enum Status { CREATED, UPDATED, DELETED, NOT_FOUND, FAILED }
+
+    public static BulkItemResultDTO of(Operation operation, int index, String id, Status status) {
+        return new BulkItemResultDTO(operation, index, id, status, null);
+    }
+
+    public static BulkItemResultDTO failed(Operation operation, int index, String id, String error) {
+        return new BulkItemResultDTO(operation, index, id, Status.FAILED, error);
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.andervilo.timesheet.application.dto;
+
+import java.util.List;
+
+import br.com.andervilo.timesheet.application.dto.BulkItemResultDTO.Status;
+
+public record BulkResultDTO(
+    long created,
+    long updated,
+    long deleted,
+    long notFound,
+    long failed,
+    List<BulkItemResultDTO> items
+) {
+    public static BulkResultDTO from(List<BulkItemResultDTO> items) {
+        return new BulkResultDTO(
+            count(items, Status.CREATED),
+            count(items, Status.UPDATED),
+            count(items, Status.DELETED),
+            count(items, Status.NOT_FOUND),
+            count(items, Status.FAILED),
+            items
+        );
+    }
+
+    private static long count(List<BulkItemResultDTO> items, Status status) {
+        return items.stream().filter(item -> item.status() == status).count();
+    }
+}
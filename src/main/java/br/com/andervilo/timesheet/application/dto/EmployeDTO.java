@@ -1,23 +1,32 @@
 package br.com.andervilo.timesheet.application.dto;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 import br.com.andervilo.timesheet.domain.Employe;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Builder;
 
 @Builder
+@JsonFilter(SparseFields.FILTER)
 public record EmployeDTO(
     String id,
     String name,
     String email,
-    LocalDate birthDate
-) {
+    LocalDate birthDate,
+    String employerId,
+    Long version,
+    Instant lastModified
+) implements VersionedDTO {
     public static EmployeDTO from(Employe employe) {
         return EmployeDTO.builder()
             .id(employe.getId())
             .name(employe.getName())
             .email(employe.getEmail())
             .birthDate(employe.getBirthDate())
+            .employerId(employe.getEmployerId())
+            .version(employe.getVersion())
+            .lastModified(employe.getLastModified())
             .build();
     }
 }
@@ -1,17 +1,24 @@
 package br.com.andervilo.timesheet.application.dto;
 
+import java.time.Instant;
+
 import br.com.andervilo.timesheet.domain.Employer;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Builder;
 
 @Builder
+@JsonFilter(SparseFields.FILTER)
 public record EmployerDTO(
     String id,
     String name,
     String cnpj,
     String address,
     String phone,
-    String email
-) {
+    String email,
+    Long headcount,
+    Long version,
+    Instant lastModified
+) implements VersionedDTO {
     public static EmployerDTO from(Employer employer) {
         return EmployerDTO.builder()
             .id(employer.getId())
@@ -20,6 +27,9 @@ public record EmployerDTO(
             .address(employer.getAddress())
             .phone(employer.getPhone())
             .email(employer.getEmail())
+            .headcount(employer.getHeadcount())
+            .version(employer.getVersion())
+            .lastModified(employer.getLastModified())
             .build();
     }
 } 
\ No newline at end of file
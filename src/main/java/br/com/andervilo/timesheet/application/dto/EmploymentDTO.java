@@ -0,0 +1,11 @@
+package br.com.andervilo.timesheet.application.dto;
+
+/**
+ * An employee with its employer resolved; employer is null when the employee is not linked to one
+ * or the link points at an employer that no longer exists.
+ */
+public record EmploymentDTO(
+    EmployeDTO employe,
+    EmployerDTO employer
+) {
+}
@@ -3,25 +3,48 @@ package br.com.andervilo.timesheet.application.dto;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
+import br.com.andervilo.timesheet.application.query.FilterSlice;
+
+/**
+ * Page of results; totalElements and totalPages are {@code null} when the total was not counted.
+ */
 public record PageDTO<T>(
     List<T> content,
-    long totalElements,
-    int totalPages,
+    Long totalElements,
+    Integer totalPages,
     int currentPage,
     int pageSize,
     boolean first,
-    boolean last
+    boolean last,
+    String nextCursor
 ) {
-    public static <T> PageDTO<T> from(Page<T> page) {
+    public PageDTO(List<T> content, long totalElements, int totalPages, int currentPage, int pageSize, boolean first, boolean last) {
+        this(content, totalElements, totalPages, currentPage, pageSize, first, last, null);
+    }
+
+    public static <T> PageDTO<T> from(Slice<T> slice) {
+        Long totalElements = null;
+        Integer totalPages = null;
+        String nextCursor = null;
+        if (slice instanceof Page<T> page) {
+            totalElements = page.getTotalElements();
+            totalPages = page.getTotalPages();
+        } else if (slice instanceof FilterSlice<T> filterSlice) {
+            totalElements = filterSlice.getTotalElements();
+            totalPages = filterSlice.getTotalPages();
+            nextCursor = filterSlice.getNextCursor();
+        }
         return new PageDTO<>(
-            page.getContent(),
-            page.getTotalElements(),
-            page.getTotalPages(),
-            page.getNumber(),
-            page.getSize(),
-            page.isFirst(),
-            page.isLast()
+            slice.getContent(),
+            totalElements,
+            totalPages,
+            slice.getNumber(),
+            slice.getSize(),
+            slice.isFirst(),
+            slice.isLast(),
+            nextCursor
         );
     }
-} 
\ No newline at end of file
+} 
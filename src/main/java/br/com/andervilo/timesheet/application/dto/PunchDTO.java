@@ -0,0 +1,24 @@
+package br.com.andervilo.timesheet.application.dto;
+
+import java.time.Instant;
+
+import br.com.andervilo.timesheet.domain.Punch;
+import br.com.andervilo.timesheet.domain.PunchType;
+import lombok.Builder;
+
+@Builder
+public record PunchDTO(
+    String id,
+    String employeId,
+    PunchType type,
+    Instant timestamp
+) {
+    public static PunchDTO from(Punch punch) {
+        return PunchDTO.builder()
+            .id(punch.getId())
+            .employeId(punch.getEmployeId())
+            .type(punch.getType())
+            .timestamp(punch.getTimestamp())
+            .build();
+    }
+}
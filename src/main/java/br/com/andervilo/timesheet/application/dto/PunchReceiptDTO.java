@@ -0,0 +1,11 @@
+package br.com.andervilo.timesheet.application.dto;
+
+/**
+ * Outcome of handing punches to the write buffer: the first {@code accepted} punches of the request were queued,
+ * the remaining {@code rejected} ones were not because the buffer was full and should be retried.
+ */
+public record PunchReceiptDTO(
+    int accepted,
+    int rejected
+) {
+}
@@ -0,0 +1,26 @@
+package br.com.andervilo.timesheet.application.dto;
+
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+/**
+ * Jackson filter behind the {@code fields} parameter: DTOs annotated with {@code @JsonFilter(SparseFields.FILTER)}
+ * write only the requested properties, or all of them when no fields are requested.
+ */
+public final class SparseFields {
+
+    public static final String FILTER = "sparseFields";
+
+    private SparseFields() {
+    }
+
+    public static FilterProvider provider(Set<String> fields) {
+        SimpleBeanPropertyFilter filter = fields == null || fields.isEmpty()
+            ? SimpleBeanPropertyFilter.serializeAll()
+            : SimpleBeanPropertyFilter.filterOutAllExcept(fields);
+        return new SimpleFilterProvider().addFilter(FILTER, filter);
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.andervilo.timesheet.application.dto;
+
+import java.time.Instant;
+
+/**
+ * DTO of a versioned document; the id and version identify the representation for conditional requests.
+ */
+public interface VersionedDTO {
+
+    String id();
+
+    Long version();
+
+    Instant lastModified();
+}
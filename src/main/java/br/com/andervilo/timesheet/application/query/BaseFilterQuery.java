@@ -1,5 +1,7 @@
 package br.com.andervilo.timesheet.application.query;
 
+import java.util.Set;
+
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -9,12 +11,21 @@ public abstract class BaseFilterQuery {
     private int size = 10;
     private String sortBy;
     private Sort.Direction direction = Sort.Direction.ASC;
+    private String after; // opaque cursor from a previous PageDTO.nextCursor; when set, page is ignored
+    private MatchMode matchMode = MatchMode.CONTAINS;
+    private CountMode countMode = CountMode.EXACT;
+    private Set<String> fields; // sparse fieldset, e.g. ["id", "name"]; null returns every field
 
     public Pageable toPageable() {
+        int pageNumber = hasCursor() ? 0 : page;
         if (sortBy != null && !sortBy.isEmpty()) {
-            return PageRequest.of(page, size, direction, sortBy);
+            return PageRequest.of(pageNumber, size, direction, sortBy);
         }
-        return PageRequest.of(page, size);
+        return PageRequest.of(pageNumber, size);
+    }
+
+    public boolean hasCursor() {
+        return after != null && !after.isEmpty();
     }
 
     public void setPage(int page) {
@@ -33,6 +44,22 @@ public abstract class BaseFilterQuery {
         this.direction = direction;
     }
 
+    public void setAfter(String after) {
+        this.after = after;
+    }
+
+    public void setMatchMode(MatchMode matchMode) {
+        this.matchMode = matchMode;
+    }
+
+    public void setCountMode(CountMode countMode) {
+        this.countMode = countMode;
+    }
+
+    public void setFields(Set<String> fields) {
+        this.fields = fields;
+    }
+
     public int getPage() {
         return page;
     }
@@ -48,4 +75,20 @@ public abstract class BaseFilterQuery {
     public Sort.Direction getDirection() {
         return direction;
     }
-} 
\ No newline at end of file
+
+    public String getAfter() {
+        return after;
+    }
+
+    public MatchMode getMatchMode() {
+        return matchMode;
+    }
+
+    public CountMode getCountMode() {
+        return countMode;
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+}
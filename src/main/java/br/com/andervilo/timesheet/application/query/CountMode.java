@@ -0,0 +1,13 @@
+package br.com.andervilo.timesheet.application.query;
+
+/**
+ * How the total of a filter query is computed.
+ */
+public enum CountMode {
+    /** Exact count of the matching documents. */
+    EXACT,
+    /** Collection metadata count when nothing is filtered, exact count otherwise. */
+    ESTIMATED,
+    /** No count: the page only tells whether a next one exists. */
+    NONE
+}
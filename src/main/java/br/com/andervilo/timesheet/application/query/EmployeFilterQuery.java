@@ -14,4 +14,5 @@ public class EmployeFilterQuery extends BaseFilterQuery {
     private LocalDate birthDateStart;
     private LocalDate birthDateEnd;
     private Integer birthMonth; // 1-12 representing January-December
+    private String employerId;
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package br.com.andervilo.timesheet.application.query;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * One page of a filter query. The total is {@code null} when it was not counted ({@link CountMode#NONE}),
+ * and the opaque "after" token pointing past the last element is {@code null} when there is no next page.
+ */
+public class FilterSlice<T> extends SliceImpl<T> {
+
+    private final Long totalElements;
+    private final String nextCursor;
+
+    public FilterSlice(List<T> content, Pageable pageable, boolean hasNext, Long totalElements, String nextCursor) {
+        super(content, pageable, hasNext);
+        this.totalElements = totalElements;
+        this.nextCursor = nextCursor;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public Integer getTotalPages() {
+        if (totalElements == null) {
+            return null;
+        }
+        return getSize() == 0 ? 1 : (int) Math.ceil((double) totalElements / getSize());
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    @Override
+    public <U> Slice<U> map(Function<? super T, ? extends U> converter) {
+        return new FilterSlice<>(getConvertedContent(converter), getPageable(), hasNext(), totalElements, nextCursor);
+    }
+}
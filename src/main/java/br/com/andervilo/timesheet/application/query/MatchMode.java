@@ -0,0 +1,17 @@
+package br.com.andervilo.timesheet.application.query;
+
+/**
+ * How text filters (name, email, ...) are matched.
+ */
+public enum MatchMode {
+    /** Case-insensitive literal substring match; the input is quoted, never read as a pattern. Cannot use an index. */
+    CONTAINS,
+    /** Case- and accent-insensitive "starts with", answered by a range on a collated index. */
+    PREFIX,
+    /**
+     * Case-insensitive regular expression, opt-in. Patterns are capped in length, may not use backreferences,
+     * lookarounds, or repeated groups holding a quantifier or alternation, and the query is aborted server-side
+     * after a time limit.
+     */
+    REGEX
+}
@@ -0,0 +1,9 @@
+package br.com.andervilo.timesheet.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "timesheet.bulk")
+public record BulkProperties(
+    @DefaultValue("1000") int batchSize
+) {}
@@ -0,0 +1,16 @@
+package br.com.andervilo.timesheet.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches are declared in application.yml (spring.cache.*); Caffeine stats are published by the actuator
+ * as cache.gets{result=hit|miss}, cache.evictions and cache.size.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String EMPLOYEES = "employees";
+    public static final String EMPLOYERS = "employers";
+}
@@ -0,0 +1,23 @@
+package br.com.andervilo.timesheet.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Adaptive limit of requests in flight on the employee and employer APIs. The limit starts at
+ * {@code initialLimit} and moves between {@code minLimit} and {@code maxLimit}: it grows while latency stays
+ * within {@code tolerance} times its long-term average and shrinks as it rises beyond; {@code smoothing} is the
+ * share of each new estimate taken. Requests over the limit get 503 with {@code retryAfter}.
+ */
+@ConfigurationProperties(prefix = "timesheet.concurrency-limit")
+public record ConcurrencyLimitProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("20") int initialLimit,
+    @DefaultValue("4") int minLimit,
+    @DefaultValue("200") int maxLimit,
+    @DefaultValue("1.5") double tolerance,
+    @DefaultValue("0.2") double smoothing,
+    @DefaultValue("1s") Duration retryAfter
+) {}
@@ -0,0 +1,40 @@
+package br.com.andervilo.timesheet.config;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import br.com.andervilo.timesheet.application.dto.SparseFields;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Responses that do not ask for a sparse fieldset still serialize DTOs carrying the sparse-fields filter.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsFilterCustomizer() {
+        return builder -> builder.filters(SparseFields.provider(null));
+    }
+
+    /**
+     * Binary encodings for internal consumers, negotiated with Accept: application/cbor or application/x-jackson-smile.
+     * They replace Spring MVC's default CBOR/Smile converters in place, after JSON, so JSON stays the default;
+     * the mappers come from the application's builder and so share its modules, settings and filters.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.andervilo.timesheet.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * In-memory repositories of the "memory" profile; without a snapshot file nothing outlives the process.
+ */
+@ConfigurationProperties(prefix = "timesheet.memory")
+public record MemoryStoreProperties(
+    Path snapshot,
+    @DefaultValue("60s") Duration snapshotInterval
+) {}
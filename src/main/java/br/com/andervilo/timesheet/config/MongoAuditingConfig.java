@@ -0,0 +1,14 @@
+package br.com.andervilo.timesheet.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+
+/**
+ * Fills {@code @LastModifiedDate} on every save, including the inserts and replaces of bulk writes.
+ */
+@Configuration
+@Profile("!memory")
+@EnableMongoAuditing
+public class MongoAuditingConfig {
+}
@@ -0,0 +1,19 @@
+package br.com.andervilo.timesheet.config;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import br.com.andervilo.timesheet.infrastructure.metrics.MongoCommandMetricsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@Profile("!memory")
+public class MongoMetricsConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandMetrics(MeterRegistry meterRegistry) {
+        return settings -> settings.addCommandListener(new MongoCommandMetricsListener(meterRegistry));
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.andervilo.timesheet.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "timesheet.punch")
+public record PunchProperties(
+    @DefaultValue("1000") int batchSize,
+    @DefaultValue("200ms") Duration flushInterval,
+    @DefaultValue("100000") int bufferCapacity
+) {}
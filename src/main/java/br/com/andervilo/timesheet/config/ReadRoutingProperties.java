@@ -0,0 +1,18 @@
+package br.com.andervilo.timesheet.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Read preference mode (primary, primaryPreferred, secondary, secondaryPreferred, nearest) of each kind of heavy
+ * read; unset leaves it to the connection string. Secondaries more than {@code maxStaleness} behind are skipped.
+ */
+@ConfigurationProperties(prefix = "timesheet.mongo.read-routing")
+public record ReadRoutingProperties(
+    String filter,
+    String export,
+    String count,
+    @DefaultValue("90s") Duration maxStaleness
+) {}
@@ -0,0 +1,14 @@
+package br.com.andervilo.timesheet.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "timesheet.slow-query")
+public record SlowQueryProperties(
+    @DefaultValue("500ms") Duration threshold,
+    @DefaultValue("100") int capacity,
+    @DefaultValue("true") boolean explain,
+    @DefaultValue("5s") Duration explainMaxTime
+) {}
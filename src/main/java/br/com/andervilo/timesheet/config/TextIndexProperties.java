@@ -0,0 +1,17 @@
+package br.com.andervilo.timesheet.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * The employee text index; disabled unless this instance makes every write, since a contains filter never
+ * returns a document the index has not seen yet.
+ */
+@ConfigurationProperties(prefix = "timesheet.text-index")
+public record TextIndexProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("20000") int maxCandidates,
+    @DefaultValue("15m") Duration rebuildInterval
+) {}
@@ -1,9 +1,14 @@
 package br.com.andervilo.timesheet.config;
 
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import br.com.andervilo.timesheet.infrastructure.limit.AdaptiveConcurrencyLimiter;
+import br.com.andervilo.timesheet.infrastructure.limit.ConcurrencyLimitFilter;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
@@ -12,8 +17,23 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addMapping("/**")
                 .allowedOriginPatterns("*")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
-                .allowedHeaders("Origin", "Content-Type", "Accept", "Authorization")
+                .allowedHeaders("Origin", "Content-Type", "Accept", "Authorization", "If-None-Match")
+                .exposedHeaders("ETag", "Retry-After")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Load shedding in front of the employee and employer APIs; punches have their own bounded buffer and the
+     * actuator must stay reachable while shedding.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter,
+                                                                                 ConcurrencyLimitProperties properties) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+            new ConcurrencyLimitFilter(limiter, properties.retryAfter().toSeconds()));
+        registration.addUrlPatterns("/api/employees/*", "/api/employers/*", "/api/v2/employees/*", "/api/v2/employers/*");
+        registration.setEnabled(properties.enabled());
+        return registration;
+    }
+}
@@ -6,8 +6,11 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
@@ -23,11 +26,27 @@ public class Employe {
     private String email;
     private LocalDate birthDate;
 
+    // Derived from birthDate so month/day filters can be answered from an index
+    private Integer birthMonth;
+    private Integer birthDay;
+
+    // Current employer, if any; Employer.headcount counts the employees pointing at it
+    private String employerId;
+
+    // Incremented on every write; the ETag of the resource
+    @Version
+    private Long version;
+
+    @LastModifiedDate
+    private Instant lastModified;
+
     public static Employe of(String name, String email, LocalDate birthDate) {
         return Employe.builder()
             .name(name)
             .email(email)
             .birthDate(birthDate)
+            .birthMonth(birthDate != null ? birthDate.getMonthValue() : null)
+            .birthDay(birthDate != null ? birthDate.getDayOfMonth() : null)
             .build();
     }
 
@@ -35,6 +54,8 @@ public class Employe {
         this.name = nameUpdate;
         this.email = emailUpdate;
         this.birthDate = birthDateUpDate;
+        this.birthMonth = birthDateUpDate != null ? birthDateUpDate.getMonthValue() : null;
+        this.birthDay = birthDateUpDate != null ? birthDateUpDate.getDayOfMonth() : null;
     }
 
 
@@ -6,7 +6,11 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
@@ -15,6 +19,8 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @AllArgsConstructor
 @Document(collection = "employers")
 public class Employer {
+    public static final int CNPJ_DIGITS = 14;
+
     @Id
     private String id;
 
@@ -24,6 +30,20 @@ public class Employer {
     private String phone;
     private String email;
 
+    // Digits of cnpj and phone, derived so exact lookups ignore how the number was typed; cnpjKey is unique
+    private String cnpjKey;
+    private String phoneKey;
+
+    // Number of employees linked to this employer, maintained with $inc as links change
+    private Long headcount;
+
+    // Incremented on every write; the ETag of the resource
+    @Version
+    private Long version;
+
+    @LastModifiedDate
+    private Instant lastModified;
+
     public static Employer of(String name, String cnpj, String address, String phone, String email) {
         return Employer.builder()
             .name(name)
@@ -31,6 +51,9 @@ public class Employer {
             .address(address)
             .phone(phone)
             .email(email)
+            .cnpjKey(cnpjKeyOf(cnpj))
+            .phoneKey(phoneKeyOf(phone))
+            .headcount(0L)
             .build();
     }
 
@@ -40,5 +63,43 @@ public class Employer {
         this.address = address;
         this.phone = phone;
         this.email = email;
+        this.cnpjKey = cnpjKeyOf(cnpj);
+        this.phoneKey = phoneKeyOf(phone);
+    }
+
+    /**
+     * Digits of a CNPJ however punctuated, e.g. "12345678000190" for "12.345.678/0001-90"; null when there are none.
+     */
+    public static String cnpjKeyOf(String cnpj) {
+        return digitsOf(cnpj);
+    }
+
+    /**
+     * Digits of a phone number without the +55 country code and the 0 trunk prefix, so "+55 (11) 98765-4321",
+     * "011 98765-4321" and "11987654321" share a key; null when there are no digits.
+     */
+    public static String phoneKeyOf(String phone) {
+        String digits = digitsOf(phone);
+        if (digits != null && digits.startsWith("55") && digits.length() >= 12) {
+            digits = digits.substring(2);
+        }
+        if (digits != null && digits.startsWith("0") && digits.length() >= 11) {
+            digits = digits.substring(1);
+        }
+        return digits;
+    }
+
+    private static String digitsOf(String value) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.isEmpty() ? null : digits.toString();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,39 @@
+package br.com.andervilo.timesheet.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+/**
+ * A clock-in or clock-out, stored in a time-series collection bucketed per employee.
+ */
+@Data
+@Builder(access = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "punches")
+@TimeSeries(collection = "punches", timeField = "timestamp", metaField = "employeId", granularity = Granularity.SECONDS)
+public class Punch {
+    @Id
+    private String id;
+
+    private String employeId;
+    private Instant timestamp;
+    private PunchType type;
+
+    public static Punch of(String employeId, PunchType type, Instant timestamp) {
+        return Punch.builder()
+            .employeId(employeId)
+            .type(type)
+            .timestamp(timestamp)
+            .build();
+    }
+}
@@ -0,0 +1,6 @@
+package br.com.andervilo.timesheet.domain;
+
+public enum PunchType {
+    CLOCK_IN,
+    CLOCK_OUT
+}
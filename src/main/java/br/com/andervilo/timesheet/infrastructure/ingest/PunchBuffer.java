@@ -0,0 +1,136 @@
+package br.com.andervilo.timesheet.infrastructure.ingest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import br.com.andervilo.timesheet.config.PunchProperties;
+import br.com.andervilo.timesheet.domain.Punch;
+import br.com.andervilo.timesheet.infrastructure.repository.PunchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process write buffer for punches. Requests only enqueue; a single flusher thread drains the queue into
+ * unordered bulk inserts of {@code timesheet.punch.batch-size}, as soon as a full batch is waiting or every
+ * {@code timesheet.punch.flush-interval} otherwise. The queue is bounded, so a burst beyond what Mongo absorbs
+ * is rejected at the door instead of growing the heap. Queued punches are lost if the process dies; a clean
+ * shutdown flushes them.
+ */
+@Slf4j
+@Component
+public class PunchBuffer {
+
+    public static final String QUEUED = "timesheet.punch.buffer.queued";
+    public static final String WRITTEN = "timesheet.punch.buffer.written";
+    public static final String FAILED = "timesheet.punch.buffer.failed";
+
+    private final PunchRepository punchRepository;
+    private final int batchSize;
+    private final BlockingQueue<Punch> queue;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    // Offers hold the read lock, so once close() has taken the write lock none is queueing or will queue
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private boolean closed;
+    private final Counter written;
+    private final Counter failed;
+
+    public PunchBuffer(PunchRepository punchRepository, PunchProperties properties, MeterRegistry meterRegistry) {
+        this.punchRepository = punchRepository;
+        this.batchSize = Math.max(1, properties.batchSize());
+        this.queue = new ArrayBlockingQueue<>(Math.max(batchSize, properties.bufferCapacity()));
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "punch-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.written = meterRegistry.counter(WRITTEN);
+        this.failed = meterRegistry.counter(FAILED);
+        meterRegistry.gaugeCollectionSize(QUEUED, List.of(), queue);
+
+        long interval = properties.flushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Enqueues punches in order until the buffer is full; returns how many were taken, none once it is closing.
+     */
+    public int offer(List<Punch> punches) {
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                return 0;
+            }
+            int accepted = 0;
+            for (Punch punch : punches) {
+                if (!queue.offer(punch)) {
+                    break;
+                }
+                accepted++;
+            }
+            if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+                flusher.execute(() -> {
+                    flushRequested.set(false);
+                    flush();
+                });
+            }
+            return accepted;
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drains everything queued so far in full batches; runs on the flusher thread, and once more on shutdown.
+     */
+    void flush() {
+        List<Punch> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private void write(List<Punch> batch) {
+        try {
+            Map<Integer, String> failures = punchRepository.bulkInsert(batch);
+            written.increment(batch.size() - failures.size());
+            if (!failures.isEmpty()) {
+                failed.increment(failures.size());
+                log.warn("{} of {} punches failed to insert, first error: {}",
+                    failures.size(), batch.size(), failures.values().iterator().next());
+            }
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.error("Dropped a batch of {} punches", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        flusher.shutdown();
+        if (!flusher.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Punch flusher did not stop in time; flushing the remaining punches anyway");
+        }
+        flush();
+    }
+}
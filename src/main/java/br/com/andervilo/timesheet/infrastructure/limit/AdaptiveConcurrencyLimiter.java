@@ -0,0 +1,118 @@
+package br.com.andervilo.timesheet.infrastructure.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+import br.com.andervilo.timesheet.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Gradient concurrency limiter: caps the requests in flight at a limit estimated from observed latency, so a
+ * slow database backs requests up at the door instead of in the worker threads. Each completed request moves
+ * the limit by the gradient of its latency: the long-term average (the latency the service has when healthy)
+ * times the tolerance over the short-term average, clamped to [0.5, 1], plus the square root of the limit as
+ * headroom to probe for more. Samples taken while less than half the limit is in use are not counted against
+ * it, since latency then says nothing about the limit; the long-term average is pulled down when latency falls
+ * well below it, so the limit recovers after a slowdown.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    public static final String LIMIT = "timesheet.concurrency.limit";
+    public static final String IN_FLIGHT = "timesheet.concurrency.in-flight";
+    public static final String REJECTED = "timesheet.concurrency.rejected";
+
+    // Samples averaged by the short and long-term latencies
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+
+    private volatile double limit;
+    // Guarded by this, in nanoseconds
+    private double shortRtt;
+    private double longRtt;
+    private long samples;
+
+    public record State(int limit, int inFlight, double shortRttMillis, double longRttMillis, long rejected) {}
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        if (properties.minLimit() < 1 || properties.maxLimit() < properties.minLimit()) {
+            throw new IllegalArgumentException("timesheet.concurrency-limit needs 1 <= min-limit <= max-limit");
+        }
+        this.minLimit = properties.minLimit();
+        this.maxLimit = properties.maxLimit();
+        this.tolerance = properties.tolerance();
+        this.smoothing = properties.smoothing();
+        this.limit = clamp(properties.initialLimit(), minLimit, maxLimit);
+        this.rejected = meterRegistry.counter(REJECTED);
+        meterRegistry.gauge(LIMIT, this, limiter -> limiter.limit);
+        meterRegistry.gauge(IN_FLIGHT, inFlight);
+    }
+
+    /**
+     * Takes a slot when fewer than the limit are in flight; false, counted as rejected, otherwise.
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Frees the slot of a request that took {@code rttNanos}, and updates the limit with that latency.
+     */
+    public void release(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        // Never zero, so the averages can be divided by
+        sample(Math.max(1, rttNanos), inFlightBefore);
+    }
+
+    /**
+     * Frees the slot of a request whose latency says nothing of the service, such as a streamed export.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public synchronized State state() {
+        return new State((int) limit, inFlight.get(), shortRtt / 1e6, longRtt / 1e6, (long) rejected.count());
+    }
+
+    private synchronized void sample(long rttNanos, int inFlightBefore) {
+        samples++;
+        if (samples == 1) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+        } else {
+            shortRtt += (rttNanos - shortRtt) / Math.min(samples, SHORT_WINDOW);
+            longRtt += (rttNanos - longRtt) / Math.min(samples, LONG_WINDOW);
+        }
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (inFlightBefore < limit / 2) {
+            return;
+        }
+        double gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1.0);
+        double estimate = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit * (1 - smoothing) + estimate * smoothing, minLimit, maxLimit);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.andervilo.timesheet.infrastructure.limit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@code /actuator/concurrencylimit}: the current limit, requests in flight, the latencies it is estimated from
+ * and how many requests were shed.
+ */
+@Component
+@Endpoint(id = "concurrencylimit")
+@RequiredArgsConstructor
+public class ConcurrencyLimitEndpoint {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @ReadOperation
+    public AdaptiveConcurrencyLimiter.State concurrencyLimit() {
+        return limiter.state();
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.andervilo.timesheet.infrastructure.limit;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sheds requests over the {@link AdaptiveConcurrencyLimiter} limit with an empty 503 and Retry-After, before they
+ * reach a worker-bound controller. A request that goes async (the Mono/Flux endpoints of /api/v2, streamed
+ * exports) holds its slot until it completes and is sampled then; only a request flagged {@link #STREAMED} is
+ * left out of the samples, since its duration measures the size of the export, not the service.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    // Request attribute set by endpoints that stream their result
+    public static final String STREAMED = ConcurrencyLimitFilter.class.getName() + ".STREAMED";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, long retryAfterSeconds) {
+        this.limiter = limiter;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfterSeconds));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(request, start));
+            } else {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private final class ReleaseOnCompletion implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(HttpServletRequest request, long start) {
+            this.request = request;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Still the same request; the slot is released once it completes
+        }
+
+        private void release() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (Boolean.TRUE.equals(request.getAttribute(STREAMED))) {
+                limiter.release();
+            } else {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+}
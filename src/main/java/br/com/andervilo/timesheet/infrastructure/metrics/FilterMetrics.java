@@ -0,0 +1,86 @@
+package br.com.andervilo.timesheet.infrastructure.metrics;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import br.com.andervilo.timesheet.application.query.BaseFilterQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times filter queries per repository method and query shape, so percentiles can be broken down by which
+ * filters, sort, count and match mode a call used. Tag values are bounded: the shape is a combination of
+ * known field names and unknown sort fields collapse into "other".
+ */
+@Component
+@RequiredArgsConstructor
+public class FilterMetrics {
+
+    public static final String TIMER = "timesheet.repository.filter";
+
+    private final MeterRegistry meterRegistry;
+
+    public <T> T record(String repository, String method, String shape, BaseFilterQuery filterQuery,
+                        Set<String> sortFields, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            stop(sample, repository, method, shape, filterQuery, sortFields, outcome);
+        }
+    }
+
+    /**
+     * Reactive variant: the timer starts on subscription and stops when the result or an error is emitted, or
+     * with outcome "cancelled" when the subscriber gives up first, e.g. a client that disconnected. Each
+     * subscription records one sample, so a cancel after the result does not count the call twice.
+     */
+    public <T> Mono<T> record(String repository, String method, String shape, BaseFilterQuery filterQuery,
+                              Set<String> sortFields, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AtomicBoolean stopped = new AtomicBoolean();
+            Consumer<String> stop = outcome -> {
+                if (stopped.compareAndSet(false, true)) {
+                    stop(sample, repository, method, shape, filterQuery, sortFields, outcome);
+                }
+            };
+            return call
+                .doOnSuccess(result -> stop.accept("success"))
+                .doOnError(error -> stop.accept("error"))
+                .doOnCancel(() -> stop.accept("cancelled"));
+        });
+    }
+
+    private void stop(Timer.Sample sample, String repository, String method, String shape, BaseFilterQuery filterQuery,
+                      Set<String> sortFields, String outcome) {
+        sample.stop(Timer.builder(TIMER)
+            .description("Filter query latency by repository method and filter shape")
+            .tag("repository", repository)
+            .tag("method", method)
+            .tag("shape", shape)
+            .tag("sort", sortTag(filterQuery.getSortBy(), sortFields))
+            .tag("countMode", String.valueOf(filterQuery.getCountMode()))
+            .tag("matchMode", String.valueOf(filterQuery.getMatchMode()))
+            .tag("paging", filterQuery.hasCursor() ? "keyset" : "offset")
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+
+    private static String sortTag(String sortBy, Set<String> sortFields) {
+        if (sortBy == null || sortBy.isEmpty()) {
+            return "none";
+        }
+        return sortFields.contains(sortBy) ? sortBy : "other";
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.andervilo.timesheet.infrastructure.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records the latency of every command sent by the driver and, for cursor commands
+ * (find, aggregate, getMore), the number of documents returned in the batch.
+ */
+public class MongoCommandMetricsListener implements CommandListener {
+
+    public static final String LATENCY = "timesheet.mongodb.command";
+    public static final String DOCUMENTS = "timesheet.mongodb.command.documents";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Integer, String> collections = new ConcurrentHashMap<>();
+
+    public MongoCommandMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        collections.put(event.getRequestId(), collectionOf(event.getCommandName(), event.getCommand()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String collection = collections.getOrDefault(event.getRequestId(), "unknown");
+        collections.remove(event.getRequestId());
+        latency(event.getCommandName(), collection, "success").record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+
+        BsonDocument cursor = event.getResponse().getDocument("cursor", null);
+        if (cursor != null) {
+            BsonValue batch = cursor.containsKey("firstBatch") ? cursor.get("firstBatch") : cursor.get("nextBatch");
+            if (batch != null && batch.isArray()) {
+                DistributionSummary.builder(DOCUMENTS)
+                    .description("Documents returned per cursor batch")
+                    .baseUnit("documents")
+                    .tag("command", event.getCommandName())
+                    .tag("collection", collection)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(batch.asArray().size());
+            }
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        String collection = collections.getOrDefault(event.getRequestId(), "unknown");
+        collections.remove(event.getRequestId());
+        latency(event.getCommandName(), collection, "failure").record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    private Timer latency(String command, String collection, String outcome) {
+        return Timer.builder(LATENCY)
+            .description("Latency of commands sent to MongoDB")
+            .tag("command", command)
+            .tag("collection", collection)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private static String collectionOf(String commandName, BsonDocument command) {
+        // getMore carries the collection in its own field; most other commands under their name
+        BsonValue value = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return value != null && value.isString() ? value.asString().getValue() : "unknown";
+    }
+}
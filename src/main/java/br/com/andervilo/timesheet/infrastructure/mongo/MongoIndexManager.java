@@ -0,0 +1,258 @@
+package br.com.andervilo.timesheet.infrastructure.mongo;
+
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import br.com.andervilo.timesheet.domain.Employe;
+import br.com.andervilo.timesheet.domain.Employer;
+import br.com.andervilo.timesheet.domain.Punch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Backfills derived fields, creates the indexes the filter queries rely on and verifies they are present before
+ * the web server starts, so no request reads a document that is not backfilled yet or writes past a unique index
+ * that is not built yet. Every (field, _id) index matches the keyset sort used by the filter endpoints.
+ */
+@Slf4j
+@Component
+@Profile("!memory")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "timesheet.mongo.indexes", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MongoIndexManager implements SmartInitializingSingleton {
+
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    // One document per completed backfill, so restarts skip the collection scans
+    static final String BACKFILLS_COLLECTION = "backfills";
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Runs once every singleton exists, before the web server is started and the application reports ready.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        ensureIndexes();
+    }
+
+    private void ensureIndexes() {
+        backfillOnce("employes.version", () -> backfillVersion(Employe.class));
+        backfillOnce("employers.version", () -> backfillVersion(Employer.class));
+        backfillOnce("employes.birthMonth_birthDay", this::backfillBirthMonthAndDay);
+        backfillOnce("employers.headcount", this::backfillHeadcount);
+        backfillOnce("employers.cnpjKey_phoneKey", this::backfillIdentifierKeys);
+        checkDuplicateCnpjKeys();
+        createTimeSeriesCollection(Punch.class);
+
+        ensure(Employe.class, List.of(
+            new Index().named("birthMonth_birthDay").on("birthMonth", Sort.Direction.ASC).on("birthDay", Sort.Direction.ASC),
+            new Index().named("name__id").on("name", Sort.Direction.ASC).on("_id", Sort.Direction.ASC),
+            new Index().named("birthDate__id").on("birthDate", Sort.Direction.ASC).on("_id", Sort.Direction.ASC),
+            new Index().named("employerId__id").on("employerId", Sort.Direction.ASC).on("_id", Sort.Direction.ASC),
+            searchIndex("name"),
+            searchIndex("email")
+        ));
+        ensure(Employer.class, List.of(
+            new Index().named("name__id").on("name", Sort.Direction.ASC).on("_id", Sort.Direction.ASC),
+            // Sparse: employers without a CNPJ have no key and do not collide
+            new Index().named("cnpjKey").on("cnpjKey", Sort.Direction.ASC).unique().sparse(),
+            new Index().named("phoneKey__id").on("phoneKey", Sort.Direction.ASC).on("_id", Sort.Direction.ASC),
+            searchIndex("name"),
+            searchIndex("email"),
+            searchIndex("cnpj"),
+            searchIndex("phone"),
+            searchIndex("address")
+        ));
+        ensure(Punch.class, List.of(
+            new Index().named("employeId_timestamp").on("employeId", Sort.Direction.ASC).on("timestamp", Sort.Direction.ASC)
+        ));
+    }
+
+    /**
+     * Time-series collections cannot be converted later, so create it from the @TimeSeries mapping before
+     * the first insert would create a plain collection.
+     */
+    private void createTimeSeriesCollection(Class<?> entityClass) {
+        if (!mongoTemplate.collectionExists(entityClass)) {
+            mongoTemplate.createCollection(entityClass);
+            log.info("Created time-series collection {}", mongoTemplate.getCollectionName(entityClass));
+        }
+    }
+
+    /**
+     * (field, _id) under the search collation: serves PREFIX match ranges and the keyset sort in that mode.
+     */
+    private static Index searchIndex(String field) {
+        return new Index().named(field + "__id_search")
+            .on(field, Sort.Direction.ASC)
+            .on("_id", Sort.Direction.ASC)
+            .collation(SearchCollation.CASE_AND_ACCENT_INSENSITIVE);
+    }
+
+    private void ensure(Class<?> entityClass, List<Index> indexes) {
+        IndexOperations indexOperations = mongoTemplate.indexOps(entityClass);
+        indexes.forEach(indexOperations::ensureIndex);
+
+        Set<String> existing = indexOperations.getIndexInfo().stream()
+            .map(IndexInfo::getName)
+            .collect(Collectors.toSet());
+        List<String> missing = indexes.stream()
+            .map(index -> index.getIndexOptions().getString("name"))
+            .filter(name -> !existing.contains(name))
+            .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing indexes on " + mongoTemplate.getCollectionName(entityClass) + ": " + missing);
+        }
+        log.info("Indexes verified on {}: {}", mongoTemplate.getCollectionName(entityClass), existing);
+    }
+
+    /**
+     * Runs {@code backfill} unless a previous start completed it. Documents written since carry the field, as
+     * every write sets it, so a completed backfill never has anything left to do.
+     */
+    private void backfillOnce(String name, Runnable backfill) {
+        Query completed = Query.query(Criteria.where("_id").is(name));
+        if (mongoTemplate.exists(completed, BACKFILLS_COLLECTION)) {
+            return;
+        }
+        backfill.run();
+        mongoTemplate.upsert(completed, new Update().currentDate("completedAt"), BACKFILLS_COLLECTION);
+    }
+
+    /**
+     * Documents written before versioning would be taken as new by save() and fail with a duplicate key,
+     * so they start at version 0.
+     */
+    private void backfillVersion(Class<?> entityClass) {
+        Query legacy = new Query(Criteria.where("version").exists(false));
+        long modified = mongoTemplate.updateMulti(legacy, new Update().set("version", 0L), entityClass).getModifiedCount();
+        if (modified > 0) {
+            log.info("Backfilled version on {} {}", modified, mongoTemplate.getCollectionName(entityClass));
+        }
+    }
+
+    /**
+     * Documents written before birthMonth/birthDay existed get them computed server-side from birthDate,
+     * in the zone LocalDate values are stored with.
+     */
+    private void backfillBirthMonthAndDay() {
+        DateOperators.Timezone timezone = DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId());
+        Query legacy = new Query(Criteria.where("birthDate").ne(null).and("birthMonth").exists(false));
+        AggregationUpdate derive = AggregationUpdate.update()
+            .set("birthMonth").toValue(DateOperators.Month.monthOf("birthDate").withTimezone(timezone))
+            .set("birthDay").toValue(DateOperators.DayOfMonth.dayOfMonth("birthDate").withTimezone(timezone));
+
+        long modified = mongoTemplate.updateMulti(legacy, derive, Employe.class).getModifiedCount();
+        if (modified > 0) {
+            log.info("Backfilled birthMonth/birthDay on {} employes", modified);
+        }
+    }
+
+    /**
+     * Employers written before cnpjKey/phoneKey existed get them computed here, with the same normalization as
+     * on write, in unordered bulk updates.
+     */
+    private void backfillIdentifierKeys() {
+        Query legacy = new Query(new Criteria().orOperator(
+            Criteria.where("cnpj").ne(null).and("cnpjKey").exists(false),
+            Criteria.where("phone").ne(null).and("phoneKey").exists(false)));
+        legacy.fields().include("cnpj", "phone");
+        legacy.cursorBatchSize(BACKFILL_BATCH_SIZE);
+
+        long modified = 0;
+        try (Stream<Employer> employers = mongoTemplate.stream(legacy, Employer.class)) {
+            BulkOperations operations = null;
+            int batched = 0;
+            for (Iterator<Employer> iterator = employers.iterator(); iterator.hasNext(); ) {
+                Employer employer = iterator.next();
+                String cnpjKey = Employer.cnpjKeyOf(employer.getCnpj());
+                String phoneKey = Employer.phoneKeyOf(employer.getPhone());
+                if (cnpjKey == null && phoneKey == null) {
+                    // Nothing but punctuation; left without keys, as a write would leave it
+                    continue;
+                }
+                Update update = new Update();
+                if (cnpjKey != null) {
+                    update.set("cnpjKey", cnpjKey);
+                }
+                if (phoneKey != null) {
+                    update.set("phoneKey", phoneKey);
+                }
+                if (operations == null) {
+                    operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Employer.class);
+                }
+                operations.updateOne(Query.query(Criteria.where("_id").is(employer.getId())), update);
+                if (++batched == BACKFILL_BATCH_SIZE) {
+                    modified += operations.execute().getModifiedCount();
+                    operations = null;
+                    batched = 0;
+                }
+            }
+            if (operations != null) {
+                modified += operations.execute().getModifiedCount();
+            }
+        }
+        if (modified > 0) {
+            log.info("Backfilled cnpjKey/phoneKey on {} employers", modified);
+        }
+    }
+
+    /**
+     * The unique cnpjKey index cannot be built over two employers with the same CNPJ, however differently
+     * they were typed; name a few so they can be merged or corrected.
+     */
+    private void checkDuplicateCnpjKeys() {
+        boolean built = mongoTemplate.indexOps(Employer.class).getIndexInfo().stream()
+            .anyMatch(index -> "cnpjKey".equals(index.getName()));
+        if (built) {
+            // The index already keeps them apart
+            return;
+        }
+        Aggregation duplicates = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("cnpjKey").exists(true)),
+            Aggregation.group("cnpjKey").count().as("count"),
+            Aggregation.match(Criteria.where("count").gt(1)),
+            Aggregation.limit(10));
+        List<String> keys = mongoTemplate.aggregate(duplicates, Employer.class, Document.class).getMappedResults().stream()
+            .map(document -> document.getString("_id"))
+            .toList();
+        if (!keys.isEmpty()) {
+            throw new IllegalStateException("Employers share a CNPJ, so the unique cnpjKey index cannot be built: " + keys);
+        }
+    }
+
+    /**
+     * Employers written before employment links existed have no employee pointing at them yet.
+     */
+    private void backfillHeadcount() {
+        Query legacy = new Query(Criteria.where("headcount").exists(false));
+        long modified = mongoTemplate.updateMulti(legacy, new Update().set("headcount", 0L), Employer.class).getModifiedCount();
+        if (modified > 0) {
+            log.info("Backfilled headcount on {} employers", modified);
+        }
+    }
+}
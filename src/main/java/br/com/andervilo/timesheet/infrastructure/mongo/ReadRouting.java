@@ -0,0 +1,77 @@
+package br.com.andervilo.timesheet.infrastructure.mongo;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.ReadPreference;
+
+import br.com.andervilo.timesheet.config.ReadRoutingProperties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Where each kind of heavy read goes, per {@code timesheet.mongo.read-routing}: filter pages, exports and filter
+ * counts may be sent to secondaries, bounded by max-staleness, so they do not compete with writes on the primary.
+ * Everything else keeps the read preference of the connection string, the primary by default; that includes
+ * the single-document reads that follow a write (findById, versions, the lookups of bulk writes), so they always
+ * see it without a causally consistent session.
+ */
+@Slf4j
+@Component
+@Profile("!memory")
+public class ReadRouting {
+
+    // Lowest maxStalenessSeconds servers accept
+    static final long MIN_MAX_STALENESS_SECONDS = 90;
+
+    public enum Operation {
+        FILTER, EXPORT, COUNT
+    }
+
+    private final Map<Operation, ReadPreference> preferences = new EnumMap<>(Operation.class);
+
+    public ReadRouting(ReadRoutingProperties properties) {
+        long maxStaleness = properties.maxStaleness().toSeconds();
+        if (maxStaleness < MIN_MAX_STALENESS_SECONDS) {
+            throw new IllegalArgumentException("timesheet.mongo.read-routing.max-staleness must be at least "
+                + MIN_MAX_STALENESS_SECONDS + "s");
+        }
+        route(Operation.FILTER, properties.filter(), maxStaleness);
+        route(Operation.EXPORT, properties.export(), maxStaleness);
+        route(Operation.COUNT, properties.count(), maxStaleness);
+        if (!preferences.isEmpty()) {
+            log.info("Read routing: {}", preferences);
+        }
+    }
+
+    /**
+     * Read preference of the operation; null when it follows the connection string.
+     */
+    public ReadPreference of(Operation operation) {
+        return preferences.get(operation);
+    }
+
+    /**
+     * The query, sent as the operation is routed.
+     */
+    public Query route(Query query, Operation operation) {
+        ReadPreference preference = of(operation);
+        return preference != null ? query.withReadPreference(preference) : query;
+    }
+
+    private void route(Operation operation, String mode, long maxStaleness) {
+        if (mode == null || mode.isBlank()) {
+            return;
+        }
+        ReadPreference preference = ReadPreference.valueOf(mode);
+        // The primary is never stale, and the driver refuses a staleness bound on it
+        preferences.put(operation, preference.equals(ReadPreference.primary())
+            ? preference
+            : ReadPreference.valueOf(mode, List.of(), maxStaleness, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.andervilo.timesheet.infrastructure.mongo;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.springframework.data.mongodb.core.query.Collation;
+
+/**
+ * Collation of the text search indexes: Portuguese, primary strength, so "joao", "João" and "JOÃO" compare equal.
+ * Queries only use those indexes when they declare the very same collation.
+ */
+public final class SearchCollation {
+
+    public static final Collation CASE_AND_ACCENT_INSENSITIVE = Collation.of("pt")
+        .strength(Collation.ComparisonLevel.primary());
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private SearchCollation() {
+    }
+
+    /**
+     * Case- and accent-folded form of a string, for comparisons outside Mongo: equal for "joao", "João" and "JOÃO"
+     * as under this collation, and ordered like it for plain letters.
+     */
+    public static String fold(String value) {
+        return COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.andervilo.timesheet.infrastructure.mongo;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.Access;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@code /actuator/slowqueries}: the slow-query log, newest first. DELETE clears it, but is only mapped once
+ * {@code management.endpoint.slowqueries.access} is {@code unrestricted}: the actuator is not authenticated.
+ */
+@Component
+@Profile("!memory")
+@Endpoint(id = "slowqueries", defaultAccess = Access.READ_ONLY)
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    public record SlowQueries(long thresholdMillis, int capacity, List<SlowQueryLog.Entry> queries) {}
+
+    @ReadOperation
+    public SlowQueries slowQueries() {
+        return new SlowQueries(slowQueryLog.properties().threshold().toMillis(), slowQueryLog.properties().capacity(),
+            slowQueryLog.entries());
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
@@ -0,0 +1,365 @@
+package br.com.andervilo.timesheet.infrastructure.mongo;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.boot.json.JsonParserFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperationContext;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions.DomainTypeMapping;
+import org.springframework.data.mongodb.core.aggregation.FieldLookupPolicy;
+import org.springframework.data.mongodb.core.aggregation.TypeBasedAggregationOperationContext;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import br.com.andervilo.timesheet.config.SlowQueryProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the last {@code timesheet.slow-query.capacity} repository calls slower than
+ * {@code timesheet.slow-query.threshold}, with the command they sent and its explain("executionStats"), both
+ * kept as their shape so no client values are served by the endpoint. Fast calls only pay for a clock read. The explain re-runs the command, so it runs on a single background
+ * thread, capped by {@code explain-max-time}, and is skipped while that thread is busy.
+ */
+@Slf4j
+@Component
+@Profile("!memory")
+public class SlowQueryLog {
+
+    public static final String COLLSCAN = "COLLSCAN";
+    public static final String IN_MEMORY_SORT = "IN_MEMORY_SORT";
+
+    // Parts of the explain output worth keeping; the rest echoes the command or describes the server
+    private static final List<String> EXPLAIN_SECTIONS = List.of("queryPlanner", "executionStats", "stages", "shards");
+
+    private static final JsonWriterSettings JSON = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+
+    // Parts of a command that carry client values (names, emails, id lists), logged as their shape only
+    private static final Set<String> VALUE_KEYS = Set.of("filter", "query", "pipeline");
+    // Parts of a plan that carry the same values: the parsed filter, stage filters and index bounds
+    private static final Set<String> PLAN_VALUE_KEYS = Set.of("parsedQuery", "filter", "indexBounds", "$match");
+    // Parts of a plan dropped altogether: the slot-based engine's plan prints the values inline in a string
+    private static final Set<String> PLAN_DROPPED_KEYS = Set.of("slotBasedPlan");
+    // Elements of a list kept in the shape, e.g. of an $in
+    private static final int SHAPE_LIST_ELEMENTS = 3;
+
+    public record Entry(
+        Instant at,
+        String collection,
+        String operation,
+        long millis,
+        String outcome,
+        Map<String, Object> command,
+        Map<String, Object> explain,
+        Set<String> flags,
+        String explainError
+    ) {}
+
+    private final MongoTemplate mongoTemplate;
+    private final QueryMapper queryMapper;
+    private final SlowQueryProperties properties;
+    private final long thresholdNanos;
+    private final Deque<Entry> entries = new ArrayDeque<>();
+    private final ThreadPoolExecutor explainer;
+
+    public SlowQueryLog(MongoTemplate mongoTemplate, SlowQueryProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        this.properties = properties;
+        this.thresholdNanos = properties.threshold().toNanos();
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(8), runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public <T> T find(Query query, Class<?> entityClass, Supplier<T> call) {
+        return time("find", entityClass, call, () -> findCommand(query, entityClass));
+    }
+
+    public <T> T count(Query query, Class<?> entityClass, Supplier<T> call) {
+        return time("count", entityClass, call, () -> countCommand(query, entityClass));
+    }
+
+    public <T> T aggregate(Aggregation aggregation, Class<?> entityClass, Supplier<T> call) {
+        return time("aggregate", entityClass, call, () -> aggregateCommand(aggregation, entityClass));
+    }
+
+    /**
+     * Captured calls, newest first.
+     */
+    public List<Entry> entries() {
+        synchronized (entries) {
+            return new ArrayList<>(entries);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public SlowQueryProperties properties() {
+        return properties;
+    }
+
+    private <T> T time(String operation, Class<?> entityClass, Supplier<T> call, Supplier<Document> command) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= thresholdNanos) {
+                capture(operation, entityClass, TimeUnit.NANOSECONDS.toMillis(elapsed), outcome, command);
+            }
+        }
+    }
+
+    private void capture(String operation, Class<?> entityClass, long millis, String outcome, Supplier<Document> commandSupplier) {
+        Instant at = Instant.now();
+        String collection = mongoTemplate.getCollectionName(entityClass);
+        Document command;
+        try {
+            command = commandSupplier.get();
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild the slow {} on {}", operation, collection, e);
+            return;
+        }
+        Document shape = shape(command);
+        log.warn("Slow {} on {} took {} ms: {}", operation, collection, millis, shape.toJson(JSON));
+
+        if (!properties.explain()) {
+            add(new Entry(at, collection, operation, millis, outcome, toMap(shape), null, Set.of(), null));
+            return;
+        }
+        try {
+            explainer.execute(() -> add(explain(at, collection, operation, millis, outcome, command, shape)));
+        } catch (RejectedExecutionException e) {
+            add(new Entry(at, collection, operation, millis, outcome, toMap(shape), null, Set.of(),
+                "Skipped: explainer busy"));
+        }
+    }
+
+    private Entry explain(Instant at, String collection, String operation, long millis, String outcome, Document command,
+                          Document shape) {
+        try {
+            Document result = mongoTemplate.getDb().runCommand(new Document("explain", command)
+                .append("verbosity", "executionStats"));
+            Document explain = new Document();
+            EXPLAIN_SECTIONS.stream().filter(result::containsKey).forEach(key -> explain.put(key, result.get(key)));
+            return new Entry(at, collection, operation, millis, outcome, toMap(shape), toMap(shapePlan(explain)),
+                flags(explain), null);
+        } catch (RuntimeException e) {
+            return new Entry(at, collection, operation, millis, outcome, toMap(shape), null, Set.of(), e.getMessage());
+        }
+    }
+
+    private void add(Entry entry) {
+        synchronized (entries) {
+            entries.addFirst(entry);
+            while (entries.size() > Math.max(1, properties.capacity())) {
+                entries.removeLast();
+            }
+        }
+    }
+
+    private Document findCommand(Query query, Class<?> entityClass) {
+        MongoPersistentEntity<?> entity = persistentEntity(entityClass);
+        Document command = new Document("find", mongoTemplate.getCollectionName(entityClass))
+            .append("filter", queryMapper.getMappedObject(query.getQueryObject(), entity));
+        if (!query.getSortObject().isEmpty()) {
+            command.append("sort", queryMapper.getMappedSort(query.getSortObject(), entity));
+        }
+        if (!query.getFieldsObject().isEmpty()) {
+            command.append("projection", queryMapper.getMappedFields(query.getFieldsObject(), entity));
+        }
+        if (query.getSkip() > 0) {
+            command.append("skip", query.getSkip());
+        }
+        if (query.isLimited()) {
+            command.append("limit", query.getLimit());
+        }
+        query.getCollation().map(Collation::toDocument).ifPresent(collation -> command.append("collation", collation));
+        return command.append("maxTimeMS", properties.explainMaxTime().toMillis());
+    }
+
+    private Document countCommand(Query query, Class<?> entityClass) {
+        Document command = new Document("count", mongoTemplate.getCollectionName(entityClass))
+            .append("query", queryMapper.getMappedObject(query.getQueryObject(), persistentEntity(entityClass)));
+        query.getCollation().map(Collation::toDocument).ifPresent(collation -> command.append("collation", collation));
+        return command.append("maxTimeMS", properties.explainMaxTime().toMillis());
+    }
+
+    private Document aggregateCommand(Aggregation aggregation, Class<?> entityClass) {
+        List<Document> pipeline = aggregation.toPipeline(aggregationContext(aggregation));
+        Document command = new Document("aggregate", mongoTemplate.getCollectionName(entityClass))
+            .append("pipeline", pipeline)
+            .append("cursor", new Document());
+        aggregation.getOptions().getCollation().map(Collation::toDocument)
+            .ifPresent(collation -> command.append("collation", collation));
+        return command.append("maxTimeMS", properties.explainMaxTime().toMillis());
+    }
+
+    /**
+     * The context {@link MongoTemplate} renders {@code aggregation} with, so the explained pipeline is the one that
+     * ran: typed on its input type for a {@link TypedAggregation}, untyped as on a collection name otherwise, and
+     * with the field lookup policy of its domain type mapping.
+     */
+    private AggregationOperationContext aggregationContext(Aggregation aggregation) {
+        DomainTypeMapping mapping = aggregation.getOptions().getDomainTypeMapping();
+        if (mapping == DomainTypeMapping.NONE) {
+            return Aggregation.DEFAULT_CONTEXT;
+        }
+        if (!(aggregation instanceof TypedAggregation<?> typed)) {
+            return new TypeBasedAggregationOperationContext(Object.class, mongoTemplate.getConverter().getMappingContext(),
+                queryMapper, FieldLookupPolicy.relaxed());
+        }
+        FieldLookupPolicy policy = mapping == DomainTypeMapping.STRICT && !aggregation.getPipeline().containsUnionWith()
+            ? FieldLookupPolicy.strict()
+            : FieldLookupPolicy.relaxed();
+        return new TypeBasedAggregationOperationContext(typed.getInputType(), mongoTemplate.getConverter().getMappingContext(),
+            queryMapper, policy);
+    }
+
+    private MongoPersistentEntity<?> persistentEntity(Class<?> entityClass) {
+        return mongoTemplate.getConverter().getMappingContext().getPersistentEntity(entityClass);
+    }
+
+    /**
+     * Plan stages that usually explain a slow call: a collection scan instead of an index, and a blocking
+     * SORT stage. Only the plans that ran are read: the winning plan and the execution stages, at the top for
+     * a find or count, under the {@code $cursor} of each pipeline stage for an aggregate, and per shard. The
+     * rejected plans and the echoed command would flag stages that never ran.
+     */
+    static Set<String> flags(Document explain) {
+        Set<String> flags = new LinkedHashSet<>();
+        collectPlanFlags(explain, flags);
+        return flags;
+    }
+
+    private static void collectPlanFlags(Document explain, Set<String> flags) {
+        if (explain.get("queryPlanner") instanceof Document queryPlanner) {
+            collectStageFlags(queryPlanner.get("winningPlan"), flags);
+        }
+        if (explain.get("executionStats") instanceof Document executionStats) {
+            collectStageFlags(executionStats.get("executionStages"), flags);
+        }
+        if (explain.get("stages") instanceof List<?> stages) {
+            stages.stream()
+                .filter(Document.class::isInstance)
+                .map(stage -> ((Document) stage).get("$cursor"))
+                .filter(Document.class::isInstance)
+                .forEach(cursor -> collectPlanFlags((Document) cursor, flags));
+        }
+        if (explain.get("shards") instanceof Document shards) {
+            shards.values().stream()
+                .filter(Document.class::isInstance)
+                .forEach(shard -> collectPlanFlags((Document) shard, flags));
+        }
+    }
+
+    private static void collectStageFlags(Object node, Set<String> flags) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (COLLSCAN.equals(stage)) {
+                flags.add(COLLSCAN);
+            }
+            if ("SORT".equals(stage)) {
+                flags.add(IN_MEMORY_SORT);
+            }
+            document.values().forEach(value -> collectStageFlags(value, flags));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStageFlags(value, flags));
+        }
+    }
+
+    /**
+     * The command with the values of its filter, count query or pipeline replaced by their type, and lists cut
+     * to their first elements and a count of the rest: the fields and operators that make a query slow, without
+     * the client data in them.
+     */
+    static Document shape(Document command) {
+        Document shape = new Document();
+        command.forEach((key, value) -> shape.put(key, VALUE_KEYS.contains(key) ? shapeOf(value) : value));
+        return shape;
+    }
+
+    /**
+     * The explain output with the values the plans carry shaped the same way: the parsed query, the filters of
+     * the stages, the index bounds and the unpushed {@code $match} stages of a pipeline. Stages, indexes and
+     * counters are kept as they are, so the plan still reads the same.
+     */
+    static Document shapePlan(Document explain) {
+        Document shape = new Document();
+        explain.forEach((key, value) -> {
+            if (!PLAN_DROPPED_KEYS.contains(key)) {
+                shape.put(key, PLAN_VALUE_KEYS.contains(key) ? shapeOf(value) : shapePlanNode(value));
+            }
+        });
+        return shape;
+    }
+
+    private static Object shapePlanNode(Object node) {
+        if (node instanceof Document document) {
+            return shapePlan(document);
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().map(SlowQueryLog::shapePlanNode).toList();
+        }
+        return node;
+    }
+
+    private static Object shapeOf(Object value) {
+        if (value instanceof Document document) {
+            Document shape = new Document();
+            document.forEach((key, nested) -> shape.put(key, shapeOf(nested)));
+            return shape;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> shape = new ArrayList<>(list.stream().limit(SHAPE_LIST_ELEMENTS).map(SlowQueryLog::shapeOf).toList());
+            if (list.size() > SHAPE_LIST_ELEMENTS) {
+                shape.add("<" + (list.size() - SHAPE_LIST_ELEMENTS) + " more>");
+            }
+            return shape;
+        }
+        return value == null ? null : "<" + value.getClass().getSimpleName() + ">";
+    }
+
+    /**
+     * Plain JSON values for the actuator: BSON types (dates, regexes, ObjectIds) as relaxed extended JSON.
+     */
+    private static Map<String, Object> toMap(Document document) {
+        return JsonParserFactory.getJsonParser().parseMap(document.toJson(JSON));
+    }
+
+    @PreDestroy
+    public void close() {
+        explainer.shutdownNow();
+    }
+}
@@ -1,11 +1,85 @@
 package br.com.andervilo.timesheet.infrastructure.repository;
 
-import org.springframework.data.domain.Page;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
 import br.com.andervilo.timesheet.domain.Employe;
 
 public interface CustomEmployeRepository {
-    Page<Employe> findWithFilters(EmployeFilterQuery filterQuery, Pageable pageable);
+    Slice<Employe> findWithFilters(EmployeFilterQuery filterQuery, Pageable pageable);
+
+    /**
+     * Version of the document, fetched without the rest of it; empty when missing or not versioned yet.
+     */
+    Optional<Long> findVersionById(String id);
+
+    /**
+     * All documents with only the given fields (and the id) fetched; unknown field names are ignored.
+     */
+    List<Employe> findAllWithFields(Set<String> fields);
+
+    /**
+     * Every document, read as an export is routed.
+     */
+    List<Employe> findAll();
+
+    Stream<Employe> streamAll();
+
+    /**
+     * Like {@link #streamAll()}, always read from the primary whatever the export routing, for a consumer that
+     * must see every write acknowledged so far, such as the text index rebuild.
+     */
+    Stream<Employe> streamAllFromPrimary();
+
+    /**
+     * Employees whose birthday falls in the {@code days} days starting at {@code from}, in the order the
+     * birthdays come, at most {@code limit} of them.
+     */
+    List<Employe> findUpcomingBirthdays(LocalDate from, int days, int limit);
+
+    /**
+     * Points the employee at {@code employerId}, or unlinks it when null, bumping version and lastModified
+     * in the same update; returns the document as it was before, empty when not found.
+     */
+    Optional<Employe> assignEmployer(String id, String employerId);
+
+    /**
+     * Deletes the employee and returns it as it was, so its employer link can be released; empty when not found.
+     */
+    Optional<Employe> findAndDeleteById(String id);
+
+    /**
+     * Employer ids of the given employees that are linked to one, keyed by employee id; one projected $in query.
+     */
+    Map<String, String> findEmployerIds(Collection<String> ids);
+
+    /**
+     * Those of the given employers at least one employee is linked to; one distinct over the employerId index.
+     */
+    Set<String> findLinkedEmployerIds(Collection<String> employerIds);
+
+    /**
+     * Ids among {@code ids} that have a document, so a bulk delete can tell the ones it did not find.
+     */
+    Set<String> findExistingIds(Collection<String> ids);
+
+    /**
+     * Unordered bulk writes of one batch; each returns the failed positions of the batch with the error message.
+     * Inserted entities without an id get one assigned before the write; replaced entities are written only
+     * over the version they were read with, and fail with a version conflict otherwise.
+     */
+    Map<Integer, String> bulkInsert(List<Employe> employes);
+
+    Map<Integer, String> bulkReplace(List<Employe> employes);
+
+    Map<Integer, String> bulkDelete(List<String> ids);
 } 
\ No newline at end of file
@@ -1,11 +1,57 @@
 package br.com.andervilo.timesheet.infrastructure.repository;
 
-import org.springframework.data.domain.Page;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import br.com.andervilo.timesheet.application.query.EmployerFilterQuery;
 import br.com.andervilo.timesheet.domain.Employer;
 
 public interface CustomEmployerRepository {
-    Page<Employer> findWithFilters(EmployerFilterQuery filterQuery, Pageable pageable);
+    Slice<Employer> findWithFilters(EmployerFilterQuery filterQuery, Pageable pageable);
+
+    /**
+     * Version of the document, fetched without the rest of it; empty when missing or not versioned yet.
+     */
+    Optional<Long> findVersionById(String id);
+
+    /**
+     * All documents with only the given fields (and the id) fetched; unknown field names are ignored.
+     */
+    List<Employer> findAllWithFields(Set<String> fields);
+
+    /**
+     * Every document, read as an export is routed.
+     */
+    List<Employer> findAll();
+
+    Stream<Employer> streamAll();
+
+    /**
+     * Adds each delta to the headcount of its employer with $inc, in one unordered bulk write;
+     * zero deltas and missing employers are skipped.
+     */
+    void incrementHeadcounts(Map<String, Integer> deltas);
+
+    /**
+     * Ids among {@code ids} that have a document, so a bulk delete can tell the ones it did not find.
+     */
+    Set<String> findExistingIds(Collection<String> ids);
+
+    /**
+     * Unordered bulk writes of one batch; each returns the failed positions of the batch with the error message.
+     * Inserted entities without an id get one assigned before the write; replaced entities are written only
+     * over the version they were read with, and fail with a version conflict otherwise.
+     */
+    Map<Integer, String> bulkInsert(List<Employer> employers);
+
+    Map<Integer, String> bulkReplace(List<Employer> employers);
+
+    Map<Integer, String> bulkDelete(List<String> ids);
 } 
\ No newline at end of file
@@ -0,0 +1,14 @@
+package br.com.andervilo.timesheet.infrastructure.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import br.com.andervilo.timesheet.domain.Punch;
+
+public interface CustomPunchRepository {
+
+    /**
+     * Unordered bulk insert of one batch; returns the failed positions of the batch with the error message.
+     */
+    Map<Integer, String> bulkInsert(List<Punch> punches);
+}
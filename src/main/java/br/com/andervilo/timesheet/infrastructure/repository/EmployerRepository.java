@@ -1,7 +1,14 @@
 package br.com.andervilo.timesheet.infrastructure.repository;
 
+import java.util.Optional;
+
 import org.springframework.data.mongodb.repository.MongoRepository;
 import br.com.andervilo.timesheet.domain.Employer;
 
 public interface EmployerRepository extends MongoRepository<Employer, String>, CustomEmployerRepository {
+
+    /**
+     * Point lookup on the unique cnpjKey index; the key is {@link Employer#cnpjKeyOf} of the CNPJ.
+     */
+    Optional<Employer> findByCnpjKey(String cnpjKey);
 } 
\ No newline at end of file
@@ -0,0 +1,14 @@
+package br.com.andervilo.timesheet.infrastructure.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import br.com.andervilo.timesheet.domain.Punch;
+
+public interface PunchRepository extends MongoRepository<Punch, String>, CustomPunchRepository {
+
+    List<Punch> findByEmployeIdAndTimestampBetweenOrderByTimestampAsc(String employeId, Range<Instant> timestamp);
+}
@@ -0,0 +1,27 @@
+package br.com.andervilo.timesheet.infrastructure.repository;
+
+import java.util.Set;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import br.com.andervilo.timesheet.domain.Employe;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads on the reactive driver; same queries and indexes as {@link EmployeRepository}.
+ */
+public interface ReactiveEmployeRepository {
+    Mono<Employe> findById(String id);
+
+    Mono<Long> findVersionById(String id);
+
+    /**
+     * Demand-driven cursor over every document, with only the given fields fetched when any are given.
+     */
+    Flux<Employe> findAll(Set<String> fields);
+
+    Mono<Slice<Employe>> findWithFilters(EmployeFilterQuery filterQuery, Pageable pageable);
+}
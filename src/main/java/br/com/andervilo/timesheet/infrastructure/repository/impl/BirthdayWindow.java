@@ -0,0 +1,89 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.MonthDay;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+/**
+ * Window of days on the calendar, as ranges over the stored (birthMonth, birthDay) key.
+ * A window that crosses the end of the year is split in two, in chronological order, so each part
+ * is a range scan of the birthMonth_birthDay index; a birth date is never read.
+ */
+final class BirthdayWindow {
+
+    static final int MAX_DAYS = 366;
+
+    private static final MonthDay FIRST = MonthDay.of(Month.JANUARY, 1);
+    private static final MonthDay LAST = MonthDay.of(Month.DECEMBER, 31);
+    private static final MonthDay FEBRUARY_28 = MonthDay.of(Month.FEBRUARY, 28);
+    private static final MonthDay LEAP_DAY = MonthDay.of(Month.FEBRUARY, 29);
+
+    // Index order; birthdays of a part come out in calendar order
+    static final Sort SORT = Sort.by("birthMonth", "birthDay", "_id");
+
+    record Part(MonthDay start, MonthDay end) {
+    }
+
+    private BirthdayWindow() {
+    }
+
+    /**
+     * Criteria for the {@code days} days starting at {@code from}, one per part of the window, in the order
+     * the birthdays come; with {@link #MAX_DAYS} the window is the whole year starting at {@code from}.
+     */
+    static List<Criteria> parts(LocalDate from, int days) {
+        return ranges(from, days).stream().map(part -> range(part.start(), part.end())).toList();
+    }
+
+    /**
+     * The parts of the window as inclusive (start, end) days of the calendar, start never after end.
+     * In a year without Feb 29, leap-day birthdays fall on Feb 28, so a window ending that day takes them in.
+     */
+    static List<Part> ranges(LocalDate from, int days) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_DAYS);
+        }
+        MonthDay start = MonthDay.from(from);
+        LocalDate last = from.plusDays(days - 1L);
+        MonthDay end = days == MAX_DAYS ? previous(start) : MonthDay.from(last);
+        if (end.equals(FEBRUARY_28) && !last.isLeapYear()) {
+            end = LEAP_DAY;
+        }
+
+        if (start.equals(FIRST) && end.equals(LAST)) {
+            return List.of(new Part(FIRST, LAST));
+        }
+        if (end.isBefore(start)) {
+            return List.of(new Part(start, LAST), new Part(FIRST, end));
+        }
+        return List.of(new Part(start, end));
+    }
+
+    /**
+     * Matches (birthMonth, birthDay) in [start, end], start not after end. Feb 29 falls between Feb 28
+     * and Mar 1, so leap-day birthdays are in any window covering that stretch, leap year or not.
+     */
+    static Criteria range(MonthDay start, MonthDay end) {
+        int startMonth = start.getMonthValue();
+        int endMonth = end.getMonthValue();
+        if (startMonth == endMonth) {
+            return Criteria.where("birthMonth").is(startMonth).and("birthDay").gte(start.getDayOfMonth()).lte(end.getDayOfMonth());
+        }
+        return new Criteria().orOperator(
+            Criteria.where("birthMonth").is(startMonth).and("birthDay").gte(start.getDayOfMonth()),
+            Criteria.where("birthMonth").gt(startMonth).lt(endMonth),
+            Criteria.where("birthMonth").is(endMonth).and("birthDay").lte(end.getDayOfMonth()));
+    }
+
+    private static MonthDay previous(MonthDay day) {
+        if (day.getDayOfMonth() > 1) {
+            return day.withDayOfMonth(day.getDayOfMonth() - 1);
+        }
+        Month month = day.getMonth().minus(1);
+        return MonthDay.of(month, month.maxLength());
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.WriteConcernError;
+
+/**
+ * Executes an unordered bulk and reports the operations that failed, keyed by the position they were added in.
+ * Unordered bulks keep going past a failed write, so every other operation of the batch has been applied; but
+ * when the write concern was not satisfied, none of them is known to be durable and the whole batch fails.
+ */
+final class BulkWrites {
+
+    static final String VERSION_CONFLICT = "Version conflict: the document changed or was deleted since it was read";
+
+    private BulkWrites() {
+    }
+
+    static Map<Integer, String> execute(BulkOperations operations, int size) {
+        try {
+            operations.execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            return failures(e, size);
+        }
+    }
+
+    /**
+     * Ids among {@code ids} that have a document, with one $in query projected on _id.
+     */
+    static Set<String> existingIds(MongoTemplate mongoTemplate, Class<?> entityClass, Collection<String> ids) {
+        Query query = Query.query(Criteria.where("_id").in(ids));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(entityClass)).stream()
+            .map(document -> document.get("_id").toString())
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * Replaces each entity only where its document still has the version the entity was read with, writing the
+     * next version, as a versioned save() does; so a change made since the read (a headcount $inc, a relink) is
+     * never overwritten and no two contents share a version. A replacement that matched nothing is reported as a
+     * {@link #VERSION_CONFLICT}. Bulk results only count matches, so when some are missing the stored documents
+     * tell which: a replacement took effect when its document holds exactly what it wrote.
+     */
+    static <T> Map<Integer, String> replaceVersioned(MongoTemplate mongoTemplate, Class<T> entityClass, List<T> entities,
+                                                     Function<T, String> idOf, Function<T, Long> versionOf,
+                                                     BiConsumer<T, Long> setVersion) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass);
+        for (T entity : entities) {
+            Long version = versionOf.apply(entity);
+            setVersion.accept(entity, version == null ? 0L : version + 1);
+            operations.replaceOne(Query.query(Criteria.where("_id").is(idOf.apply(entity)).and("version").is(version)), entity);
+        }
+
+        Map<Integer, String> failures = new HashMap<>();
+        int matched;
+        try {
+            matched = operations.execute().getMatchedCount();
+        } catch (BulkOperationException e) {
+            failures.putAll(failures(e, entities.size()));
+            matched = e.getResult().getMatchedCount();
+        }
+        if (matched + failures.size() < entities.size()) {
+            failures.putAll(conflicts(mongoTemplate, entityClass, entities, idOf, failures));
+        }
+        return failures;
+    }
+
+    private static Map<Integer, String> failures(BulkOperationException e, int size) {
+        Map<Integer, String> failures = e.getErrors().stream()
+            .collect(Collectors.toMap(BulkWriteError::getIndex, BulkWriteError::getMessage));
+        WriteConcernError writeConcernError = e.getCause() instanceof MongoBulkWriteException cause
+            ? cause.getWriteConcernError() : null;
+        if (writeConcernError != null || failures.isEmpty()) {
+            String message = writeConcernError != null
+                ? "Write concern not satisfied: " + writeConcernError.getMessage()
+                : e.getMessage();
+            for (int i = 0; i < size; i++) {
+                failures.putIfAbsent(i, message);
+            }
+        }
+        return failures;
+    }
+
+    private static <T> Map<Integer, String> conflicts(MongoTemplate mongoTemplate, Class<T> entityClass, List<T> entities,
+                                                      Function<T, String> idOf, Map<Integer, String> failures) {
+        List<Integer> written = new ArrayList<>();
+        for (int i = 0; i < entities.size(); i++) {
+            if (!failures.containsKey(i)) {
+                written.add(i);
+            }
+        }
+        Query query = Query.query(Criteria.where("_id").in(written.stream().map(i -> idOf.apply(entities.get(i))).toList()));
+        Map<Object, Document> stored = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(entityClass))
+            .stream()
+            .collect(Collectors.toMap(document -> document.get("_id"), BulkWrites::content));
+
+        Map<Integer, String> conflicts = new HashMap<>();
+        for (int i : written) {
+            Document replacement = new Document();
+            mongoTemplate.getConverter().write(entities.get(i), replacement);
+            if (!content(replacement).equals(stored.get(replacement.get("_id")))) {
+                conflicts.put(i, VERSION_CONFLICT);
+            }
+        }
+        return conflicts;
+    }
+
+    // The fields a replacement sets, without the audit timestamp that may be stamped on the way to the server
+    private static Document content(Document document) {
+        Document content = new Document(document);
+        content.remove("lastModified");
+        return content;
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import br.com.andervilo.timesheet.application.query.CountMode;
+import reactor.core.publisher.Mono;
+
+/**
+ * Total of a filter query according to the requested {@link CountMode}.
+ */
+final class Counts {
+
+    private Counts() {
+    }
+
+    static Long count(MongoTemplate mongoTemplate, Query query, Class<?> entityClass, CountMode mode) {
+        return switch (mode == null ? CountMode.EXACT : mode) {
+            case NONE -> null;
+            // Collection metadata, no scan; only valid when nothing narrows the result
+            case ESTIMATED -> query.getQueryObject().isEmpty()
+                ? estimatedCount(mongoTemplate, query, entityClass)
+                : mongoTemplate.count(query, entityClass);
+            case EXACT -> mongoTemplate.count(query, entityClass);
+        };
+    }
+
+    private static long estimatedCount(MongoTemplate mongoTemplate, Query query, Class<?> entityClass) {
+        // The template's estimatedCount ignores the read preference of the query
+        return query.hasReadPreference()
+            ? mongoTemplate.execute(entityClass, collection -> collection.withReadPreference(query.getReadPreference()).estimatedDocumentCount())
+            : mongoTemplate.estimatedCount(entityClass);
+    }
+
+    /**
+     * Reactive variant; completes empty when the count mode is NONE.
+     */
+    static Mono<Long> count(ReactiveMongoTemplate mongoTemplate, Query query, Class<?> entityClass, CountMode mode) {
+        return switch (mode == null ? CountMode.EXACT : mode) {
+            case NONE -> Mono.empty();
+            case ESTIMATED -> query.getQueryObject().isEmpty()
+                ? estimatedCount(mongoTemplate, query, entityClass)
+                : mongoTemplate.count(query, entityClass);
+            case EXACT -> mongoTemplate.count(query, entityClass);
+        };
+    }
+
+    private static Mono<Long> estimatedCount(ReactiveMongoTemplate mongoTemplate, Query query, Class<?> entityClass) {
+        return query.hasReadPreference()
+            ? Mono.from(mongoTemplate.execute(entityClass,
+                collection -> collection.withReadPreference(query.getReadPreference()).estimatedDocumentCount()))
+            : mongoTemplate.estimatedCount(entityClass);
+    }
+}
@@ -1,121 +1,345 @@
 package br.com.andervilo.timesheet.infrastructure.repository.impl;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
-import org.springframework.data.mongodb.core.aggregation.AggregationResults;
-import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.CriteriaDefinition;
 
+import com.mongodb.ReadPreference;
+
+import br.com.andervilo.timesheet.application.query.CountMode;
 import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
 import br.com.andervilo.timesheet.domain.Employe;
+import br.com.andervilo.timesheet.infrastructure.metrics.FilterMetrics;
+import br.com.andervilo.timesheet.infrastructure.mongo.ReadRouting;
+import br.com.andervilo.timesheet.infrastructure.mongo.ReadRouting.Operation;
+import br.com.andervilo.timesheet.infrastructure.mongo.SlowQueryLog;
 import br.com.andervilo.timesheet.infrastructure.repository.CustomEmployeRepository;
+import br.com.andervilo.timesheet.infrastructure.search.EmployeTextIndex;
 import lombok.RequiredArgsConstructor;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class CustomEmployeRepositoryImpl implements CustomEmployeRepository {
 
+    private static final String TOTAL_FIELD = "total";
+    private static final String CONTENT_FIELD = "content";
+
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    // Fields clients may sort by and select in a sparse fieldset
+    static final Set<String> FIELDS = Set.of("id", "name", "email", "birthDate", "employerId", "version", "lastModified");
+
+    // Filter criteria, compiled once per combination of set filters and match mode
+    private static final QueryTemplate<EmployeFilterQuery> CRITERIA = new QueryTemplate<EmployeFilterQuery>()
+        .text("name", EmployeFilterQuery::getName)
+        .text("email", EmployeFilterQuery::getEmail)
+        // Exact match, served by the employerId__id index
+        .equal("employerId", EmployeFilterQuery::getEmployerId)
+        // Stored month derived from birthDate, served by the birthMonth_birthDay index
+        .slot(CustomEmployeRepositoryImpl::isBirthMonthFilter,
+            (filterQuery, criteria) -> criteria.put("birthMonth", filterQuery.getBirthMonth()))
+        // Date range only when the birth month is not specified
+        .slot(filterQuery -> !isBirthMonthFilter(filterQuery)
+                && (filterQuery.getBirthDateStart() != null || filterQuery.getBirthDateEnd() != null),
+            (filterQuery, criteria) -> criteria.put("birthDate", birthDateRange(filterQuery)));
+
     private final MongoTemplate mongoTemplate;
+    private final FilterMetrics filterMetrics;
+    private final SlowQueryLog slowQueryLog;
+    private final EmployeTextIndex employeTextIndex;
+    private final ReadRouting readRouting;
+
+    @Override
+    public List<Employe> findAll() {
+        return mongoTemplate.find(readRouting.route(new Query(), Operation.EXPORT), Employe.class);
+    }
+
+    @Override
+    public Stream<Employe> streamAll() {
+        // Server-side cursor; documents are pulled in batches as the caller consumes the stream
+        return mongoTemplate.stream(readRouting.route(new Query().cursorBatchSize(STREAM_BATCH_SIZE), Operation.EXPORT), Employe.class);
+    }
+
+    @Override
+    public Stream<Employe> streamAllFromPrimary() {
+        return mongoTemplate.stream(new Query().cursorBatchSize(STREAM_BATCH_SIZE).withReadPreference(ReadPreference.primary()),
+            Employe.class);
+    }
+
+    @Override
+    public Optional<Long> findVersionById(String id) {
+        // Projection on the _id index: only the version leaves the server
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("version");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Employe.class)).map(Employe::getVersion);
+    }
+
+    @Override
+    public List<Employe> findAllWithFields(Set<String> fields) {
+        Query query = Projections.include(new Query(), Projections.of(fields, FIELDS, Sort.unsorted()));
+        return mongoTemplate.find(readRouting.route(query, Operation.EXPORT), Employe.class);
+    }
+
+    @Override
+    public List<Employe> findUpcomingBirthdays(LocalDate from, int days, int limit) {
+        // One index range scan per part of the window, the part after New Year last
+        List<Employe> employees = new ArrayList<>();
+        for (Criteria part : BirthdayWindow.parts(from, days)) {
+            if (employees.size() >= limit) {
+                break;
+            }
+            Query query = new Query(part).with(BirthdayWindow.SORT).limit(limit - employees.size());
+            employees.addAll(mongoTemplate.find(readRouting.route(query, Operation.FILTER), Employe.class));
+        }
+        return employees;
+    }
+
+    @Override
+    public Optional<Employe> assignEmployer(String id, String employerId) {
+        Update update = employerId != null
+            ? new Update().set("employerId", employerId)
+            : new Update().unset("employerId");
+        // Single atomic update; the previous document tells which employer headcount to release
+        update.inc("version", 1).currentDate("lastModified");
+        return Optional.ofNullable(mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(id)), update,
+            FindAndModifyOptions.options().returnNew(false), Employe.class));
+    }
+
+    @Override
+    public Optional<Employe> findAndDeleteById(String id) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(Query.query(Criteria.where("_id").is(id)), Employe.class));
+    }
+
+    @Override
+    public Map<String, String> findEmployerIds(Collection<String> ids) {
+        Query query = Query.query(Criteria.where("_id").in(ids).and("employerId").ne(null));
+        query.fields().include("employerId");
+        return mongoTemplate.find(query, Employe.class).stream()
+            .collect(Collectors.toMap(Employe::getId, Employe::getEmployerId));
+    }
+
+    @Override
+    public Set<String> findLinkedEmployerIds(Collection<String> employerIds) {
+        Query query = Query.query(Criteria.where("employerId").in(employerIds));
+        return Set.copyOf(mongoTemplate.findDistinct(query, "employerId", Employe.class, String.class));
+    }
 
     @Override
-    public Page<Employe> findWithFilters(EmployeFilterQuery filterQuery, Pageable pageable) {
-        Query query = toQuery(filterQuery);
+    public Set<String> findExistingIds(Collection<String> ids) {
+        return BulkWrites.existingIds(mongoTemplate, Employe.class, ids);
+    }
+
+    @Override
+    public Map<Integer, String> bulkInsert(List<Employe> employes) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Employe.class);
+        for (Employe entity : employes) {
+            if (entity.getId() == null) {
+                entity.setId(ObjectId.get().toHexString());
+            }
+            if (entity.getVersion() == null) {
+                // Bulk writes bypass the template's version handling
+                entity.setVersion(0L);
+            }
+            operations.insert(entity);
+        }
+        return BulkWrites.execute(operations, employes.size());
+    }
+
+    @Override
+    public Map<Integer, String> bulkReplace(List<Employe> employes) {
+        return BulkWrites.replaceVersioned(mongoTemplate, Employe.class, employes, Employe::getId, Employe::getVersion, Employe::setVersion);
+    }
+
+    @Override
+    public Map<Integer, String> bulkDelete(List<String> ids) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Employe.class);
+        for (String id : ids) {
+            operations.remove(Query.query(Criteria.where("_id").is(id)));
+        }
+        return BulkWrites.execute(operations, ids.size());
+    }
+
+    @Override
+    public Slice<Employe> findWithFilters(EmployeFilterQuery filterQuery, Pageable pageable) {
+        String shape = shapeOf(filterQuery);
         
         // Special handling for birth month filter
-        if (filterQuery.getBirthMonth() != null && filterQuery.getBirthMonth() >= 1 && filterQuery.getBirthMonth() <= 12) {
-            return findWithBirthMonthFilter(filterQuery, pageable);
+        if (isBirthMonthFilter(filterQuery)) {
+            return filterMetrics.record("employe", "findWithBirthMonthFilter", shape, filterQuery, FIELDS,
+                () -> findWithBirthMonthFilter(filterQuery, pageable, employeTextIndex.candidates(filterQuery)));
         }
         
+        return filterMetrics.record("employe", "findWithFilters", shape, filterQuery, FIELDS,
+            () -> findWithQuery(filterQuery, pageable, employeTextIndex.candidates(filterQuery)));
+    }
+    
+    private Slice<Employe> findWithQuery(EmployeFilterQuery filterQuery, Pageable pageable, Set<String> candidates) {
         // Standard query for other filters
-        long total = mongoTemplate.count(query, Employe.class);
-        query.with(pageable);
-        List<Employe> employees = mongoTemplate.find(query, Employe.class);
+        Query countQuery = readRouting.route(countQuery(filterQuery, candidates), Operation.COUNT);
+        Long total = slowQueryLog.count(countQuery, Employe.class,
+            () -> Counts.count(mongoTemplate, countQuery, Employe.class, filterQuery.getCountMode()));
+        Query pageQuery = readRouting.route(pageQuery(filterQuery, pageable, candidates), Operation.FILTER);
+        List<Employe> employees = slowQueryLog.find(pageQuery, Employe.class, () -> mongoTemplate.find(pageQuery, Employe.class));
         
-        return new PageImpl<>(employees, pageable, total);
+        return KeysetCursor.slice(employees, pageable, total, mongoTemplate.getConverter());
     }
     
-    private Query toQuery(EmployeFilterQuery filterQuery) {
-        Query query = new Query();
-        Criteria criteria = new Criteria();
-
+    static boolean isBirthMonthFilter(EmployeFilterQuery filterQuery) {
+        return filterQuery.getBirthMonth() != null && filterQuery.getBirthMonth() >= 1 && filterQuery.getBirthMonth() <= 12;
+    }
+    
+    static Query countQuery(EmployeFilterQuery filterQuery, Set<String> candidates) {
+        return TextCriteria.withMatchOptions(new Query(toCriteria(filterQuery, candidates)), filterQuery.getMatchMode());
+    }
+    
+    /**
+     * Page of the filter: offset or keyset seek, one extra element, sparse fieldset projection and search collation.
+     */
+    static Query pageQuery(EmployeFilterQuery filterQuery, Pageable pageable, Set<String> candidates) {
+        Query query = TextCriteria.withMatchOptions(
+            KeysetCursor.pageQuery(toCriteria(filterQuery, candidates), filterQuery.getAfter(), pageable), filterQuery.getMatchMode());
+        return Projections.include(query, Projections.of(filterQuery.getFields(), FIELDS, pageable.getSort()));
+    }
+    
+    /**
+     * Which filters are set, e.g. "name+birthMonth"; used as a low-cardinality metrics tag.
+     */
+    static String shapeOf(EmployeFilterQuery filterQuery) {
+        List<String> fields = new ArrayList<>();
         if (filterQuery.getName() != null && !filterQuery.getName().isEmpty()) {
-            criteria.and("name").regex(filterQuery.getName(), "i");
+            fields.add("name");
         }
-
         if (filterQuery.getEmail() != null && !filterQuery.getEmail().isEmpty()) {
-            criteria.and("email").regex(filterQuery.getEmail(), "i");
+            fields.add("email");
+        }
+        if (filterQuery.getBirthDateStart() != null) {
+            fields.add("birthDateStart");
+        }
+        if (filterQuery.getBirthDateEnd() != null) {
+            fields.add("birthDateEnd");
+        }
+        if (filterQuery.getBirthMonth() != null) {
+            fields.add("birthMonth");
         }
+        if (filterQuery.getEmployerId() != null && !filterQuery.getEmployerId().isEmpty()) {
+            fields.add("employerId");
+        }
+        return fields.isEmpty() ? "none" : String.join("+", fields);
+    }
+    
+    static CriteriaDefinition toCriteria(EmployeFilterQuery filterQuery) {
+        return toCriteria(filterQuery, null);
+    }
 
-        // Handle birth month filter
-        if (filterQuery.getBirthMonth() != null && filterQuery.getBirthMonth() >= 1 && filterQuery.getBirthMonth() <= 12) {
-            // MongoDB aggregation expression to extract month from birthDate
-            criteria.and("birthDate").exists(true);
-            criteria.orOperator(
-                Criteria.where("birthDate").regex("-" + String.format("%02d", filterQuery.getBirthMonth()) + "-", "i")
-            );
-        } else {
-            // Handle date range if birth month is not specified
-            if (filterQuery.getBirthDateStart() != null && filterQuery.getBirthDateEnd() != null) {
-                criteria.and("birthDate").gte(filterQuery.getBirthDateStart()).lte(filterQuery.getBirthDateEnd());
-            } else if (filterQuery.getBirthDateStart() != null) {
-                criteria.and("birthDate").gte(filterQuery.getBirthDateStart());
-            } else if (filterQuery.getBirthDateEnd() != null) {
-                criteria.and("birthDate").lte(filterQuery.getBirthDateEnd());
-            }
+    /**
+     * The filter criteria, restricted to the {@link EmployeTextIndex} candidates when there are any. The text
+     * criteria stay, to drop the candidates that only share the trigrams.
+     */
+    static CriteriaDefinition toCriteria(EmployeFilterQuery filterQuery, Set<String> candidates) {
+        CriteriaDefinition criteria = CRITERIA.bind(filterQuery);
+        if (candidates == null) {
+            return criteria;
         }
+        // ObjectIds spelled out, as stored
+        List<Object> ids = candidates.stream()
+            .<Object>map(id -> ObjectId.isValid(id) ? new ObjectId(id) : id)
+            .toList();
+        return QueryTemplate.and(criteria, Criteria.where("_id").in(ids));
+    }
 
-        query.addCriteria(criteria);
-        return query;
+    private static Document birthDateRange(EmployeFilterQuery filterQuery) {
+        Document range = new Document();
+        if (filterQuery.getBirthDateStart() != null) {
+            range.put("$gte", filterQuery.getBirthDateStart());
+        }
+        if (filterQuery.getBirthDateEnd() != null) {
+            range.put("$lte", filterQuery.getBirthDateEnd());
+        }
+        return range;
+    }
+    
+    private Slice<Employe> findWithBirthMonthFilter(EmployeFilterQuery filterQuery, Pageable pageable, Set<String> candidates) {
+        TypedAggregation<Employe> aggregation = birthMonthAggregation(filterQuery, pageable, candidates, readRouting.of(Operation.FILTER));
+        Document result = slowQueryLog.aggregate(aggregation, Employe.class,
+            () -> mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult());
+        return birthMonthSlice(result, filterQuery, pageable, mongoTemplate.getConverter());
     }
     
-    private Page<Employe> findWithBirthMonthFilter(EmployeFilterQuery filterQuery, Pageable pageable) {
+    /**
+     * Count and page of a birth-month filter in one $facet, typed on {@link Employe} so field names map as in a find.
+     */
+    static TypedAggregation<Employe> birthMonthAggregation(EmployeFilterQuery filterQuery, Pageable pageable,
+                                                           Set<String> candidates, ReadPreference readPreference) {
         List<AggregationOperation> operations = new ArrayList<>();
         
-        // Add projection to extract month from birthDate
-        ProjectionOperation projectOperation = Aggregation.project()
-            .and("name").as("name")
-            .and("email").as("email")
-            .and("birthDate").as("birthDate")
-            .and("id").as("id")
-            .and("birthDate").extractMonth().as("birthMonth");
-        operations.add(projectOperation);
+        // Match on the stored birthMonth first so the index narrows the input of the facet
+        operations.add(Aggregation.match(toCriteria(filterQuery, candidates)));
         
-        // Add match operations for other filters
-        if (filterQuery.getName() != null && !filterQuery.getName().isEmpty()) {
-            operations.add(Aggregation.match(Criteria.where("name").regex(filterQuery.getName(), "i")));
+        // Page stages: sort on (sort key, _id) first so the whole match set is ordered, then cut the page
+        List<AggregationOperation> pageOperations = new ArrayList<>();
+        if (filterQuery.hasCursor()) {
+            pageOperations.add(Aggregation.match(KeysetCursor.decode(filterQuery.getAfter(), pageable).toCriteria()));
+            pageOperations.add(Aggregation.sort(KeysetCursor.sortOf(pageable)));
+        } else {
+            pageOperations.add(Aggregation.sort(KeysetCursor.sortOf(pageable)));
+            pageOperations.add(Aggregation.skip(pageable.getOffset()));
         }
-        
-        if (filterQuery.getEmail() != null && !filterQuery.getEmail().isEmpty()) {
-            operations.add(Aggregation.match(Criteria.where("email").regex(filterQuery.getEmail(), "i")));
+        pageOperations.add(Aggregation.limit(pageable.getPageSize() + 1));
+        List<String> fields = Projections.of(filterQuery.getFields(), FIELDS, pageable.getSort());
+        if (!fields.isEmpty()) {
+            pageOperations.add(Aggregation.project(fields.toArray(String[]::new)));
         }
         
-        // Add match operation for birth month
-        operations.add(Aggregation.match(Criteria.where("birthMonth").is(filterQuery.getBirthMonth())));
-        
-        // Count total before pagination
-        Aggregation countAggregation = Aggregation.newAggregation(operations);
-        AggregationResults<Employe> countResults = mongoTemplate.aggregate(countAggregation, "employes", Employe.class);
-        long total = countResults.getMappedResults().size();
+        // Count and page in a single round trip; the count is computed server-side
+        operations.add(filterQuery.getCountMode() != CountMode.NONE
+            ? Aggregation.facet(Aggregation.count().as(TOTAL_FIELD)).as(TOTAL_FIELD)
+                .and(pageOperations.toArray(AggregationOperation[]::new)).as(CONTENT_FIELD)
+            : Aggregation.facet(pageOperations.toArray(AggregationOperation[]::new)).as(CONTENT_FIELD));
         
-        // Add pagination
-        operations.add(Aggregation.skip((long) pageable.getPageNumber() * pageable.getPageSize()));
-        operations.add(Aggregation.limit(pageable.getPageSize()));
-        
-        // Add sorting if specified
-        if (pageable.getSort().isSorted()) {
-            operations.add(Aggregation.sort(pageable.getSort()));
+        AggregationOptions.Builder options = TextCriteria.aggregationOptions(filterQuery.getMatchMode());
+        if (readPreference != null) {
+            options.readPreference(readPreference);
         }
+        return Aggregation.newAggregation(Employe.class, operations).withOptions(options.build());
+    }
+    
+    /**
+     * Reads the single $facet document of {@link #birthMonthAggregation} into a slice.
+     */
+    static Slice<Employe> birthMonthSlice(Document result, EmployeFilterQuery filterQuery, Pageable pageable,
+                                          MongoConverter converter) {
+        Long total = null;
+        if (filterQuery.getCountMode() != CountMode.NONE) {
+            List<Document> counts = result.getList(TOTAL_FIELD, Document.class);
+            total = counts.isEmpty() ? 0L : counts.get(0).get(TOTAL_FIELD, Number.class).longValue();
+        }
+        List<Employe> employees = result.getList(CONTENT_FIELD, Document.class).stream()
+            .map(document -> converter.read(Employe.class, document))
+            .toList();
         
-        Aggregation aggregation = Aggregation.newAggregation(operations);
-        AggregationResults<Employe> results = mongoTemplate.aggregate(aggregation, "employes", Employe.class);
-        
-        return new PageImpl<>(results.getMappedResults(), pageable, total);
+        return KeysetCursor.slice(employees, pageable, total, converter);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -1,65 +1,235 @@
 package br.com.andervilo.timesheet.infrastructure.repository.impl;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.CriteriaDefinition;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import br.com.andervilo.timesheet.application.query.EmployerFilterQuery;
+import br.com.andervilo.timesheet.application.query.MatchMode;
 import br.com.andervilo.timesheet.domain.Employer;
+import br.com.andervilo.timesheet.infrastructure.metrics.FilterMetrics;
+import br.com.andervilo.timesheet.infrastructure.mongo.ReadRouting;
+import br.com.andervilo.timesheet.infrastructure.mongo.ReadRouting.Operation;
+import br.com.andervilo.timesheet.infrastructure.mongo.SlowQueryLog;
 import br.com.andervilo.timesheet.infrastructure.repository.CustomEmployerRepository;
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class CustomEmployerRepositoryImpl implements CustomEmployerRepository {
 
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    // Fields clients may sort by and select in a sparse fieldset
+    static final Set<String> FIELDS = Set.of("id", "name", "cnpj", "email", "phone", "address", "headcount", "version", "lastModified");
+
+    // A whole CNPJ or phone number as typed: digits, whitespace and this punctuation only, with the digits of a
+    // full identifier. Checked per character, as it runs on every bind of the filter criteria
+    private static final String CNPJ_PUNCTUATION = "./-";
+    private static final String PHONE_PUNCTUATION = "()+.-";
+    private static final String WHITESPACE = " \t\n\u000B\f\r";
+    private static final int PHONE_MIN_DIGITS = 10;
+
+    // Filter criteria, compiled once per combination of set filters and match mode
+    private static final QueryTemplate<EmployerFilterQuery> CRITERIA = new QueryTemplate<EmployerFilterQuery>()
+        .text("name", EmployerFilterQuery::getName)
+        // A full identifier is an exact match on its digits, served by the cnpjKey / phoneKey index
+        .equal("cnpjKey", CustomEmployerRepositoryImpl::cnpjKey)
+        .text("cnpj", filterQuery -> cnpjKey(filterQuery) == null ? filterQuery.getCnpj() : null)
+        .text("email", EmployerFilterQuery::getEmail)
+        .equal("phoneKey", CustomEmployerRepositoryImpl::phoneKey)
+        .text("phone", filterQuery -> phoneKey(filterQuery) == null ? filterQuery.getPhone() : null)
+        .text("address", EmployerFilterQuery::getAddress);
+
     private final MongoTemplate mongoTemplate;
+    private final FilterMetrics filterMetrics;
+    private final SlowQueryLog slowQueryLog;
+    private final ReadRouting readRouting;
 
     @Override
-    public Page<Employer> findWithFilters(EmployerFilterQuery filterQuery, Pageable pageable) {
-        Query query = toQuery(filterQuery);
-        
-        // Get total count
-        long total = mongoTemplate.count(query, Employer.class);
-        
-        // Apply pagination
-        query.with(pageable);
+    public List<Employer> findAll() {
+        return mongoTemplate.find(readRouting.route(new Query(), Operation.EXPORT), Employer.class);
+    }
+
+    @Override
+    public Stream<Employer> streamAll() {
+        // Server-side cursor; documents are pulled in batches as the caller consumes the stream
+        return mongoTemplate.stream(readRouting.route(new Query().cursorBatchSize(STREAM_BATCH_SIZE), Operation.EXPORT), Employer.class);
+    }
+
+    @Override
+    public Optional<Long> findVersionById(String id) {
+        // Projection on the _id index: only the version leaves the server
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("version");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Employer.class)).map(Employer::getVersion);
+    }
+
+    @Override
+    public List<Employer> findAllWithFields(Set<String> fields) {
+        Query query = Projections.include(new Query(), Projections.of(fields, FIELDS, Sort.unsorted()));
+        return mongoTemplate.find(readRouting.route(query, Operation.EXPORT), Employer.class);
+    }
+
+    @Override
+    public void incrementHeadcounts(Map<String, Integer> deltas) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Employer.class);
+        int updates = 0;
+        for (Map.Entry<String, Integer> delta : deltas.entrySet()) {
+            if (delta.getValue() == 0) {
+                continue;
+            }
+            // $inc is applied server-side, so concurrent links never lose a count; the version bump
+            // makes a save() or bulk replace based on a stale read fail instead of overwriting the counter
+            operations.updateOne(Query.query(Criteria.where("_id").is(delta.getKey())), new Update()
+                .inc("headcount", delta.getValue())
+                .inc("version", 1)
+                .currentDate("lastModified"));
+            updates++;
+        }
+        if (updates > 0) {
+            operations.execute();
+        }
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> ids) {
+        return BulkWrites.existingIds(mongoTemplate, Employer.class, ids);
+    }
+
+    @Override
+    public Map<Integer, String> bulkInsert(List<Employer> employers) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Employer.class);
+        for (Employer entity : employers) {
+            if (entity.getId() == null) {
+                entity.setId(ObjectId.get().toHexString());
+            }
+            if (entity.getVersion() == null) {
+                // Bulk writes bypass the template's version handling
+                entity.setVersion(0L);
+            }
+            operations.insert(entity);
+        }
+        return BulkWrites.execute(operations, employers.size());
+    }
+
+    @Override
+    public Map<Integer, String> bulkReplace(List<Employer> employers) {
+        return BulkWrites.replaceVersioned(mongoTemplate, Employer.class, employers, Employer::getId, Employer::getVersion, Employer::setVersion);
+    }
+
+    @Override
+    public Map<Integer, String> bulkDelete(List<String> ids) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Employer.class);
+        for (String id : ids) {
+            operations.remove(Query.query(Criteria.where("_id").is(id)));
+        }
+        return BulkWrites.execute(operations, ids.size());
+    }
+
+    @Override
+    public Slice<Employer> findWithFilters(EmployerFilterQuery filterQuery, Pageable pageable) {
+        return filterMetrics.record("employer", "findWithFilters", shapeOf(filterQuery), filterQuery, FIELDS,
+            () -> findWithQuery(filterQuery, pageable));
+    }
+    
+    private Slice<Employer> findWithQuery(EmployerFilterQuery filterQuery, Pageable pageable) {
+        // Get total count, as requested by the count mode
+        Query countQuery = readRouting.route(countQuery(filterQuery), Operation.COUNT);
+        Long total = slowQueryLog.count(countQuery, Employer.class,
+            () -> Counts.count(mongoTemplate, countQuery, Employer.class, filterQuery.getCountMode()));
         
         // Execute query
-        List<Employer> employers = mongoTemplate.find(query, Employer.class);
+        Query pageQuery = readRouting.route(pageQuery(filterQuery, pageable), Operation.FILTER);
+        List<Employer> employers = slowQueryLog.find(pageQuery, Employer.class, () -> mongoTemplate.find(pageQuery, Employer.class));
         
-        return new PageImpl<>(employers, pageable, total);
+        return KeysetCursor.slice(employers, pageable, total, mongoTemplate.getConverter());
     }
     
-    private Query toQuery(EmployerFilterQuery filterQuery) {
-        Query query = new Query();
-        Criteria criteria = new Criteria();
-
+    static Query countQuery(EmployerFilterQuery filterQuery) {
+        return TextCriteria.withMatchOptions(new Query(toCriteria(filterQuery)), filterQuery.getMatchMode());
+    }
+    
+    /**
+     * Page of the filter: offset or keyset seek past the cursor, one extra element, sparse fieldset projection
+     * and search collation.
+     */
+    static Query pageQuery(EmployerFilterQuery filterQuery, Pageable pageable) {
+        Query query = TextCriteria.withMatchOptions(
+            KeysetCursor.pageQuery(toCriteria(filterQuery), filterQuery.getAfter(), pageable), filterQuery.getMatchMode());
+        return Projections.include(query, Projections.of(filterQuery.getFields(), FIELDS, pageable.getSort()));
+    }
+    
+    /**
+     * Which filters are set, e.g. "name+cnpj"; used as a low-cardinality metrics tag.
+     */
+    static String shapeOf(EmployerFilterQuery filterQuery) {
+        List<String> fields = new ArrayList<>();
         if (filterQuery.getName() != null && !filterQuery.getName().isEmpty()) {
-            criteria.and("name").regex(filterQuery.getName(), "i");
+            fields.add("name");
         }
-
         if (filterQuery.getCnpj() != null && !filterQuery.getCnpj().isEmpty()) {
-            criteria.and("cnpj").regex(filterQuery.getCnpj(), "i");
+            fields.add(cnpjKey(filterQuery) != null ? "cnpjKey" : "cnpj");
         }
-
         if (filterQuery.getEmail() != null && !filterQuery.getEmail().isEmpty()) {
-            criteria.and("email").regex(filterQuery.getEmail(), "i");
+            fields.add("email");
         }
-
         if (filterQuery.getPhone() != null && !filterQuery.getPhone().isEmpty()) {
-            criteria.and("phone").regex(filterQuery.getPhone(), "i");
+            fields.add(phoneKey(filterQuery) != null ? "phoneKey" : "phone");
         }
-
         if (filterQuery.getAddress() != null && !filterQuery.getAddress().isEmpty()) {
-            criteria.and("address").regex(filterQuery.getAddress(), "i");
+            fields.add("address");
         }
+        return fields.isEmpty() ? "none" : String.join("+", fields);
+    }
+    
+    static CriteriaDefinition toCriteria(EmployerFilterQuery filterQuery) {
+        return CRITERIA.bind(filterQuery);
+    }
+
+    /**
+     * Key of the cnpj filter when it is a full CNPJ in any punctuation and the match mode is not REGEX; null otherwise.
+     */
+    static String cnpjKey(EmployerFilterQuery filterQuery) {
+        String key = fullIdentifierKey(filterQuery, filterQuery.getCnpj(), CNPJ_PUNCTUATION, Employer::cnpjKeyOf);
+        return key != null && key.length() == Employer.CNPJ_DIGITS ? key : null;
+    }
 
-        query.addCriteria(criteria);
-        return query;
+    /**
+     * Key of the phone filter when it is a full number, area code included, and the match mode is not REGEX;
+     * null otherwise.
+     */
+    static String phoneKey(EmployerFilterQuery filterQuery) {
+        String key = fullIdentifierKey(filterQuery, filterQuery.getPhone(), PHONE_PUNCTUATION, Employer::phoneKeyOf);
+        return key != null && key.length() >= PHONE_MIN_DIGITS ? key : null;
+    }
+
+    private static String fullIdentifierKey(EmployerFilterQuery filterQuery, String value, String punctuation,
+                                            UnaryOperator<String> key) {
+        if (value == null || value.isEmpty() || filterQuery.getMatchMode() == MatchMode.REGEX) {
+            return null;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && punctuation.indexOf(c) < 0 && WHITESPACE.indexOf(c) < 0) {
+                return null;
+            }
+        }
+        return key.apply(value);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,24 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import br.com.andervilo.timesheet.domain.Punch;
+import br.com.andervilo.timesheet.infrastructure.repository.CustomPunchRepository;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class CustomPunchRepositoryImpl implements CustomPunchRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Map<Integer, String> bulkInsert(List<Punch> punches) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Punch.class);
+        operations.insert(punches);
+        return BulkWrites.execute(operations, punches.size());
+    }
+}
@@ -0,0 +1,252 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+
+import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import br.com.andervilo.timesheet.application.query.MatchMode;
+import br.com.andervilo.timesheet.domain.Employe;
+import br.com.andervilo.timesheet.infrastructure.metrics.FilterMetrics;
+import br.com.andervilo.timesheet.infrastructure.repository.EmployeRepository;
+import br.com.andervilo.timesheet.infrastructure.mongo.SearchCollation;
+import br.com.andervilo.timesheet.infrastructure.search.EmployeTextIndex;
+
+/**
+ * {@link EmployeRepository} of the "memory" profile. Indexes: name (sorted, folded), birthday (sorted on
+ * month * 100 + day, so a month is a bucket of consecutive keys), birthDate (sorted) and employerId (hashed);
+ * a filter scans the candidates of the most selective index it can use, in that order: employerId, the
+ * {@link EmployeTextIndex} for contains filters, birth month, name prefix, birth date range.
+ */
+@Repository
+@Profile("memory")
+public class InMemoryEmployeRepository extends InMemoryRepository<Employe> implements EmployeRepository {
+
+    private final FilterMetrics filterMetrics;
+    private final EmployeTextIndex employeTextIndex;
+
+    private final MemoryIndex<String, Employe> byName = index(MemoryIndex.sorted((Employe employe) -> searchKey(employe.getName())));
+    private final MemoryIndex<Integer, Employe> byBirthday = index(MemoryIndex.sorted((Employe employe) ->
+        employe.getBirthMonth() != null && employe.getBirthDay() != null ? birthday(employe.getBirthMonth(), employe.getBirthDay()) : null));
+    private final MemoryIndex<LocalDate, Employe> byBirthDate = index(MemoryIndex.sorted(Employe::getBirthDate));
+    private final MemoryIndex<String, Employe> byEmployer = index(MemoryIndex.hashed(Employe::getEmployerId));
+
+    public InMemoryEmployeRepository(FilterMetrics filterMetrics, EmployeTextIndex employeTextIndex) {
+        super(Employe.class);
+        this.filterMetrics = filterMetrics;
+        this.employeTextIndex = employeTextIndex;
+        sortKey("name", byName);
+        sortKey("birthDate", byBirthDate);
+        sortKey("email", employe -> searchKey(employe.getEmail()));
+        sortKey("employerId", Employe::getEmployerId);
+        sortKey("version", Employe::getVersion);
+        sortKey("lastModified", Employe::getLastModified);
+    }
+
+    @Override
+    String idOf(Employe document) {
+        return document.getId();
+    }
+
+    @Override
+    void setId(Employe document, String id) {
+        document.setId(id);
+    }
+
+    @Override
+    Long versionOf(Employe document) {
+        return document.getVersion();
+    }
+
+    @Override
+    void stamp(Employe document, Long version, Instant lastModified) {
+        document.setVersion(version);
+        document.setLastModified(lastModified);
+    }
+
+    @Override
+    Employe copy(Employe document) {
+        return new Employe(document.getId(), document.getName(), document.getEmail(), document.getBirthDate(),
+            document.getBirthMonth(), document.getBirthDay(), document.getEmployerId(), document.getVersion(),
+            document.getLastModified());
+    }
+
+    @Override
+    public Slice<Employe> findWithFilters(EmployeFilterQuery filterQuery, Pageable pageable) {
+        return filterMetrics.record("employe", "findWithFilters", CustomEmployeRepositoryImpl.shapeOf(filterQuery),
+            filterQuery, CustomEmployeRepositoryImpl.FIELDS,
+            () -> page(filterQuery, pageable, filter(filterQuery), candidates(filterQuery)));
+    }
+
+    @Override
+    public Optional<Long> findVersionById(String id) {
+        return findVersion(id);
+    }
+
+    @Override
+    public List<Employe> findAllWithFields(Set<String> fields) {
+        // Nothing to save by projecting in memory; the response is still cut down to the fields
+        return findAll();
+    }
+
+    @Override
+    public Stream<Employe> streamAll() {
+        return streamCopies();
+    }
+
+    @Override
+    public Stream<Employe> streamAllFromPrimary() {
+        return streamCopies();
+    }
+
+    @Override
+    public List<Employe> findUpcomingBirthdays(LocalDate from, int days, int limit) {
+        List<BirthdayWindow.Part> parts = BirthdayWindow.ranges(from, days);
+        return read(() -> parts.stream()
+            .flatMap(part -> byBirthday.range(birthday(part.start()), birthday(part.end())))
+            .limit(limit)
+            .map(id -> copy(get(id)))
+            .toList());
+    }
+
+    @Override
+    public Optional<Employe> assignEmployer(String id, String employerId) {
+        return write(() -> {
+            Employe stored = get(id);
+            if (stored == null) {
+                return Optional.empty();
+            }
+            Employe updated = copy(stored);
+            updated.setEmployerId(employerId);
+            stamp(updated, stored.getVersion() == null ? 1L : stored.getVersion() + 1, now());
+            put(updated);
+            return Optional.of(copy(stored));
+        });
+    }
+
+    @Override
+    public Optional<Employe> findAndDeleteById(String id) {
+        return write(() -> Optional.ofNullable(remove(id)));
+    }
+
+    @Override
+    public Map<String, String> findEmployerIds(Collection<String> ids) {
+        return read(() -> ids.stream()
+            .distinct()
+            .map(this::get)
+            .filter(employe -> employe != null && employe.getEmployerId() != null)
+            .collect(Collectors.toMap(Employe::getId, Employe::getEmployerId)));
+    }
+
+    @Override
+    public Set<String> findLinkedEmployerIds(Collection<String> employerIds) {
+        return read(() -> employerIds.stream()
+            .filter(employerId -> !byEmployer.get(employerId).isEmpty())
+            .collect(Collectors.toSet()));
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> ids) {
+        return existingIds(ids);
+    }
+
+    @Override
+    public Map<Integer, String> bulkInsert(List<Employe> employes) {
+        return bulkInsertAll(employes);
+    }
+
+    @Override
+    public Map<Integer, String> bulkReplace(List<Employe> employes) {
+        return bulkReplaceAll(employes);
+    }
+
+    @Override
+    public Map<Integer, String> bulkDelete(List<String> ids) {
+        return bulkDeleteAll(ids);
+    }
+
+    /**
+     * The filter of the query as a predicate, the same the Mongo criteria express; null when nothing is filtered.
+     */
+    static Predicate<Employe> filter(EmployeFilterQuery filterQuery) {
+        MatchMode mode = filterQuery.getMatchMode();
+        List<Predicate<Employe>> filters = new ArrayList<>();
+        if (isSet(filterQuery.getName())) {
+            Predicate<String> name = TextCriteria.matcher(filterQuery.getName(), mode);
+            filters.add(employe -> name.test(employe.getName()));
+        }
+        if (isSet(filterQuery.getEmail())) {
+            Predicate<String> email = TextCriteria.matcher(filterQuery.getEmail(), mode);
+            filters.add(employe -> email.test(employe.getEmail()));
+        }
+        if (isSet(filterQuery.getEmployerId())) {
+            filters.add(employe -> filterQuery.getEmployerId().equals(employe.getEmployerId()));
+        }
+        if (CustomEmployeRepositoryImpl.isBirthMonthFilter(filterQuery)) {
+            filters.add(employe -> filterQuery.getBirthMonth().equals(employe.getBirthMonth()));
+        } else if (filterQuery.getBirthDateStart() != null || filterQuery.getBirthDateEnd() != null) {
+            LocalDate start = filterQuery.getBirthDateStart();
+            LocalDate end = filterQuery.getBirthDateEnd();
+            filters.add(employe -> employe.getBirthDate() != null
+                && (start == null || !employe.getBirthDate().isBefore(start))
+                && (end == null || !employe.getBirthDate().isAfter(end)));
+        }
+        return filters.stream().reduce(Predicate::and).orElse(null);
+    }
+
+    /**
+     * Ids an index narrows the filter down to; null when no index applies.
+     */
+    private Supplier<Stream<String>> candidates(EmployeFilterQuery filterQuery) {
+        if (isSet(filterQuery.getEmployerId())) {
+            return () -> byEmployer.get(filterQuery.getEmployerId()).stream();
+        }
+        Set<String> text = employeTextIndex.candidates(filterQuery);
+        if (text != null) {
+            return text::stream;
+        }
+        if (CustomEmployeRepositoryImpl.isBirthMonthFilter(filterQuery)) {
+            int month = filterQuery.getBirthMonth();
+            return () -> byBirthday.range(birthday(month, 1), birthday(month, 31));
+        }
+        if (isSet(filterQuery.getName()) && filterQuery.getMatchMode() == MatchMode.PREFIX) {
+            String prefix = searchKey(filterQuery.getName());
+            return () -> byName.range(prefix, prefix + Character.MAX_VALUE);
+        }
+        if (filterQuery.getBirthDateStart() != null || filterQuery.getBirthDateEnd() != null) {
+            return () -> byBirthDate.range(filterQuery.getBirthDateStart(), filterQuery.getBirthDateEnd());
+        }
+        return null;
+    }
+
+    private static int birthday(int month, int day) {
+        return month * 100 + day;
+    }
+
+    private static int birthday(MonthDay day) {
+        return birthday(day.getMonthValue(), day.getDayOfMonth());
+    }
+
+    private static String searchKey(String value) {
+        return value != null ? SearchCollation.fold(value) : null;
+    }
+
+    private static boolean isSet(String value) {
+        return value != null && !value.isEmpty();
+    }
+}
@@ -0,0 +1,202 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+
+import br.com.andervilo.timesheet.application.query.EmployerFilterQuery;
+import br.com.andervilo.timesheet.application.query.MatchMode;
+import br.com.andervilo.timesheet.domain.Employer;
+import br.com.andervilo.timesheet.infrastructure.metrics.FilterMetrics;
+import br.com.andervilo.timesheet.infrastructure.repository.EmployerRepository;
+import br.com.andervilo.timesheet.infrastructure.mongo.SearchCollation;
+
+/**
+ * {@link EmployerRepository} of the "memory" profile. The name index (sorted, folded) serves name prefixes and
+ * the sort by name; the CNPJ index (unique) and phone index (hashed) serve full identifiers, on their keys
+ * computed from the stored values; the other text filters are substring matches and are checked on every candidate.
+ */
+@Repository
+@Profile("memory")
+public class InMemoryEmployerRepository extends InMemoryRepository<Employer> implements EmployerRepository {
+
+    private final FilterMetrics filterMetrics;
+
+    private final MemoryIndex<String, Employer> byName = index(MemoryIndex.sorted((Employer employer) -> searchKey(employer.getName())));
+    private final MemoryIndex<String, Employer> byCnpj = index(MemoryIndex.unique("cnpjKey", (Employer employer) -> Employer.cnpjKeyOf(employer.getCnpj())));
+    private final MemoryIndex<String, Employer> byPhone = index(MemoryIndex.hashed((Employer employer) -> Employer.phoneKeyOf(employer.getPhone())));
+
+    public InMemoryEmployerRepository(FilterMetrics filterMetrics) {
+        super(Employer.class);
+        this.filterMetrics = filterMetrics;
+        sortKey("name", byName);
+        sortKey("cnpj", employer -> searchKey(employer.getCnpj()));
+        sortKey("email", employer -> searchKey(employer.getEmail()));
+        sortKey("phone", employer -> searchKey(employer.getPhone()));
+        sortKey("address", employer -> searchKey(employer.getAddress()));
+        sortKey("headcount", Employer::getHeadcount);
+        sortKey("version", Employer::getVersion);
+        sortKey("lastModified", Employer::getLastModified);
+    }
+
+    @Override
+    String idOf(Employer document) {
+        return document.getId();
+    }
+
+    @Override
+    void setId(Employer document, String id) {
+        document.setId(id);
+    }
+
+    @Override
+    Long versionOf(Employer document) {
+        return document.getVersion();
+    }
+
+    @Override
+    void stamp(Employer document, Long version, Instant lastModified) {
+        document.setVersion(version);
+        document.setLastModified(lastModified);
+    }
+
+    @Override
+    Employer copy(Employer document) {
+        return new Employer(document.getId(), document.getName(), document.getCnpj(), document.getAddress(),
+            document.getPhone(), document.getEmail(), document.getCnpjKey(), document.getPhoneKey(),
+            document.getHeadcount(), document.getVersion(), document.getLastModified());
+    }
+
+    @Override
+    public Slice<Employer> findWithFilters(EmployerFilterQuery filterQuery, Pageable pageable) {
+        return filterMetrics.record("employer", "findWithFilters", CustomEmployerRepositoryImpl.shapeOf(filterQuery),
+            filterQuery, CustomEmployerRepositoryImpl.FIELDS,
+            () -> page(filterQuery, pageable, filter(filterQuery), candidates(filterQuery)));
+    }
+
+    @Override
+    public Optional<Employer> findByCnpjKey(String cnpjKey) {
+        return read(() -> byCnpj.get(cnpjKey).stream().findFirst().map(id -> copy(get(id))));
+    }
+
+    @Override
+    public Optional<Long> findVersionById(String id) {
+        return findVersion(id);
+    }
+
+    @Override
+    public List<Employer> findAllWithFields(Set<String> fields) {
+        // Nothing to save by projecting in memory; the response is still cut down to the fields
+        return findAll();
+    }
+
+    @Override
+    public Stream<Employer> streamAll() {
+        return streamCopies();
+    }
+
+    @Override
+    public void incrementHeadcounts(Map<String, Integer> deltas) {
+        write(() -> {
+            Instant now = now();
+            deltas.forEach((id, delta) -> {
+                Employer stored = get(id);
+                if (stored == null || delta == 0) {
+                    return;
+                }
+                Employer updated = copy(stored);
+                updated.setHeadcount((stored.getHeadcount() == null ? 0L : stored.getHeadcount()) + delta);
+                stamp(updated, stored.getVersion() == null ? 1L : stored.getVersion() + 1, now);
+                put(updated);
+            });
+            return null;
+        });
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> ids) {
+        return existingIds(ids);
+    }
+
+    @Override
+    public Map<Integer, String> bulkInsert(List<Employer> employers) {
+        return bulkInsertAll(employers);
+    }
+
+    @Override
+    public Map<Integer, String> bulkReplace(List<Employer> employers) {
+        return bulkReplaceAll(employers);
+    }
+
+    @Override
+    public Map<Integer, String> bulkDelete(List<String> ids) {
+        return bulkDeleteAll(ids);
+    }
+
+    /**
+     * The filter of the query as a predicate, the same the Mongo criteria express; null when nothing is filtered.
+     */
+    static Predicate<Employer> filter(EmployerFilterQuery filterQuery) {
+        MatchMode mode = filterQuery.getMatchMode();
+        List<Predicate<Employer>> filters = new ArrayList<>();
+        String cnpjKey = CustomEmployerRepositoryImpl.cnpjKey(filterQuery);
+        String phoneKey = CustomEmployerRepositoryImpl.phoneKey(filterQuery);
+        text(filters, filterQuery.getName(), Employer::getName, mode);
+        if (cnpjKey != null) {
+            filters.add(employer -> cnpjKey.equals(Employer.cnpjKeyOf(employer.getCnpj())));
+        } else {
+            text(filters, filterQuery.getCnpj(), Employer::getCnpj, mode);
+        }
+        text(filters, filterQuery.getEmail(), Employer::getEmail, mode);
+        if (phoneKey != null) {
+            filters.add(employer -> phoneKey.equals(Employer.phoneKeyOf(employer.getPhone())));
+        } else {
+            text(filters, filterQuery.getPhone(), Employer::getPhone, mode);
+        }
+        text(filters, filterQuery.getAddress(), Employer::getAddress, mode);
+        return filters.stream().reduce(Predicate::and).orElse(null);
+    }
+
+    private static void text(List<Predicate<Employer>> filters, String value, Function<Employer, String> field, MatchMode mode) {
+        if (value != null && !value.isEmpty()) {
+            Predicate<String> matcher = TextCriteria.matcher(value, mode);
+            filters.add(employer -> matcher.test(field.apply(employer)));
+        }
+    }
+
+    /**
+     * Ids an index narrows the filter down to: a full CNPJ, a full phone or a name prefix; null when none applies.
+     */
+    private Supplier<Stream<String>> candidates(EmployerFilterQuery filterQuery) {
+        String cnpjKey = CustomEmployerRepositoryImpl.cnpjKey(filterQuery);
+        if (cnpjKey != null) {
+            return () -> byCnpj.get(cnpjKey).stream();
+        }
+        String phoneKey = CustomEmployerRepositoryImpl.phoneKey(filterQuery);
+        if (phoneKey != null) {
+            return () -> byPhone.get(phoneKey).stream();
+        }
+        if (filterQuery.getName() != null && !filterQuery.getName().isEmpty() && filterQuery.getMatchMode() == MatchMode.PREFIX) {
+            String prefix = searchKey(filterQuery.getName());
+            return () -> byName.range(prefix, prefix + Character.MAX_VALUE);
+        }
+        return null;
+    }
+
+    private static String searchKey(String value) {
+        return value != null ? SearchCollation.fold(value) : null;
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Range;
+import org.springframework.stereotype.Repository;
+
+import br.com.andervilo.timesheet.domain.Punch;
+import br.com.andervilo.timesheet.infrastructure.repository.PunchRepository;
+
+/**
+ * {@link PunchRepository} of the "memory" profile: punches are unversioned and looked up by employee,
+ * through a hashed employeId index.
+ */
+@Repository
+@Profile("memory")
+public class InMemoryPunchRepository extends InMemoryRepository<Punch> implements PunchRepository {
+
+    private static final Comparator<Punch> BY_TIMESTAMP = Comparator.comparing(Punch::getTimestamp)
+        .thenComparing(Punch::getId);
+
+    private final MemoryIndex<String, Punch> byEmploye = index(MemoryIndex.hashed(Punch::getEmployeId));
+
+    public InMemoryPunchRepository() {
+        super(Punch.class);
+        sortKey("employeId", Punch::getEmployeId);
+        sortKey("timestamp", Punch::getTimestamp);
+    }
+
+    @Override
+    String idOf(Punch document) {
+        return document.getId();
+    }
+
+    @Override
+    void setId(Punch document, String id) {
+        document.setId(id);
+    }
+
+    @Override
+    Long versionOf(Punch document) {
+        return null;
+    }
+
+    @Override
+    void stamp(Punch document, Long version, Instant lastModified) {
+        // Punches are never modified
+    }
+
+    @Override
+    boolean versioned() {
+        return false;
+    }
+
+    @Override
+    Punch copy(Punch document) {
+        return new Punch(document.getId(), document.getEmployeId(), document.getTimestamp(), document.getType());
+    }
+
+    @Override
+    public List<Punch> findByEmployeIdAndTimestampBetweenOrderByTimestampAsc(String employeId, Range<Instant> timestamp) {
+        return read(() -> byEmploye.get(employeId).stream()
+            .map(this::get)
+            .filter(punch -> timestamp.contains(punch.getTimestamp(), Comparator.naturalOrder()))
+            .sorted(BY_TIMESTAMP)
+            .map(this::copy)
+            .toList());
+    }
+
+    @Override
+    public Map<Integer, String> bulkInsert(List<Punch> punches) {
+        return bulkInsertAll(punches);
+    }
+}
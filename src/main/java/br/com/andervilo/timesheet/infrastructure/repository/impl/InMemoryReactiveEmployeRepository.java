@@ -0,0 +1,47 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.util.Set;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+
+import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import br.com.andervilo.timesheet.domain.Employe;
+import br.com.andervilo.timesheet.infrastructure.repository.ReactiveEmployeRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveEmployeRepository} of the "memory" profile, over the same documents as
+ * {@link InMemoryEmployeRepository}; its reads never wait on I/O, so they run on the subscribing thread.
+ */
+@Repository
+@Profile("memory")
+@RequiredArgsConstructor
+public class InMemoryReactiveEmployeRepository implements ReactiveEmployeRepository {
+
+    private final InMemoryEmployeRepository employeRepository;
+
+    @Override
+    public Mono<Employe> findById(String id) {
+        return Mono.defer(() -> Mono.justOrEmpty(employeRepository.findById(id)));
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        return Mono.defer(() -> Mono.justOrEmpty(employeRepository.findVersionById(id)));
+    }
+
+    @Override
+    public Flux<Employe> findAll(Set<String> fields) {
+        return Flux.defer(() -> Flux.fromStream(employeRepository.streamAll()));
+    }
+
+    @Override
+    public Mono<Slice<Employe>> findWithFilters(EmployeFilterQuery filterQuery, Pageable pageable) {
+        return Mono.fromCallable(() -> employeRepository.findWithFilters(filterQuery, pageable));
+    }
+}
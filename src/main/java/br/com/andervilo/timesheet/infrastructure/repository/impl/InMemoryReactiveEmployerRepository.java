@@ -0,0 +1,47 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.util.Set;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+
+import br.com.andervilo.timesheet.application.query.EmployerFilterQuery;
+import br.com.andervilo.timesheet.domain.Employer;
+import br.com.andervilo.timesheet.infrastructure.repository.ReactiveEmployerRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveEmployerRepository} of the "memory" profile, over the same documents as
+ * {@link InMemoryEmployerRepository}; its reads never wait on I/O, so they run on the subscribing thread.
+ */
+@Repository
+@Profile("memory")
+@RequiredArgsConstructor
+public class InMemoryReactiveEmployerRepository implements ReactiveEmployerRepository {
+
+    private final InMemoryEmployerRepository employerRepository;
+
+    @Override
+    public Mono<Employer> findById(String id) {
+        return Mono.defer(() -> Mono.justOrEmpty(employerRepository.findById(id)));
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        return Mono.defer(() -> Mono.justOrEmpty(employerRepository.findVersionById(id)));
+    }
+
+    @Override
+    public Flux<Employer> findAll(Set<String> fields) {
+        return Flux.defer(() -> Flux.fromStream(employerRepository.streamAll()));
+    }
+
+    @Override
+    public Mono<Slice<Employer>> findWithFilters(EmployerFilterQuery filterQuery, Pageable pageable) {
+        return Mono.fromCallable(() -> employerRepository.findWithFilters(filterQuery, pageable));
+    }
+}
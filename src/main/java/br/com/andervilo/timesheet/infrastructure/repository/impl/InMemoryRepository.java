@@ -0,0 +1,719 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.ExampleMatcher.NullHandler;
+import org.springframework.data.domain.ExampleMatcher.PropertySpecifier;
+import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.query.FluentQuery;
+
+import br.com.andervilo.timesheet.application.query.BaseFilterQuery;
+import br.com.andervilo.timesheet.application.query.CountMode;
+import br.com.andervilo.timesheet.application.query.FilterSlice;
+import br.com.andervilo.timesheet.infrastructure.mongo.SearchCollation;
+
+/**
+ * Base of the repositories of the "memory" profile: the documents by id in a sorted map plus secondary
+ * {@link MemoryIndex}es, all behind one read-write lock. Documents are copied in and out, so no caller ever
+ * holds an indexed instance. Writes behave as on Mongo: an id is assigned on insert, @Version is checked and
+ * incremented on save, lastModified is set on every write. Query by example matches the documents with the
+ * same predicate Mongo applies to the example's criteria.
+ * <p>
+ * Strings sort by their {@link SearchCollation#fold}ed value in every match mode, as Mongo does only under the search
+ * collation; cursors are the same tokens the Mongo repositories hand out.
+ */
+abstract class InMemoryRepository<T> implements MongoRepository<T, String> {
+
+    private static final String ID_FIELD = "_id";
+
+    // Nulls first, as MongoDB sorts missing fields
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<Object> KEY_ORDER = Comparator.nullsFirst((Comparator) Comparator.naturalOrder());
+
+    // Writes and reads keyset cursor tokens as the Mongo repositories do, without a database
+    static final MappingMongoConverter CONVERTER = converter();
+
+    private final Class<T> entityClass;
+    private final NavigableMap<String, T> documents = new TreeMap<>();
+    private final List<MemoryIndex<?, T>> indexes = new ArrayList<>();
+    private final Map<String, Function<T, ?>> sortKeys = new HashMap<>();
+    private final Map<String, MemoryIndex<?, T>> sortIndexes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    InMemoryRepository(Class<T> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    abstract String idOf(T document);
+
+    abstract void setId(T document, String id);
+
+    abstract Long versionOf(T document);
+
+    /**
+     * Sets the version and last modification of a write; unversioned documents ignore it.
+     */
+    abstract void stamp(T document, Long version, Instant lastModified);
+
+    abstract T copy(T document);
+
+    /**
+     * Versioned documents are inserted by save() when their version is null and must match it otherwise;
+     * unversioned ones are upserted.
+     */
+    boolean versioned() {
+        return true;
+    }
+
+    /**
+     * Registers a secondary index, kept up to date on every write.
+     */
+    <K> MemoryIndex<K, T> index(MemoryIndex<K, T> index) {
+        indexes.add(index);
+        return index;
+    }
+
+    /**
+     * Field clients may sort by; the key is what is compared, null first.
+     */
+    void sortKey(String field, Function<T, ?> key) {
+        sortKeys.put(field, key);
+    }
+
+    /**
+     * Field sorted by the key of a sorted index; a page in that order is read off the index.
+     */
+    void sortKey(String field, MemoryIndex<?, T> index) {
+        sortKeys.put(field, index::keyOf);
+        sortIndexes.put(field, index);
+    }
+
+    // Reads and writes under the lock
+
+    <R> R read(Supplier<R> call) {
+        lock.readLock().lock();
+        try {
+            return call.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    <R> R write(Supplier<R> call) {
+        lock.writeLock().lock();
+        try {
+            return call.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The stored document, not a copy; only valid under the lock.
+     */
+    T get(String id) {
+        return documents.get(id);
+    }
+
+    /**
+     * Replaces the stored document, or adds it, keeping the indexes in step. Under the write lock.
+     */
+    void put(T document) {
+        String id = idOf(document);
+        T previous = documents.put(id, document);
+        if (previous != null) {
+            indexes.forEach(index -> index.remove(id, previous));
+        }
+        indexes.forEach(index -> index.add(id, document));
+    }
+
+    /**
+     * Fails with a DuplicateKeyException when the document would break a unique index; before any write, so a
+     * failed write changes nothing, not even the caller's version.
+     */
+    private void checkUnique(T document) {
+        indexes.forEach(index -> index.checkUnique(idOf(document), document));
+    }
+
+    /**
+     * Removes the document and its index entries; returns it, null when missing. Under the write lock.
+     */
+    T remove(String id) {
+        T removed = documents.remove(id);
+        if (removed != null) {
+            indexes.forEach(index -> index.remove(id, removed));
+        }
+        return removed;
+    }
+
+    static Instant now() {
+        // Mongo dates have millisecond precision
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    /**
+     * Inserts a copy of the document, assigning an id and the initial version; fails on an existing id.
+     */
+    private <S extends T> S insertOne(S entity) {
+        if (idOf(entity) == null) {
+            setId(entity, ObjectId.get().toHexString());
+        } else if (documents.containsKey(idOf(entity))) {
+            throw new DuplicateKeyException("Duplicate key _id: " + idOf(entity));
+        }
+        checkUnique(entity);
+        stamp(entity, versionOf(entity) != null ? versionOf(entity) : 0L, now());
+        put(copy(entity));
+        return entity;
+    }
+
+    private <S extends T> S saveOne(S entity) {
+        if (!versioned()) {
+            return upsertOne(entity);
+        }
+        Long version = versionOf(entity);
+        if (version == null) {
+            return insertOne(entity);
+        }
+        T existing = idOf(entity) != null ? documents.get(idOf(entity)) : null;
+        if (existing == null || !version.equals(versionOf(existing))) {
+            throw new OptimisticLockingFailureException("Cannot save " + entityClass.getSimpleName() + " " + idOf(entity)
+                + " with version " + version + ": missing or modified since");
+        }
+        checkUnique(entity);
+        stamp(entity, version + 1, now());
+        put(copy(entity));
+        return entity;
+    }
+
+    private <S extends T> S upsertOne(S entity) {
+        if (idOf(entity) == null) {
+            setId(entity, ObjectId.get().toHexString());
+        }
+        checkUnique(entity);
+        put(copy(entity));
+        return entity;
+    }
+
+    /**
+     * Applies {@code operation} to each element in turn, as an unordered bulk: failures are reported by
+     * position with their message, and the other elements are still written.
+     */
+    <E> Map<Integer, String> bulk(List<E> elements, Consumer<E> operation) {
+        return write(() -> {
+            Map<Integer, String> failures = new LinkedHashMap<>();
+            for (int i = 0; i < elements.size(); i++) {
+                try {
+                    operation.accept(elements.get(i));
+                } catch (RuntimeException e) {
+                    failures.put(i, e.getMessage());
+                }
+            }
+            return failures;
+        });
+    }
+
+    Map<Integer, String> bulkInsertAll(List<T> entities) {
+        return bulk(entities, this::insertOne);
+    }
+
+    /**
+     * Replaces the documents with the same id and the version the entities were read with, incrementing it; a
+     * missing or since modified document fails with a version conflict, as the Mongo bulk replace reports it.
+     */
+    Map<Integer, String> bulkReplaceAll(List<T> entities) {
+        return bulk(entities, entity -> {
+            T existing = documents.get(idOf(entity));
+            if (existing == null || !Objects.equals(versionOf(entity), versionOf(existing))) {
+                throw new OptimisticLockingFailureException(BulkWrites.VERSION_CONFLICT);
+            }
+            checkUnique(entity);
+            stamp(entity, versionOf(entity) == null ? 0L : versionOf(entity) + 1, now());
+            put(copy(entity));
+        });
+    }
+
+    Set<String> existingIds(Collection<String> ids) {
+        return read(() -> ids.stream().filter(documents::containsKey).collect(Collectors.toSet()));
+    }
+
+    Map<Integer, String> bulkDeleteAll(List<String> ids) {
+        return bulk(ids, this::remove);
+    }
+
+    Optional<Long> findVersion(String id) {
+        return read(() -> Optional.ofNullable(documents.get(id)).map(this::versionOf));
+    }
+
+    /**
+     * Copies of every document, in id order; the stream reads a list taken under the lock.
+     */
+    Stream<T> streamCopies() {
+        List<T> all = read(() -> new ArrayList<>(documents.values()));
+        return all.stream().map(this::copy);
+    }
+
+    /**
+     * Replaces everything with the given documents, e.g. from a snapshot.
+     */
+    void restore(Collection<T> restored) {
+        write(() -> {
+            documents.clear();
+            indexes.forEach(MemoryIndex::clear);
+            restored.forEach(document -> put(copy(document)));
+            return null;
+        });
+    }
+
+    /**
+     * One page of the documents matching {@code filter} (null for all), in the keyset order of {@code pageable}:
+     * offset paging, or a seek past the cursor of the query. {@code candidates} are the ids an index narrowed the
+     * filter down to, null for every document. Without candidates, a page sorted by id or by an indexed field is
+     * read off that index in order and the scan stops once the page is full; otherwise the page is the top of the
+     * matches past the cursor. The total is counted over the candidates as the count mode asks.
+     */
+    FilterSlice<T> page(BaseFilterQuery query, Pageable pageable, Predicate<T> filter, Supplier<Stream<String>> candidates) {
+        Sort sort = KeysetCursor.sortOf(pageable);
+        Comparator<T> order = comparator(sort);
+        T position = query.hasCursor() ? position(query.getAfter(), pageable) : null;
+        long skip = position == null ? pageable.getOffset() : 0;
+        int limit = pageable.getPageSize() + 1;
+        Predicate<T> matches = filter != null ? filter : document -> true;
+
+        return read(() -> {
+            Long total = switch (query.getCountMode() == null ? CountMode.EXACT : query.getCountMode()) {
+                case NONE -> null;
+                case ESTIMATED, EXACT -> filter == null
+                    ? (long) documents.size()
+                    : source(candidates).filter(matches).count();
+            };
+
+            Stream<String> ordered = candidates == null ? orderedScan(sort, position) : null;
+            List<T> fetched;
+            if (ordered != null) {
+                fetched = ordered.map(documents::get).filter(matches).skip(skip).limit(limit).map(this::copy).toList();
+            } else {
+                Stream<T> past = source(candidates).filter(matches)
+                    .filter(document -> position == null || order.compare(document, position) > 0);
+                fetched = smallest(past.iterator(), order, skip + limit).stream().skip(skip).map(this::copy).toList();
+            }
+            return KeysetCursor.slice(fetched, pageable, total, CONVERTER);
+        });
+    }
+
+    private Stream<T> source(Supplier<Stream<String>> candidates) {
+        // Candidates may come from outside the lock, e.g. the text index, and name documents deleted since
+        return candidates != null ? candidates.get().map(documents::get).filter(Objects::nonNull) : documents.values().stream();
+    }
+
+    /**
+     * Ids in the order of {@code sort}, from past {@code position} when given, when an index has that order;
+     * null otherwise.
+     */
+    private Stream<String> orderedScan(Sort sort, T position) {
+        List<Sort.Order> orders = sort.toList();
+        Sort.Order primary = orders.get(0);
+        boolean ascending = primary.isAscending();
+        if (isId(primary.getProperty()) && orders.size() == 1) {
+            NavigableMap<String, T> scan = position == null ? documents : documents.tailMap(idOf(position), false);
+            if (!ascending) {
+                scan = position == null ? documents.descendingMap() : documents.headMap(idOf(position), false).descendingMap();
+            }
+            return scan.keySet().stream();
+        }
+        MemoryIndex<?, T> index = sortIndexes.get(primary.getProperty());
+        if (index == null || orders.size() != 2 || !isId(orders.get(1).getProperty())) {
+            return null;
+        }
+        return position == null ? index.scan(ascending) : after(index, position, ascending);
+    }
+
+    private <K> Stream<String> after(MemoryIndex<K, T> index, T position, boolean ascending) {
+        return index.after(index.keyOf(position), idOf(position), ascending);
+    }
+
+    /**
+     * The {@code count} smallest elements in {@code order}, sorted; a bounded heap, not a sort of everything.
+     */
+    private static <T> List<T> smallest(Iterator<T> elements, Comparator<T> order, long count) {
+        PriorityQueue<T> largestFirst = new PriorityQueue<>(order.reversed());
+        while (elements.hasNext()) {
+            T element = elements.next();
+            if (largestFirst.size() < count) {
+                largestFirst.add(element);
+            } else if (order.compare(element, largestFirst.peek()) < 0) {
+                largestFirst.poll();
+                largestFirst.add(element);
+            }
+        }
+        List<T> sorted = new ArrayList<>(largestFirst);
+        sorted.sort(order);
+        return sorted;
+    }
+
+    /**
+     * Document at the cursor position, holding only the sort key and the id.
+     */
+    private T position(String after, Pageable pageable) {
+        return CONVERTER.read(entityClass, KeysetCursor.decode(after, pageable).position());
+    }
+
+    Comparator<T> comparator(Sort sort) {
+        Comparator<T> comparator = null;
+        for (Sort.Order order : sort) {
+            Function<T, ?> key = isId(order.getProperty())
+                ? this::idOf
+                : sortKeys.getOrDefault(order.getProperty(), document -> null);
+            Comparator<T> next = Comparator.comparing(key, KEY_ORDER);
+            next = order.isAscending() ? next : next.reversed();
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator != null ? comparator : Comparator.comparing(this::idOf);
+    }
+
+    private static boolean isId(String property) {
+        return ID_FIELD.equals(property) || "id".equals(property);
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    // MongoRepository
+
+    @Override
+    public <S extends T> S save(S entity) {
+        return write(() -> saveOne(entity));
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        return write(() -> StreamSupport.stream(entities.spliterator(), false).map(this::saveOne).toList());
+    }
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        return write(() -> insertOne(entity));
+    }
+
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        return write(() -> StreamSupport.stream(entities.spliterator(), false).map(this::insertOne).toList());
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return read(() -> Optional.ofNullable(documents.get(id)).map(this::copy));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return read(() -> documents.containsKey(id));
+    }
+
+    @Override
+    public List<T> findAll() {
+        return read(() -> documents.values().stream().map(this::copy).toList());
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        return read(() -> StreamSupport.stream(ids.spliterator(), false)
+            .distinct()
+            .map(documents::get)
+            .filter(document -> document != null)
+            .map(this::copy)
+            .toList());
+    }
+
+    @Override
+    public long count() {
+        return read(documents::size);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        write(() -> remove(id));
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(idOf(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        write(() -> {
+            ids.forEach(this::remove);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        write(() -> {
+            entities.forEach(entity -> remove(idOf(entity)));
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAll() {
+        restore(List.of());
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        Comparator<T> order = comparator(sort);
+        return read(() -> documents.values().stream().sorted(order).map(this::copy).toList());
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        Comparator<T> order = comparator(pageable.getSort());
+        return read(() -> {
+            Stream<T> sorted = documents.values().stream().sorted(order);
+            List<T> content = pageable.isPaged()
+                ? sorted.skip(pageable.getOffset()).limit(pageable.getPageSize()).map(this::copy).toList()
+                : sorted.map(this::copy).toList();
+            return new PageImpl<>(content, pageable, documents.size());
+        });
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        return findAll(example).stream().findFirst();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        return findAll(example, Sort.unsorted());
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        Predicate<T> matches = matcher(example);
+        Comparator<T> order = comparator(sort);
+        return read(() -> matching(example, matches).sorted(order).map(this::copy).map(example.getProbeType()::cast).toList());
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        List<S> all = findAll(example, pageable.getSort());
+        List<S> content = pageable.isPaged()
+            ? all.stream().skip(pageable.getOffset()).limit(pageable.getPageSize()).toList()
+            : all;
+        return new PageImpl<>(content, pageable, all.size());
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        Predicate<T> matches = matcher(example);
+        return read(() -> matching(example, matches).count());
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        Predicate<T> matches = matcher(example);
+        return read(() -> matching(example, matches).findAny().isPresent());
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new ExampleQuery<>(example, Sort.unsorted(), 0));
+    }
+
+    private Stream<T> matching(Example<?> example, Predicate<T> matches) {
+        return documents.values().stream().filter(example.getProbeType()::isInstance).filter(matches);
+    }
+
+    /**
+     * The example as a predicate over the documents, as Mongo matches it: every property of the probe that is
+     * set (or null too, with {@link NullHandler#INCLUDE}) and not ignored must match, or any of them with
+     * {@link ExampleMatcher#isAnyMatching()}; strings as the string matcher and case of their property say.
+     */
+    private Predicate<T> matcher(Example<?> example) {
+        ExampleMatcher matcher = example.getMatcher();
+        MongoPersistentEntity<?> entity = CONVERTER.getMappingContext().getRequiredPersistentEntity(example.getProbeType());
+        PersistentPropertyAccessor<?> probe = entity.getPropertyAccessor(example.getProbe());
+        List<Predicate<T>> conditions = new ArrayList<>();
+        for (MongoPersistentProperty property : entity) {
+            String path = property.getName();
+            if (matcher.isIgnoredPath(path)) {
+                continue;
+            }
+            PropertySpecifier specifier = matcher.getPropertySpecifiers().getForPath(path);
+            Optional<Object> value = Optional.ofNullable(probe.getProperty(property));
+            if (specifier != null) {
+                value = specifier.getPropertyValueTransformer().apply(value);
+            }
+            if (value.isEmpty() && matcher.getNullHandler() == NullHandler.IGNORE) {
+                continue;
+            }
+            StringMatcher stringMatcher = specifier != null && specifier.getStringMatcher() != null
+                ? specifier.getStringMatcher() : matcher.getDefaultStringMatcher();
+            boolean ignoreCase = specifier != null && specifier.getIgnoreCase() != null
+                ? specifier.getIgnoreCase() : matcher.isIgnoreCaseEnabled();
+            Object expected = value.orElse(null);
+            conditions.add(document -> matches(expected, entity.getPropertyAccessor(document).getProperty(property),
+                stringMatcher, ignoreCase));
+        }
+        if (conditions.isEmpty()) {
+            return document -> true;
+        }
+        return matcher.isAnyMatching()
+            ? document -> conditions.stream().anyMatch(condition -> condition.test(document))
+            : document -> conditions.stream().allMatch(condition -> condition.test(document));
+    }
+
+    private static boolean matches(Object expected, Object actual, StringMatcher stringMatcher, boolean ignoreCase) {
+        if (!(expected instanceof String pattern) || !(actual instanceof String value)) {
+            return Objects.equals(expected, actual);
+        }
+        if (stringMatcher == StringMatcher.REGEX) {
+            return Pattern.compile(pattern, ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0).matcher(value).find();
+        }
+        if (ignoreCase) {
+            pattern = pattern.toLowerCase(Locale.ROOT);
+            value = value.toLowerCase(Locale.ROOT);
+        }
+        return switch (stringMatcher) {
+            case STARTING -> value.startsWith(pattern);
+            case ENDING -> value.endsWith(pattern);
+            case CONTAINING -> value.contains(pattern);
+            default -> value.equals(pattern);
+        };
+    }
+
+    /**
+     * findBy() over the example; projections are hints only, so whole documents come back.
+     */
+    private final class ExampleQuery<S extends T> implements FluentQuery.FetchableFluentQuery<S> {
+
+        private final Example<S> example;
+        private final Sort sort;
+        private final int limit;
+
+        ExampleQuery(Example<S> example, Sort sort, int limit) {
+            this.example = example;
+            this.sort = sort;
+            this.limit = limit;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<S> sortBy(Sort sort) {
+            return new ExampleQuery<>(example, this.sort.and(sort), limit);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<S> limit(int limit) {
+            return new ExampleQuery<>(example, sort, limit);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> FluentQuery.FetchableFluentQuery<R> as(Class<R> resultType) {
+            if (!resultType.isAssignableFrom(example.getProbeType())) {
+                throw new UnsupportedOperationException("The in-memory " + entityClass.getSimpleName()
+                    + " repository does not project to " + resultType.getSimpleName());
+            }
+            return (FluentQuery.FetchableFluentQuery<R>) this;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<S> project(Collection<String> properties) {
+            return this;
+        }
+
+        @Override
+        public S oneValue() {
+            List<S> found = all().stream().limit(2).toList();
+            if (found.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1);
+            }
+            return found.isEmpty() ? null : found.get(0);
+        }
+
+        @Override
+        public S firstValue() {
+            return all().stream().findFirst().orElse(null);
+        }
+
+        @Override
+        public List<S> all() {
+            List<S> all = findAll(example, sort);
+            return limit > 0 ? all.stream().limit(limit).toList() : all;
+        }
+
+        @Override
+        public Page<S> page(Pageable pageable) {
+            return findAll(example, pageable.getSort().isSorted() ? pageable : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort));
+        }
+
+        @Override
+        public Stream<S> stream() {
+            return all().stream();
+        }
+
+        @Override
+        public long count() {
+            return InMemoryRepository.this.count(example);
+        }
+
+        @Override
+        public boolean exists() {
+            return InMemoryRepository.this.exists(example);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import br.com.andervilo.timesheet.config.MemoryStoreProperties;
+import br.com.andervilo.timesheet.domain.Employe;
+import br.com.andervilo.timesheet.domain.Employer;
+import br.com.andervilo.timesheet.domain.Punch;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persists the in-memory repositories to {@code timesheet.memory.snapshot} as JSON: loaded at startup when the file
+ * exists, rewritten every {@code timesheet.memory.snapshot-interval} and on shutdown. A snapshot is written next to
+ * the file and moved over it, so a crash mid-write keeps the previous one. Each repository is copied under its own
+ * lock, and writes after the last snapshot are lost if the process dies.
+ */
+@Slf4j
+@Component
+@Profile("memory")
+public class InMemorySnapshots {
+
+    record Snapshot(List<Employe> employes, List<Employer> employers, List<Punch> punches) {
+    }
+
+    private final InMemoryEmployeRepository employeRepository;
+    private final InMemoryEmployerRepository employerRepository;
+    private final InMemoryPunchRepository punchRepository;
+    private final Path file;
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+        .findAndAddModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+    private final ScheduledExecutorService writer;
+
+    public InMemorySnapshots(InMemoryEmployeRepository employeRepository, InMemoryEmployerRepository employerRepository,
+                             InMemoryPunchRepository punchRepository, MemoryStoreProperties properties) throws IOException {
+        this.employeRepository = employeRepository;
+        this.employerRepository = employerRepository;
+        this.punchRepository = punchRepository;
+        this.file = properties.snapshot();
+        if (file == null) {
+            this.writer = null;
+            return;
+        }
+
+        if (Files.exists(file)) {
+            load();
+        }
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "memory-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.snapshotInterval().toMillis();
+        writer.scheduleWithFixedDelay(this::saveQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    void load() throws IOException {
+        Snapshot snapshot = objectMapper.readValue(file.toFile(), Snapshot.class);
+        employeRepository.restore(snapshot.employes() != null ? snapshot.employes() : List.of());
+        employerRepository.restore(snapshot.employers() != null ? snapshot.employers() : List.of());
+        punchRepository.restore(snapshot.punches() != null ? snapshot.punches() : List.of());
+        log.info("Loaded snapshot {}: {} employes, {} employers, {} punches", file,
+            employeRepository.count(), employerRepository.count(), punchRepository.count());
+    }
+
+    void save() throws IOException {
+        Snapshot snapshot = new Snapshot(employeRepository.findAll(), employerRepository.findAll(), punchRepository.findAll());
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            objectMapper.writeValue(out, snapshot);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to write snapshot {}", file, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Snapshot writer did not stop in time; writing the final snapshot anyway");
+        }
+        saveQuietly();
+    }
+}
@@ -0,0 +1,152 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.CriteriaDefinition;
+import org.springframework.data.mongodb.core.query.Query;
+
+import br.com.andervilo.timesheet.application.query.FilterSlice;
+
+/**
+ * Search-after cursor: the sort key and {@code _id} of the last element of a page,
+ * encoded as base64url extended JSON so the stored BSON types (dates, ObjectIds) survive the round trip.
+ */
+final class KeysetCursor {
+
+    private static final String ID_FIELD = "_id";
+
+    private final String field;
+    private final Sort.Direction direction;
+    private final Object value;
+    private final Object id;
+
+    private KeysetCursor(String field, Sort.Direction direction, Object value, Object id) {
+        this.field = field;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Sort of the pageable with {@code _id} appended as tie-breaker, so that the
+     * (sort key, _id) pair is unique and the cursor position is unambiguous.
+     * A sort on {@code id} is spelled {@code _id}, the stored name, for pipelines that map no field names.
+     */
+    static Sort sortOf(Pageable pageable) {
+        Sort sort = Sort.by(pageable.getSort().stream()
+            .map(order -> isId(order.getProperty()) ? order.withProperty(ID_FIELD) : order)
+            .toList());
+        if (sort.stream().anyMatch(order -> isId(order.getProperty()))) {
+            return sort;
+        }
+        Sort.Direction direction = sort.stream().findFirst().map(Sort.Order::getDirection).orElse(Sort.Direction.ASC);
+        return sort.and(Sort.by(direction, ID_FIELD));
+    }
+
+    /**
+     * Page query over {@code criteria}: offset paging when {@code after} is empty,
+     * otherwise a range seek past the cursor with no skip at all.
+     * One element more than the page size is fetched to tell whether a next page exists.
+     */
+    static Query pageQuery(CriteriaDefinition criteria, String after, Pageable pageable) {
+        Query query = after == null || after.isEmpty()
+            ? new Query(criteria).skip(pageable.getOffset())
+            : new Query(QueryTemplate.and(criteria, decode(after, pageable).toCriteria()));
+        return query.limit(pageable.getPageSize() + 1).with(sortOf(pageable));
+    }
+
+    /**
+     * Trims the extra element fetched by {@link #pageQuery} and builds the slice with its next cursor.
+     */
+    static <T> FilterSlice<T> slice(List<T> fetched, Pageable pageable, Long total, MongoConverter converter) {
+        boolean hasNext = fetched.size() > pageable.getPageSize();
+        List<T> content = hasNext ? fetched.subList(0, pageable.getPageSize()) : fetched;
+        String nextCursor = hasNext ? next(content.get(content.size() - 1), pageable, converter) : null;
+        return new FilterSlice<>(content, pageable, hasNext, total, nextCursor);
+    }
+
+    static KeysetCursor decode(String token, Pageable pageable) {
+        Document document;
+        try {
+            document = Document.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+
+        Sort.Order primary = primaryOrder(pageable);
+        if (!primary.getProperty().equals(document.getString("f"))
+            || !primary.getDirection().name().equals(document.getString("d"))) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        return new KeysetCursor(primary.getProperty(), primary.getDirection(), document.get("v"), document.get("i"));
+    }
+
+    /**
+     * Token pointing past {@code element} in the sort of {@code pageable}.
+     */
+    static String next(Object element, Pageable pageable, MongoConverter converter) {
+        Document last = new Document();
+        converter.write(element, last);
+
+        Sort.Order primary = primaryOrder(pageable);
+        Document token = new Document("f", primary.getProperty())
+            .append("d", primary.getDirection().name())
+            .append("v", isId(primary.getProperty()) ? null : last.get(primary.getProperty()))
+            .append("i", last.get(ID_FIELD));
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(token.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The cursor position as a document holding the sort key and {@code _id}, in their stored BSON types;
+     * read into an entity, it compares against documents held in memory.
+     */
+    Document position() {
+        Document position = new Document(ID_FIELD, id);
+        if (!isId(field)) {
+            position.append(field, value);
+        }
+        return position;
+    }
+
+    /**
+     * Matches the documents strictly after the cursor position in (sort key, _id) order.
+     * Missing/null sort keys sort first ascending and last descending, as in MongoDB.
+     */
+    Criteria toCriteria() {
+        boolean asc = direction.isAscending();
+        Criteria idAfter = asc ? Criteria.where(ID_FIELD).gt(id) : Criteria.where(ID_FIELD).lt(id);
+
+        if (isId(field)) {
+            return idAfter;
+        }
+
+        Criteria sameKeyAfter = Criteria.where(field).is(value).and(ID_FIELD);
+        sameKeyAfter = asc ? sameKeyAfter.gt(id) : sameKeyAfter.lt(id);
+
+        if (value == null) {
+            return asc
+                ? new Criteria().orOperator(Criteria.where(field).ne(null), sameKeyAfter)
+                : sameKeyAfter;
+        }
+
+        return asc
+            ? new Criteria().orOperator(Criteria.where(field).gt(value), sameKeyAfter)
+            : new Criteria().orOperator(Criteria.where(field).lt(value), sameKeyAfter, Criteria.where(field).is(null));
+    }
+
+    private static Sort.Order primaryOrder(Pageable pageable) {
+        return pageable.getSort().stream().findFirst().orElse(Sort.Order.asc(ID_FIELD));
+    }
+
+    private static boolean isId(String property) {
+        return ID_FIELD.equals(property) || "id".equals(property);
+    }
+}
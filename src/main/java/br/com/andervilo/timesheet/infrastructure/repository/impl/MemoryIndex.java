@@ -0,0 +1,137 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.dao.DuplicateKeyException;
+
+/**
+ * Secondary index of an {@link InMemoryRepository}: the ids of the documents by key, each key's ids in order.
+ * A sorted index keeps its keys in order, null first as MongoDB sorts them, and serves ranges and ordered scans
+ * in (key, id) order; a hashed index serves exact lookups only and leaves documents without a key out, and a
+ * unique one also refuses a second document with the same key.
+ * Not thread-safe; the repository guards it with its lock.
+ */
+final class MemoryIndex<K, T> {
+
+    private final Function<T, K> key;
+    private final Map<K, NavigableSet<String>> entries;
+    private final NavigableMap<K, NavigableSet<String>> sorted;
+    // Field named in duplicate key errors; null when keys need not be unique
+    private final String unique;
+
+    private MemoryIndex(Function<T, K> key, Map<K, NavigableSet<String>> entries,
+                        NavigableMap<K, NavigableSet<String>> sorted, String unique) {
+        this.key = key;
+        this.entries = entries;
+        this.sorted = sorted;
+        this.unique = unique;
+    }
+
+    static <K extends Comparable<? super K>, T> MemoryIndex<K, T> sorted(Function<T, K> key) {
+        NavigableMap<K, NavigableSet<String>> entries = new TreeMap<>(Comparator.nullsFirst(Comparator.<K>naturalOrder()));
+        return new MemoryIndex<>(key, entries, entries, null);
+    }
+
+    static <K, T> MemoryIndex<K, T> hashed(Function<T, K> key) {
+        return new MemoryIndex<>(key, new HashMap<>(), null, null);
+    }
+
+    /**
+     * Hashed index behaving as a sparse unique Mongo index on {@code field}.
+     */
+    static <K, T> MemoryIndex<K, T> unique(String field, Function<T, K> key) {
+        return new MemoryIndex<>(key, new HashMap<>(), null, field);
+    }
+
+    K keyOf(T document) {
+        return key.apply(document);
+    }
+
+    /**
+     * Fails as Mongo would when a unique index already holds the key of the document under another id.
+     */
+    void checkUnique(String id, T document) {
+        if (unique == null) {
+            return;
+        }
+        K value = key.apply(document);
+        NavigableSet<String> ids = value != null ? entries.get(value) : null;
+        if (ids != null && !(ids.size() == 1 && ids.contains(id))) {
+            throw new DuplicateKeyException("Duplicate key " + unique + ": " + value);
+        }
+    }
+
+    void add(String id, T document) {
+        K value = key.apply(document);
+        if (value != null || sorted != null) {
+            entries.computeIfAbsent(value, k -> new TreeSet<>()).add(id);
+        }
+    }
+
+    void remove(String id, T document) {
+        K value = key.apply(document);
+        NavigableSet<String> ids = entries.get(value);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            entries.remove(value);
+        }
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    NavigableSet<String> get(K value) {
+        return entries.getOrDefault(value, Collections.emptyNavigableSet());
+    }
+
+    /**
+     * Ids with a key in [from, to], in (key, id) order; a null bound leaves that side open.
+     */
+    Stream<String> range(K from, K to) {
+        NavigableMap<K, NavigableSet<String>> range = sorted();
+        if (from != null) {
+            range = range.tailMap(from, true);
+        }
+        if (to != null) {
+            range = range.headMap(to, true);
+        }
+        return range.values().stream().flatMap(NavigableSet::stream);
+    }
+
+    /**
+     * Every id in (key, id) order, or in reverse order when not {@code ascending}.
+     */
+    Stream<String> scan(boolean ascending) {
+        NavigableMap<K, NavigableSet<String>> entries = ascending ? sorted() : sorted().descendingMap();
+        return entries.values().stream().flatMap(ids -> ascending ? ids.stream() : ids.descendingSet().stream());
+    }
+
+    /**
+     * Ids strictly after the position (value, id) in the scan order of {@link #scan}; the position need not exist.
+     */
+    Stream<String> after(K value, String id, boolean ascending) {
+        NavigableSet<String> same = get(value);
+        Stream<String> sameKey = ascending ? same.tailSet(id, false).stream() : same.headSet(id, false).descendingSet().stream();
+        NavigableMap<K, NavigableSet<String>> next = ascending
+            ? sorted().tailMap(value, false)
+            : sorted().headMap(value, false).descendingMap();
+        return Stream.concat(sameKey,
+            next.values().stream().flatMap(ids -> ascending ? ids.stream() : ids.descendingSet().stream()));
+    }
+
+    private NavigableMap<K, NavigableSet<String>> sorted() {
+        if (sorted == null) {
+            throw new UnsupportedOperationException("Hashed index cannot be scanned in order");
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Server-side projection for a sparse fieldset, so unrequested fields never leave Mongo.
+ */
+final class Projections {
+
+    private static final String ID_FIELD = "_id";
+    private static final String VERSION_FIELD = "version";
+
+    private Projections() {
+    }
+
+    /**
+     * Fields to fetch: the requested ones the entity exposes plus the sort keys, which the keyset cursor
+     * reads from the last element, and the version, which the page ETag hashes even when it is not written.
+     * {@code _id} is always returned. Empty when the whole document is needed;
+     * a fieldset naming only unknown fields fetches {@code _id} alone rather than the whole document.
+     */
+    static List<String> of(Set<String> requested, Set<String> exposed, Sort sort) {
+        if (requested == null || requested.isEmpty()) {
+            return List.of();
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        requested.stream().filter(exposed::contains).forEach(fields::add);
+        if (fields.isEmpty()) {
+            return List.of(ID_FIELD);
+        }
+        sort.forEach(order -> fields.add(order.getProperty()));
+        if (exposed.contains(VERSION_FIELD)) {
+            fields.add(VERSION_FIELD);
+        }
+        fields.removeIf(field -> "id".equals(field) || ID_FIELD.equals(field));
+        return fields.isEmpty() ? List.of(ID_FIELD) : List.copyOf(fields);
+    }
+
+    static Query include(Query query, List<String> fields) {
+        if (!fields.isEmpty()) {
+            query.fields().include(fields.toArray(String[]::new));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.CriteriaDefinition;
+
+import br.com.andervilo.timesheet.application.query.BaseFilterQuery;
+import br.com.andervilo.timesheet.application.query.MatchMode;
+
+/**
+ * Filter criteria compiled once per filter shape. Each slot is a filter that may or may not be set;
+ * the set slots and the match mode form the shape, and the compiled shape is the list of binders that
+ * write the parameter values into the criteria document. Building a query is then a cache lookup plus
+ * one put per set filter, with no Criteria tree in between.
+ * The cache is bounded by the number of shapes: 2^slots per match mode.
+ */
+final class QueryTemplate<Q extends BaseFilterQuery> {
+
+    private record Slot<Q>(Predicate<Q> present, Function<MatchMode, BiConsumer<Q, Document>> binder) {
+    }
+
+    private final List<Slot<Q>> slots = new ArrayList<>();
+    private final Map<Long, List<BiConsumer<Q, Document>>> compiled = new ConcurrentHashMap<>();
+
+    /**
+     * Text filter matched as the query's {@link MatchMode} says; unset when null or empty.
+     */
+    QueryTemplate<Q> text(String field, Function<Q, String> value) {
+        return slot(query -> isSet(value.apply(query)), mode -> TextCriteria.binder(field, value, mode));
+    }
+
+    /**
+     * Exact match on a string; unset when null or empty.
+     */
+    QueryTemplate<Q> equal(String field, Function<Q, String> value) {
+        return slot(query -> isSet(value.apply(query)), mode -> (query, document) -> document.put(field, value.apply(query)));
+    }
+
+    /**
+     * Any other filter: when {@code present} holds, {@code binder} writes it into the criteria document.
+     */
+    QueryTemplate<Q> slot(Predicate<Q> present, BiConsumer<Q, Document> binder) {
+        return slot(present, mode -> binder);
+    }
+
+    private QueryTemplate<Q> slot(Predicate<Q> present, Function<MatchMode, BiConsumer<Q, Document>> binder) {
+        if (slots.size() >= Long.SIZE - 8) {
+            throw new IllegalStateException("Too many filter slots");
+        }
+        slots.add(new Slot<>(present, binder));
+        return this;
+    }
+
+    /**
+     * Criteria of {@code query}: the compiled shape bound to its values.
+     */
+    CriteriaDefinition bind(Q query) {
+        MatchMode mode = query.getMatchMode();
+        long shape = 0;
+        for (int i = 0; i < slots.size(); i++) {
+            if (slots.get(i).present().test(query)) {
+                shape |= 1L << i;
+            }
+        }
+        long key = shape << 8 | mode.ordinal();
+
+        // get first: computeIfAbsent would allocate its capturing lambda on every bind
+        List<BiConsumer<Q, Document>> binders = compiled.get(key);
+        if (binders == null) {
+            binders = compiled.computeIfAbsent(key, k -> compile(k >>> 8, mode));
+        }
+        Document document = new Document();
+        for (BiConsumer<Q, Document> binder : binders) {
+            binder.accept(query, document);
+        }
+        return new Bound(document);
+    }
+
+    int compiledShapes() {
+        return compiled.size();
+    }
+
+    private List<BiConsumer<Q, Document>> compile(long shape, MatchMode mode) {
+        List<BiConsumer<Q, Document>> binders = new ArrayList<>();
+        for (int i = 0; i < slots.size(); i++) {
+            if ((shape & 1L << i) != 0) {
+                binders.add(slots.get(i).binder().apply(mode));
+            }
+        }
+        return List.copyOf(binders);
+    }
+
+    /**
+     * Conjunction of two criteria documents, e.g. a filter and a keyset seek on the same field.
+     */
+    static CriteriaDefinition and(CriteriaDefinition left, CriteriaDefinition right) {
+        return new Bound(new Document("$and", List.of(left.getCriteriaObject(), right.getCriteriaObject())));
+    }
+
+    private static boolean isSet(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    /**
+     * Criteria given as a ready document; mapped to the entity by the template like any other query.
+     */
+    private record Bound(Document document) implements CriteriaDefinition {
+        @Override
+        public Document getCriteriaObject() {
+            return document;
+        }
+
+        @Override
+        public String getKey() {
+            return null;
+        }
+    }
+}
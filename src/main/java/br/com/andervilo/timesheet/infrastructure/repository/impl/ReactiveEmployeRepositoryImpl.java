@@ -0,0 +1,100 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import br.com.andervilo.timesheet.domain.Employe;
+import br.com.andervilo.timesheet.infrastructure.metrics.FilterMetrics;
+import br.com.andervilo.timesheet.infrastructure.mongo.ReadRouting;
+import br.com.andervilo.timesheet.infrastructure.mongo.ReadRouting.Operation;
+import br.com.andervilo.timesheet.infrastructure.repository.ReactiveEmployeRepository;
+import br.com.andervilo.timesheet.infrastructure.search.EmployeTextIndex;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Builds the same queries and aggregations as {@link CustomEmployeRepositoryImpl}, executed on the reactive driver.
+ */
+@Repository
+@Profile("!memory")
+@RequiredArgsConstructor
+public class ReactiveEmployeRepositoryImpl implements ReactiveEmployeRepository {
+
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final FilterMetrics filterMetrics;
+    private final EmployeTextIndex employeTextIndex;
+    private final ReadRouting readRouting;
+
+    @Override
+    public Mono<Employe> findById(String id) {
+        return reactiveMongoTemplate.findById(id, Employe.class);
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("version");
+        return reactiveMongoTemplate.findOne(query, Employe.class).mapNotNull(Employe::getVersion);
+    }
+
+    @Override
+    public Flux<Employe> findAll(Set<String> fields) {
+        Query query = new Query().cursorBatchSize(STREAM_BATCH_SIZE);
+        Projections.include(query, Projections.of(fields, CustomEmployeRepositoryImpl.FIELDS, Sort.unsorted()));
+        return reactiveMongoTemplate.find(readRouting.route(query, Operation.EXPORT), Employe.class);
+    }
+
+    @Override
+    public Mono<Slice<Employe>> findWithFilters(EmployeFilterQuery filterQuery, Pageable pageable) {
+        String shape = CustomEmployeRepositoryImpl.shapeOf(filterQuery);
+        Set<String> candidates = employeTextIndex.candidates(filterQuery);
+
+        if (CustomEmployeRepositoryImpl.isBirthMonthFilter(filterQuery)) {
+            return filterMetrics.record("employe", "findWithBirthMonthFilter", shape, filterQuery,
+                CustomEmployeRepositoryImpl.FIELDS, findWithBirthMonthFilter(filterQuery, pageable, candidates));
+        }
+
+        return filterMetrics.record("employe", "findWithFilters", shape, filterQuery,
+            CustomEmployeRepositoryImpl.FIELDS, findWithQuery(filterQuery, pageable, candidates));
+    }
+
+    private Mono<Slice<Employe>> findWithQuery(EmployeFilterQuery filterQuery, Pageable pageable, Set<String> candidates) {
+        // Count and page run concurrently; an uncounted total completes empty
+        Mono<Optional<Long>> total = Counts.count(reactiveMongoTemplate,
+                readRouting.route(CustomEmployeRepositoryImpl.countQuery(filterQuery, candidates), Operation.COUNT),
+                Employe.class, filterQuery.getCountMode())
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty());
+        Mono<List<Employe>> employees = reactiveMongoTemplate
+            .find(readRouting.route(CustomEmployeRepositoryImpl.pageQuery(filterQuery, pageable, candidates), Operation.FILTER), Employe.class)
+            .collectList();
+
+        return Mono.zip(employees, total)
+            .map(page -> KeysetCursor.slice(page.getT1(), pageable, page.getT2().orElse(null),
+                reactiveMongoTemplate.getConverter()));
+    }
+
+    private Mono<Slice<Employe>> findWithBirthMonthFilter(EmployeFilterQuery filterQuery, Pageable pageable, Set<String> candidates) {
+        return reactiveMongoTemplate
+            .aggregate(CustomEmployeRepositoryImpl.birthMonthAggregation(filterQuery, pageable, candidates,
+                readRouting.of(Operation.FILTER)), Document.class)
+            .next()
+            .map(result -> CustomEmployeRepositoryImpl.birthMonthSlice(result, filterQuery, pageable,
+                reactiveMongoTemplate.getConverter()));
+    }
+}
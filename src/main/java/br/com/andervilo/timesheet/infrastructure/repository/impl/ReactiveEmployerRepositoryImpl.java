@@ -0,0 +1,80 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import br.com.andervilo.timesheet.application.query.EmployerFilterQuery;
+import br.com.andervilo.timesheet.domain.Employer;
+import br.com.andervilo.timesheet.infrastructure.metrics.FilterMetrics;
+import br.com.andervilo.timesheet.infrastructure.mongo.ReadRouting;
+import br.com.andervilo.timesheet.infrastructure.mongo.ReadRouting.Operation;
+import br.com.andervilo.timesheet.infrastructure.repository.ReactiveEmployerRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Builds the same queries as {@link CustomEmployerRepositoryImpl}, executed on the reactive driver.
+ */
+@Repository
+@Profile("!memory")
+@RequiredArgsConstructor
+public class ReactiveEmployerRepositoryImpl implements ReactiveEmployerRepository {
+
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final FilterMetrics filterMetrics;
+    private final ReadRouting readRouting;
+
+    @Override
+    public Mono<Employer> findById(String id) {
+        return reactiveMongoTemplate.findById(id, Employer.class);
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("version");
+        return reactiveMongoTemplate.findOne(query, Employer.class).mapNotNull(Employer::getVersion);
+    }
+
+    @Override
+    public Flux<Employer> findAll(Set<String> fields) {
+        Query query = new Query().cursorBatchSize(STREAM_BATCH_SIZE);
+        Projections.include(query, Projections.of(fields, CustomEmployerRepositoryImpl.FIELDS, Sort.unsorted()));
+        return reactiveMongoTemplate.find(readRouting.route(query, Operation.EXPORT), Employer.class);
+    }
+
+    @Override
+    public Mono<Slice<Employer>> findWithFilters(EmployerFilterQuery filterQuery, Pageable pageable) {
+        return filterMetrics.record("employer", "findWithFilters", CustomEmployerRepositoryImpl.shapeOf(filterQuery),
+            filterQuery, CustomEmployerRepositoryImpl.FIELDS, findWithQuery(filterQuery, pageable));
+    }
+
+    private Mono<Slice<Employer>> findWithQuery(EmployerFilterQuery filterQuery, Pageable pageable) {
+        // Count and page run concurrently; an uncounted total completes empty
+        Mono<Optional<Long>> total = Counts.count(reactiveMongoTemplate,
+                readRouting.route(CustomEmployerRepositoryImpl.countQuery(filterQuery), Operation.COUNT),
+                Employer.class, filterQuery.getCountMode())
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty());
+        Mono<List<Employer>> employers = reactiveMongoTemplate
+            .find(readRouting.route(CustomEmployerRepositoryImpl.pageQuery(filterQuery, pageable), Operation.FILTER), Employer.class)
+            .collectList();
+
+        return Mono.zip(employers, total)
+            .map(page -> KeysetCursor.slice(page.getT1(), pageable, page.getT2().orElse(null),
+                reactiveMongoTemplate.getConverter()));
+    }
+}
@@ -0,0 +1,236 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.bson.BsonRegularExpression;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Query;
+
+import br.com.andervilo.timesheet.application.query.MatchMode;
+import br.com.andervilo.timesheet.infrastructure.mongo.SearchCollation;
+
+/**
+ * Text filter criteria shared by the custom repositories.
+ */
+final class TextCriteria {
+
+    // Sorts after every other character under ICU collations, closing the prefix range
+    private static final String PREFIX_UPPER_BOUND = "\uFFFF";
+
+    private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    // Regex options of the text filters, as Pattern.CASE_INSENSITIVE is sent
+    private static final String CASE_INSENSITIVE = "i";
+
+    // Limits on client-supplied patterns in REGEX mode
+    static final int REGEX_MAX_LENGTH = 64;
+    static final Duration REGEX_MAX_TIME = Duration.ofSeconds(2);
+
+    private TextCriteria() {
+    }
+
+    /**
+     * Writes the match of {@code field} in {@code mode} into a criteria document. CONTAINS quotes the input,
+     * so it is always matched literally; only REGEX interprets it, after {@link #checkRegex}. Regexes go out as
+     * BSON regular expressions, which the driver sends as they are: no Pattern is compiled per query.
+     */
+    static <Q> BiConsumer<Q, Document> binder(String field, Function<Q, String> value, MatchMode mode) {
+        return switch (mode) {
+            case PREFIX -> (query, document) -> {
+                String prefix = value.apply(query);
+                document.put(field, new Document("$gte", prefix).append("$lt", prefix + PREFIX_UPPER_BOUND));
+            };
+            case REGEX -> (query, document) ->
+                document.put(field, new BsonRegularExpression(checkRegex(value.apply(query)), CASE_INSENSITIVE));
+            case CONTAINS -> (query, document) ->
+                document.put(field, new BsonRegularExpression(literal(value.apply(query)), CASE_INSENSITIVE));
+        };
+    }
+
+    /**
+     * In-memory counterpart of {@link #binder}: the same match in {@code mode}, tested on a field value in hand.
+     * PREFIX compares {@link SearchCollation#fold}ed values, as the search collation does; the patterns are Unicode
+     * case-insensitive, as on the server.
+     */
+    static Predicate<String> matcher(String value, MatchMode mode) {
+        return switch (mode) {
+            case PREFIX -> {
+                String prefix = SearchCollation.fold(value);
+                yield field -> field != null && SearchCollation.fold(field).startsWith(prefix);
+            }
+            case REGEX -> {
+                Pattern pattern = Pattern.compile(checkRegex(value), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+                yield field -> field != null && pattern.matcher(field).find();
+            }
+            case CONTAINS -> {
+                Pattern pattern = Pattern.compile(literal(value), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+                yield field -> field != null && pattern.matcher(field).find();
+            }
+        };
+    }
+
+    /**
+     * Escapes every regex metacharacter. Not {@link Pattern#quote}: \Q...\E is read differently by some
+     * regex engines, a backslash per character is read the same by all.
+     */
+    static String literal(String value) {
+        int first = 0;
+        while (first < value.length() && REGEX_METACHARACTERS.indexOf(value.charAt(first)) < 0) {
+            first++;
+        }
+        if (first == value.length()) {
+            return value;
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        escaped.append(value, 0, first);
+        for (int i = first; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (REGEX_METACHARACTERS.indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Rejects patterns that are too long, invalid, or built from constructs prone to catastrophic backtracking.
+     */
+    static String checkRegex(String regex) {
+        if (regex.length() > REGEX_MAX_LENGTH) {
+            throw new IllegalArgumentException("Regex longer than " + REGEX_MAX_LENGTH + " characters");
+        }
+        if (!isSafeRegex(regex)) {
+            throw new IllegalArgumentException(
+                "Regex uses backreferences, lookarounds, or a repeated group holding a quantifier or alternation: " + regex);
+        }
+        try {
+            Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid regex: " + e.getDescription(), e);
+        }
+        return regex;
+    }
+
+    /**
+     * Walks the pattern with a stack of the open groups and rejects the constructs that make a pattern backtrack
+     * exponentially or that Mongo cannot bound: backreferences, lookarounds, and a repeated group holding a
+     * quantifier or an alternation at any depth, e.g. (a+)+, ((a+))+, (a|aa)+ or (a|a)*b. A group that is only
+     * optional, e.g. (a|b)?, does not repeat and is accepted. Character classes and escapes are skipped, so
+     * their metacharacters are literal.
+     */
+    private static boolean isSafeRegex(String regex) {
+        Deque<Group> groups = new ArrayDeque<>();
+        groups.push(new Group());
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            switch (c) {
+                case '\\' -> {
+                    char escaped = i + 1 < regex.length() ? regex.charAt(i + 1) : 0;
+                    if ((escaped >= '1' && escaped <= '9') || escaped == 'k') {
+                        return false;
+                    }
+                    i++;
+                }
+                case '[' -> i = classEnd(regex, i);
+                case '(' -> {
+                    if (regex.startsWith("(?=", i) || regex.startsWith("(?!", i)
+                        || regex.startsWith("(?<=", i) || regex.startsWith("(?<!", i)) {
+                        return false;
+                    }
+                    groups.push(new Group());
+                    if (regex.startsWith("(?", i)) {
+                        // Skip the group's flags or name, up to ':' or '>'; a flags-only group closes on ')'
+                        int end = i + 2;
+                        while (end < regex.length() && ":>)".indexOf(regex.charAt(end)) < 0) {
+                            end++;
+                        }
+                        i = end < regex.length() && regex.charAt(end) == ')' ? end - 1 : end;
+                    }
+                }
+                case ')' -> {
+                    if (groups.size() == 1) {
+                        // Unbalanced; left for Pattern.compile to report
+                        continue;
+                    }
+                    Group group = groups.pop();
+                    char next = i + 1 < regex.length() ? regex.charAt(i + 1) : 0;
+                    boolean repeated = next == '*' || next == '+' || next == '{';
+                    if (repeated && (group.quantified || group.alternation)) {
+                        return false;
+                    }
+                    Group parent = groups.peek();
+                    parent.quantified |= group.quantified;
+                    parent.alternation |= group.alternation;
+                }
+                case '|' -> groups.peek().alternation = true;
+                case '*', '+', '?' -> groups.peek().quantified = true;
+                case '{' -> {
+                    if (i + 1 < regex.length() && Character.isDigit(regex.charAt(i + 1))) {
+                        groups.peek().quantified = true;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Index of the ']' closing the character class opened at {@code start}, nested classes included.
+     */
+    private static int classEnd(String regex, int start) {
+        int depth = 0;
+        for (int i = start; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return i;
+            }
+        }
+        return regex.length();
+    }
+
+    /**
+     * What an open group holds so far: a quantifier, an alternation, directly or in a nested group.
+     */
+    private static final class Group {
+        boolean quantified;
+        boolean alternation;
+    }
+
+    /**
+     * Prefix ranges are only case/accent-insensitive, and only hit the collated indexes, under the search collation;
+     * regex queries are cut off server-side after {@link #REGEX_MAX_TIME}.
+     */
+    static Query withMatchOptions(Query query, MatchMode mode) {
+        return switch (mode) {
+            case PREFIX -> query.collation(SearchCollation.CASE_AND_ACCENT_INSENSITIVE);
+            case REGEX -> query.maxTime(REGEX_MAX_TIME);
+            case CONTAINS -> query;
+        };
+    }
+
+    /**
+     * Aggregation counterpart of {@link #withMatchOptions(Query, MatchMode)}, as a builder to add other options to.
+     */
+    static AggregationOptions.Builder aggregationOptions(MatchMode mode) {
+        return switch (mode) {
+            case PREFIX -> AggregationOptions.builder().collation(SearchCollation.CASE_AND_ACCENT_INSENSITIVE);
+            case REGEX -> AggregationOptions.builder().maxTime(REGEX_MAX_TIME);
+            case CONTAINS -> AggregationOptions.builder();
+        };
+    }
+}
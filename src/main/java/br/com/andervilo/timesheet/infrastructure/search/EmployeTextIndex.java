@@ -0,0 +1,174 @@
+package br.com.andervilo.timesheet.infrastructure.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import br.com.andervilo.timesheet.application.query.MatchMode;
+import br.com.andervilo.timesheet.config.TextIndexProperties;
+import br.com.andervilo.timesheet.domain.Employe;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process trigram index over employee name and email. A CONTAINS filter on either is an unanchored regex
+ * that no Mongo index serves; the repositories narrow it to the ids returned by {@link #candidates} instead, and
+ * keep the regex to check each candidate. Text is folded as by the search collation before it is split, so the
+ * candidates are a superset of what the regex matches.
+ * <p>
+ * Built from the repository once the application is up and rebuilt every {@code timesheet.text-index.rebuild-interval}
+ * on its own thread, the previous build serving filters meanwhile; {@code EmployeService} keeps it current in
+ * between. Writes made by other instances, or straight to the collection, show up only after the next rebuild,
+ * and contains filters miss those documents until then; so the index is off unless {@code timesheet.text-index.enabled}
+ * is set, for a deployment where this instance makes every write. Until the first build completes there are no
+ * candidates and filters scan as before.
+ */
+@Slf4j
+@Component
+public class EmployeTextIndex {
+
+    public static final String DOCUMENTS = "timesheet.text-index.documents";
+
+    private static final int NAME = 0;
+    private static final int EMAIL = 1;
+
+    private final TextIndexProperties properties;
+    private final ScheduledExecutorService builder;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Null until the first build completes
+    private TrigramPostings postings;
+    // Writes made while a rebuild reads the repository, replayed onto the new postings; null otherwise
+    private List<Consumer<TrigramPostings>> pending;
+
+    public EmployeTextIndex(TextIndexProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.builder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "text-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder(DOCUMENTS, this, EmployeTextIndex::size).register(meterRegistry);
+    }
+
+    /**
+     * Schedules the first build at once and a rebuild every interval after the previous one ends.
+     */
+    public void start(Supplier<Stream<Employe>> employes) {
+        if (!properties.enabled()) {
+            return;
+        }
+        long interval = properties.rebuildInterval().toMillis();
+        builder.scheduleWithFixedDelay(() -> rebuild(employes), 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads every employee into new postings and swaps them in; on failure the previous postings stay.
+     */
+    void rebuild(Supplier<Stream<Employe>> employes) {
+        locked(() -> pending = new ArrayList<>());
+        TrigramPostings rebuilt = new TrigramPostings(2);
+        try (Stream<Employe> stream = employes.get()) {
+            stream.forEach(employe -> rebuilt.put(employe.getId(), employe.getVersion(), employe.getName(), employe.getEmail()));
+        } catch (RuntimeException e) {
+            locked(() -> pending = null);
+            log.error("Text index rebuild failed; the previous index stays in use", e);
+            return;
+        }
+        locked(() -> {
+            pending.forEach(write -> write.accept(rebuilt));
+            pending = null;
+            postings = rebuilt;
+        });
+        log.info("Text index built over {} employees", rebuilt.size());
+    }
+
+    public void put(Employe employe) {
+        String id = employe.getId();
+        Long version = employe.getVersion();
+        String name = employe.getName();
+        String email = employe.getEmail();
+        write(postings -> postings.put(id, version, name, email));
+    }
+
+    public void remove(String id) {
+        write(postings -> postings.remove(id));
+    }
+
+    /**
+     * Ids the CONTAINS name and email filters of the query can match; null when the index cannot narrow them:
+     * another match mode, no text filter of at least three characters, more than
+     * {@code timesheet.text-index.max-candidates} candidates, or no build yet.
+     */
+    public Set<String> candidates(EmployeFilterQuery filterQuery) {
+        if (filterQuery.getMatchMode() != MatchMode.CONTAINS) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (postings == null) {
+                return null;
+            }
+            Set<String> names = candidates(NAME, filterQuery.getName());
+            Set<String> emails = candidates(EMAIL, filterQuery.getEmail());
+            if (names == null || emails == null) {
+                return names != null ? names : emails;
+            }
+            names.retainAll(emails);
+            return names;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<String> candidates(int field, String text) {
+        return text != null && !text.isEmpty() ? postings.candidates(field, text, properties.maxCandidates()) : null;
+    }
+
+    private void write(Consumer<TrigramPostings> write) {
+        locked(() -> {
+            if (postings != null) {
+                write.accept(postings);
+            }
+            if (pending != null) {
+                pending.add(write);
+            }
+        });
+    }
+
+    private void locked(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private double size() {
+        lock.readLock().lock();
+        try {
+            return postings != null ? postings.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        builder.shutdownNow();
+    }
+}
@@ -0,0 +1,209 @@
+package br.com.andervilo.timesheet.infrastructure.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import br.com.andervilo.timesheet.infrastructure.mongo.SearchCollation;
+
+/**
+ * Postings of {@link EmployeTextIndex}: per field, the ordinals of the documents whose folded text contains each
+ * trigram, ascending. Every put hands out a new ordinal, so postings stay sorted by appending; the ordinal a
+ * document had before is tombstoned and dropped by the next compaction, once tombstones outnumber live documents.
+ * Not thread-safe; the index guards it with its lock.
+ */
+final class TrigramPostings {
+
+    static final int GRAM = 3;
+
+    private static final int MIN_COMPACTION = 1024;
+
+    private final List<Map<Long, Postings>> fields = new ArrayList<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private String[] ids = new String[MIN_COMPACTION];
+    private long[] versions = new long[MIN_COMPACTION];
+    private int next;
+    private int dead;
+
+    TrigramPostings(int fieldCount) {
+        for (int i = 0; i < fieldCount; i++) {
+            fields.add(new HashMap<>());
+        }
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    /**
+     * Indexes the texts of the document, one per field, in place of what it had; ignored when an older version
+     * than the indexed one, which happens when a write is replayed onto a rebuild that already read it.
+     */
+    void put(String id, Long version, String... texts) {
+        Integer existing = ordinals.get(id);
+        if (existing != null) {
+            if (version != null && versions[existing] > version) {
+                return;
+            }
+            kill(existing);
+        }
+        if (next == ids.length) {
+            ids = Arrays.copyOf(ids, next * 2);
+            versions = Arrays.copyOf(versions, next * 2);
+        }
+        int ordinal = next++;
+        ids[ordinal] = id;
+        versions[ordinal] = version != null ? version : Long.MIN_VALUE;
+        ordinals.put(id, ordinal);
+        for (int field = 0; field < texts.length; field++) {
+            if (texts[field] != null) {
+                for (long gram : grams(SearchCollation.fold(texts[field]))) {
+                    fields.get(field).computeIfAbsent(gram, g -> new Postings()).add(ordinal);
+                }
+            }
+        }
+        compactIfSparse();
+    }
+
+    void remove(String id) {
+        Integer existing = ordinals.remove(id);
+        if (existing != null) {
+            kill(existing);
+            compactIfSparse();
+        }
+    }
+
+    /**
+     * Ids of the documents whose field contains every trigram of the folded text: a superset of those containing
+     * the text itself. Null when the text is shorter than a trigram or more than {@code limit} documents qualify.
+     */
+    Set<String> candidates(int field, String text, int limit) {
+        Set<Long> grams = grams(SearchCollation.fold(text));
+        if (grams.isEmpty()) {
+            return null;
+        }
+        List<Postings> lists = new ArrayList<>(grams.size());
+        for (long gram : grams) {
+            Postings postings = fields.get(field).get(gram);
+            if (postings == null) {
+                return new HashSet<>();
+            }
+            lists.add(postings);
+        }
+        // Smallest first: every other list is only probed for what survived so far
+        lists.sort(Comparator.comparingInt(postings -> postings.size));
+        int[] matches = Arrays.copyOf(lists.get(0).values, lists.get(0).size);
+        int count = matches.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = lists.get(i).retain(matches, count);
+        }
+
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            String id = this.ids[matches[i]];
+            if (id != null && ids.add(id) && ids.size() > limit) {
+                return null;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Distinct trigrams of a folded text, three UTF-16 units packed into a long.
+     */
+    static Set<Long> grams(String folded) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= folded.length(); i++) {
+            grams.add(((long) folded.charAt(i) << 32) | ((long) folded.charAt(i + 1) << 16) | folded.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private void kill(int ordinal) {
+        ids[ordinal] = null;
+        dead++;
+    }
+
+    private void compactIfSparse() {
+        if (dead < MIN_COMPACTION || dead < ordinals.size()) {
+            return;
+        }
+        // Renumber the live ordinals densely, keeping their order so every list stays sorted
+        int[] renumbered = new int[next];
+        int live = 0;
+        for (int ordinal = 0; ordinal < next; ordinal++) {
+            if (ids[ordinal] == null) {
+                renumbered[ordinal] = -1;
+                continue;
+            }
+            renumbered[ordinal] = live;
+            ids[live] = ids[ordinal];
+            versions[live] = versions[ordinal];
+            ordinals.put(ids[live], live);
+            live++;
+        }
+        Arrays.fill(ids, live, next, null);
+        for (Map<Long, Postings> field : fields) {
+            field.values().removeIf(postings -> postings.renumber(renumbered) == 0);
+        }
+        next = live;
+        dead = 0;
+    }
+
+    /**
+     * Ascending ordinals of one trigram.
+     */
+    private static final class Postings {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            // A trigram repeated within the text is posted once
+            if (size > 0 && values[size - 1] == ordinal) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = ordinal;
+        }
+
+        /**
+         * Keeps the first {@code count} of the ascending {@code ordinals} that are also posted here, moving
+         * them to the front; returns how many were kept.
+         */
+        int retain(int[] ordinals, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count && from < size; i++) {
+                int found = Arrays.binarySearch(values, from, size, ordinals[i]);
+                if (found >= 0) {
+                    ordinals[kept++] = ordinals[i];
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+            return kept;
+        }
+
+        int renumber(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = renumbered[values[i]];
+                if (ordinal >= 0) {
+                    values[kept++] = ordinal;
+                }
+            }
+            size = kept;
+            return size;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.andervilo.timesheet.ui.rest;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Turns the exceptions services throw for input they refuse into client errors, as problem details;
+ * anything else stays a 500.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail badRequest(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    /**
+     * A write taking a unique key another document holds, such as a CNPJ already registered.
+     */
+    @ExceptionHandler(DuplicateKeyException.class)
+    public ProblemDetail conflict(DuplicateKeyException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, "Another document already has this unique key (e.g. the CNPJ)");
+    }
+
+    /**
+     * A write other documents depend on, such as deleting an employer employees are still linked to.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ProblemDetail conflict(DataIntegrityViolationException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.andervilo.timesheet.ui.rest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import br.com.andervilo.timesheet.application.dto.PageDTO;
+import br.com.andervilo.timesheet.application.dto.VersionedDTO;
+
+/**
+ * ETags derived from document versions, so they can be computed and compared without rendering the body.
+ * They are strong validators: the same version is served as JSON, CBOR or Smile, so the representation the
+ * Accept header negotiates is part of the opaque value ("3" for JSON, "3-cbor", "3-smile"), and responses
+ * carrying them vary by Accept.
+ */
+final class ETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    /**
+     * What the message converters produce, in the order they are registered.
+     */
+    private static final List<MediaType> PRODUCIBLE = List.of(
+        MediaType.APPLICATION_JSON, new MediaType("application", "*+json"), MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    private ETags() {
+    }
+
+    /**
+     * ETag of a single resource as negotiated by {@code accept}; {@code null} for documents not versioned yet.
+     */
+    static String of(Long version, String accept) {
+        return version != null ? quote(version + representation(accept)) : null;
+    }
+
+    /**
+     * ETag of a page as negotiated by {@code accept}: changes when any element is written, enters or leaves
+     * the page, or the totals, the cursor or the requested fields change.
+     */
+    static String of(PageDTO<? extends VersionedDTO> page, Set<String> fields, String accept) {
+        StringBuilder key = new StringBuilder()
+            .append(fields != null ? new TreeSet<>(fields) : "*").append('|')
+            .append(page.totalElements()).append('|')
+            .append(page.currentPage()).append('|')
+            .append(page.pageSize()).append('|')
+            .append(page.nextCursor());
+        for (VersionedDTO element : page.content()) {
+            key.append('|').append(element.id()).append(':').append(element.version());
+        }
+        return quote(DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + representation(accept));
+    }
+
+    /**
+     * 200 with the validators of the resource: its version as ETag and its Last-Modified date.
+     */
+    static <T extends VersionedDTO> ResponseEntity<T> ok(T body, String accept) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        if (body.version() != null) {
+            response.eTag(of(body.version(), accept));
+        }
+        if (body.lastModified() != null) {
+            response.lastModified(body.lastModified());
+        }
+        return response.body(body);
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+    }
+
+    /**
+     * If-None-Match comparison: weak, as HTTP requires for it, so "W/" prefixes are ignored, and "*" matches
+     * any current representation.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = opaque(candidate.trim());
+            if (tag.equals("*") || tag.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Suffix of the representation content negotiation picks for {@code accept}: the producible type of the
+     * highest quality, ties going to the earlier accepted type and then to the earlier converter, as Spring MVC
+     * chooses. JSON when Accept is absent, unparseable or matches nothing, which is answered 406 anyway.
+     */
+    private static String representation(String accept) {
+        List<MediaType> acceptable;
+        try {
+            acceptable = accept == null || accept.isBlank() ? List.of(MediaType.ALL) : MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        List<MediaType> candidates = new ArrayList<>();
+        for (MediaType acceptType : acceptable) {
+            for (MediaType produceType : PRODUCIBLE) {
+                if (acceptType.getQualityValue() > 0 && acceptType.isCompatibleWith(produceType)) {
+                    candidates.add(produceType.copyQualityValue(acceptType));
+                }
+            }
+        }
+        return candidates.stream()
+            .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+            .findFirst()
+            .map(ETags::suffix)
+            .orElse("");
+    }
+
+    private static String suffix(MediaType type) {
+        if (MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(type)) {
+            return "-cbor";
+        }
+        return APPLICATION_SMILE.equalsTypeAndSubtype(type) ? "-smile" : "";
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -1,18 +1,32 @@
 package br.com.andervilo.timesheet.ui.rest;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import br.com.andervilo.timesheet.application.EmployeService;
+import br.com.andervilo.timesheet.application.command.EmployeBulkCommand;
 import br.com.andervilo.timesheet.application.command.EmployeCreateCommand;
 import br.com.andervilo.timesheet.application.command.EmployeUpdateCommand;
+import br.com.andervilo.timesheet.application.dto.BulkResultDTO;
 import br.com.andervilo.timesheet.application.dto.EmployeDTO;
+import br.com.andervilo.timesheet.application.dto.EmploymentDTO;
 import br.com.andervilo.timesheet.application.dto.PageDTO;
 import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
 import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -24,6 +38,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class EmployeController {
 
     private final EmployeService employeService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Create a new employee", description = "Creates a new employee with the provided information")
     @ApiResponses(value = {
@@ -35,6 +50,17 @@ public class EmployeController {
         return ResponseEntity.ok(employeService.create(command));
     }
 
+    @Operation(summary = "Bulk create, update and delete employees", description = "Applies lists of create, update and delete " +
+            "commands as unordered batched writes and reports the outcome of each item")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Bulk processed; see the status of each item"),
+        @ApiResponse(responseCode = "400", description = "Invalid input data")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResultDTO> bulk(@RequestBody EmployeBulkCommand command) {
+        return ResponseEntity.ok(employeService.bulk(command));
+    }
+
     @Operation(summary = "Update an existing employee", description = "Updates the information of an existing employee")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Employee updated successfully"),
@@ -60,33 +86,148 @@ public class EmployeController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Get employee by ID", description = "Retrieves an employee's information by their ID")
+    @Operation(summary = "Link an employee to an employer", description = "Sets the employer of the employee, " +
+            "replacing any previous one, and moves the headcount from the previous employer to the new one")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Employee linked"),
+        @ApiResponse(responseCode = "404", description = "Employee or employer not found")
+    })
+    @PutMapping("/{id}/employer/{employerId}")
+    public ResponseEntity<Void> assignEmployer(
+        @Parameter(description = "ID of the employee") @PathVariable String id,
+        @Parameter(description = "ID of the employer") @PathVariable String employerId) {
+        employeService.assignEmployer(id, employerId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Unlink an employee from its employer", description = "Clears the employer of the employee " +
+            "and decrements that employer's headcount")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Employee unlinked"),
+        @ApiResponse(responseCode = "404", description = "Employee not found")
+    })
+    @DeleteMapping("/{id}/employer")
+    public ResponseEntity<Void> unassignEmployer(
+        @Parameter(description = "ID of the employee") @PathVariable String id) {
+        employeService.assignEmployer(id, null);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Get employee by ID", description = "Retrieves an employee's information by their ID. " +
+            "The response carries the document version as ETag; send it back in If-None-Match to get a 304 " +
+            "when the employee is unchanged, answered from the version alone")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Employee found"),
+        @ApiResponse(responseCode = "304", description = "Employee not modified since the given ETag"),
         @ApiResponse(responseCode = "404", description = "Employee not found")
     })
     @GetMapping("/{id}")
     public ResponseEntity<EmployeDTO> findById(
-        @Parameter(description = "ID of the employee to retrieve") @PathVariable String id) {
-        return ResponseEntity.ok(employeService.findById(id));
+        @Parameter(description = "ID of the employee to retrieve") @PathVariable String id,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String current = employeService.findVersion(id).map(version -> ETags.of(version, accept)).orElse(null);
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ETags.notModified(current);
+            }
+        }
+        return ETags.ok(employeService.findById(id), accept);
     }
 
     @Operation(summary = "Get all employees", description = "Retrieves a list of all employees")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "List of employees retrieved successfully")
+        @ApiResponse(responseCode = "200", description = "List of employees retrieved successfully",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = EmployeDTO.class))))
     })
     @GetMapping
-    public ResponseEntity<List<EmployeDTO>> findAll() {
-        return ResponseEntity.ok(employeService.findAll());
+    public ResponseEntity<MappingJacksonValue> findAll(
+        @Parameter(description = "Comma-separated fields to return, e.g. id,name; every field when omitted")
+        @RequestParam(required = false) Set<String> fields) {
+        return ResponseEntity.ok(SparseResponses.of(employeService.findAll(fields), fields));
+    }
+
+    @Operation(summary = "Get upcoming birthdays", description = "Employees whose birthday falls in the given number " +
+            "of days starting at 'from' (today by default), soonest first. Windows may cross a month or the end of " +
+            "the year; 366 days covers the whole year.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Employees with upcoming birthdays retrieved successfully",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = EmployeDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "days outside 1-366 or limit not positive")
+    })
+    @GetMapping("/birthdays/upcoming")
+    public ResponseEntity<List<EmployeDTO>> upcomingBirthdays(
+        @Parameter(description = "First day of the window, ISO date; today when omitted")
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @Parameter(description = "Length of the window in days, 1-366") @RequestParam(defaultValue = "30") int days,
+        @Parameter(description = "Maximum number of employees returned") @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(employeService.findUpcomingBirthdays(from, days, limit));
+    }
+
+    @Operation(summary = "Stream all employees as NDJSON", description = "Streams every employee from a database cursor, " +
+            "one JSON document per line, without loading the collection in memory")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream of employees started")
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllNdjson() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(StreamingResponses.ndjson(employeService::streamAll, objectMapper));
+    }
+
+    @Operation(summary = "Stream all employees as a JSON array", description = "Same payload as the list endpoint, " +
+            "written element by element as a chunked JSON array")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream of employees started")
+    })
+    @GetMapping(params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(StreamingResponses.jsonArray(employeService::streamAll, objectMapper));
     }
 
     @Operation(summary = "Filter employees", description = "Retrieves a paginated list of employees based on filter criteria. " +
-            "You can filter by name, email, birth date range, or birth month (1-12 for January-December).")
+            "You can filter by name, email, birth date range, or birth month (1-12 for January-December). " +
+            "For deep scrolling, pass the nextCursor of the previous page as 'after' instead of a page number. " +
+            "Text filters match literally by default; set matchMode to PREFIX for indexed, case- and accent-insensitive " +
+            "'starts with' matching, or to REGEX for a time-limited pattern match (no backreferences, lookarounds, or " +
+            "repeated groups holding a quantifier or alternation). " +
+            "countMode EXACT (default), ESTIMATED or NONE controls the cost of the total; with NONE totals are null. " +
+            "The response ETag changes when any element of the page is written; echo it in If-None-Match to get a 304. " +
+            "List fields (e.g. [\"id\", \"name\"]) to fetch and return only those properties of each element.")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Filtered list of employees retrieved successfully")
+        @ApiResponse(responseCode = "200", description = "Filtered list of employees retrieved successfully",
+            content = @Content(schema = @Schema(implementation = PageDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Page unchanged since the ETag given in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Refused REGEX pattern, or a cursor not issued for this sort")
     })
     @PostMapping("/filter")
-    public ResponseEntity<PageDTO<EmployeDTO>> filter(@RequestBody EmployeFilterQuery filterQuery) {
-        return ResponseEntity.ok(employeService.findWithFilters(filterQuery));
+    public ResponseEntity<MappingJacksonValue> filter(
+        @RequestBody EmployeFilterQuery filterQuery,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PageDTO<EmployeDTO> page = employeService.findWithFilters(filterQuery);
+        String etag = ETags.of(page, filterQuery.getFields(), accept);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(SparseResponses.of(page, filterQuery.getFields()));
+    }
+
+    @Operation(summary = "Filter employees with their employers", description = "Same filter as /filter, with the " +
+            "employer of each employee embedded. The employers of a page are fetched in one query. " +
+            "Fields apply to both the employee and the employer of each element.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Filtered list of employees with employers retrieved successfully",
+            content = @Content(schema = @Schema(implementation = PageDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Refused REGEX pattern, or a cursor not issued for this sort")
+    })
+    @PostMapping("/filter/with-employer")
+    public ResponseEntity<MappingJacksonValue> filterWithEmployer(@RequestBody EmployeFilterQuery filterQuery) {
+        Set<String> fields = filterQuery.getFields();
+        PageDTO<EmploymentDTO> page = employeService.findWithEmployers(filterQuery);
+        return ResponseEntity.ok(SparseResponses.of(page, fields));
     }
-} 
\ No newline at end of file
+}
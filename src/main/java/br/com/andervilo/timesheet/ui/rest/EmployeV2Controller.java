@@ -0,0 +1,107 @@
+package br.com.andervilo.timesheet.ui.rest;
+
+import java.util.Set;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.*;
+
+import br.com.andervilo.timesheet.application.ReactiveEmployeService;
+import br.com.andervilo.timesheet.application.dto.EmployeDTO;
+import br.com.andervilo.timesheet.application.dto.PageDTO;
+import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import lombok.RequiredArgsConstructor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read endpoints of {@link EmployeController} on the reactive Mongo driver. The request thread is released
+ * while Mongo works, and streamed results are written as the client reads them.
+ */
+@RestController
+@RequestMapping("/api/v2/employees")
+@RequiredArgsConstructor
+@Tag(name = "Employee Reads (reactive)", description = "Non-blocking read APIs for employees")
+public class EmployeV2Controller {
+
+    private final ReactiveEmployeService reactiveEmployeService;
+
+    @Operation(summary = "Get employee by ID", description = "Same as /api/employees/{id}, including ETag and If-None-Match handling")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Employee found"),
+        @ApiResponse(responseCode = "304", description = "Employee not modified since the given ETag"),
+        @ApiResponse(responseCode = "404", description = "Employee not found")
+    })
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<EmployeDTO>> findById(
+        @Parameter(description = "ID of the employee to retrieve") @PathVariable String id,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Mono<ResponseEntity<EmployeDTO>> found = Mono.defer(() -> reactiveEmployeService.findById(id).map(employe -> ETags.ok(employe, accept)));
+        if (ifNoneMatch == null) {
+            return found;
+        }
+        return reactiveEmployeService.findVersion(id)
+            .map(version -> ETags.of(version, accept))
+            .filter(current -> ETags.matches(ifNoneMatch, current))
+            .map(ETags::<EmployeDTO>notModified)
+            .switchIfEmpty(found);
+    }
+
+    @Operation(summary = "Get all employees", description = "Same as /api/employees; the list is collected before it is written")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "List of employees retrieved successfully",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = EmployeDTO.class))))
+    })
+    @GetMapping
+    public Mono<MappingJacksonValue> findAll(
+        @Parameter(description = "Comma-separated fields to return, e.g. id,name; every field when omitted")
+        @RequestParam(required = false) Set<String> fields) {
+        return reactiveEmployeService.findAll(fields)
+            .collectList()
+            .map(list -> SparseResponses.of(list, fields));
+    }
+
+    @Operation(summary = "Stream all employees as NDJSON", description = "One JSON document per line, pulled from the " +
+            "cursor only as fast as the client reads, so slow readers hold neither threads nor memory")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream of employees started")
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MappingJacksonValue> streamAll(
+        @Parameter(description = "Comma-separated fields to return, e.g. id,name; every field when omitted")
+        @RequestParam(required = false) Set<String> fields) {
+        StreamingResponses.markStreamed();
+        return reactiveEmployeService.findAll(fields).map(element -> SparseResponses.of(element, fields));
+    }
+
+    @Operation(summary = "Filter employees", description = "Same request, response and ETag handling as /api/employees/filter")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Filtered list of employees retrieved successfully",
+            content = @Content(schema = @Schema(implementation = PageDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Page unchanged since the ETag given in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Refused REGEX pattern, or a cursor not issued for this sort")
+    })
+    @PostMapping("/filter")
+    public Mono<ResponseEntity<MappingJacksonValue>> filter(
+        @RequestBody EmployeFilterQuery filterQuery,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return reactiveEmployeService.findWithFilters(filterQuery).map(page -> {
+            String etag = ETags.of(page, filterQuery.getFields(), accept);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ETags.<MappingJacksonValue>notModified(etag);
+            }
+            return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(SparseResponses.of(page, filterQuery.getFields()));
+        });
+    }
+}
@@ -1,18 +1,28 @@
 package br.com.andervilo.timesheet.ui.rest;
 
-import java.util.List;
+import java.util.Set;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import br.com.andervilo.timesheet.application.EmployerService;
+import br.com.andervilo.timesheet.application.command.EmployerBulkCommand;
 import br.com.andervilo.timesheet.application.command.EmployerCreateCommand;
 import br.com.andervilo.timesheet.application.command.EmployerUpdateCommand;
+import br.com.andervilo.timesheet.application.dto.BulkResultDTO;
 import br.com.andervilo.timesheet.application.dto.EmployerDTO;
 import br.com.andervilo.timesheet.application.dto.PageDTO;
 import br.com.andervilo.timesheet.application.query.EmployerFilterQuery;
 import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -24,22 +34,37 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class EmployerController {
 
     private final EmployerService employerService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Create a new employer", description = "Creates a new employer with the provided information")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Employer created successfully"),
-        @ApiResponse(responseCode = "400", description = "Invalid input data")
+        @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "409", description = "Another employer already has this CNPJ")
     })
     @PostMapping
     public ResponseEntity<EmployerDTO> create(@RequestBody EmployerCreateCommand command) {
         return ResponseEntity.ok(employerService.create(command));
     }
 
+    @Operation(summary = "Bulk create, update and delete employers", description = "Applies lists of create, update and delete " +
+            "commands as unordered batched writes and reports the outcome of each item. Deleting an employer employees " +
+            "are still linked to fails for that item")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Bulk processed; see the status of each item"),
+        @ApiResponse(responseCode = "400", description = "Invalid input data")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResultDTO> bulk(@RequestBody EmployerBulkCommand command) {
+        return ResponseEntity.ok(employerService.bulk(command));
+    }
+
     @Operation(summary = "Update an existing employer", description = "Updates the information of an existing employer")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Employer updated successfully"),
         @ApiResponse(responseCode = "404", description = "Employer not found"),
-        @ApiResponse(responseCode = "400", description = "Invalid input data")
+        @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "409", description = "Another employer already has this CNPJ")
     })
     @PutMapping("/{id}")
     public ResponseEntity<EmployerDTO> update(
@@ -48,10 +73,12 @@ public class EmployerController {
         return ResponseEntity.ok(employerService.update(id, command));
     }
 
-    @Operation(summary = "Delete an employer", description = "Deletes an employer by their ID")
+    @Operation(summary = "Delete an employer", description = "Deletes an employer by their ID. " +
+            "Refused while employees are linked to it; unlink or move them first")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Employer deleted successfully"),
-        @ApiResponse(responseCode = "404", description = "Employer not found")
+        @ApiResponse(responseCode = "404", description = "Employer not found"),
+        @ApiResponse(responseCode = "409", description = "Employees are still linked to the employer")
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(
@@ -60,32 +87,105 @@ public class EmployerController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Get employer by ID", description = "Retrieves an employer's information by their ID")
+    @Operation(summary = "Get employer by ID", description = "Retrieves an employer's information by their ID. " +
+            "The response carries the document version as ETag; send it back in If-None-Match to get a 304 " +
+            "when the employer is unchanged, answered from the version alone")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Employer found"),
+        @ApiResponse(responseCode = "304", description = "Employer not modified since the given ETag"),
         @ApiResponse(responseCode = "404", description = "Employer not found")
     })
     @GetMapping("/{id}")
     public ResponseEntity<EmployerDTO> findById(
-        @Parameter(description = "ID of the employer to retrieve") @PathVariable String id) {
-        return ResponseEntity.ok(employerService.findById(id));
+        @Parameter(description = "ID of the employer to retrieve") @PathVariable String id,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String current = employerService.findVersion(id).map(version -> ETags.of(version, accept)).orElse(null);
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ETags.notModified(current);
+            }
+        }
+        return ETags.ok(employerService.findById(id), accept);
+    }
+
+    @Operation(summary = "Get employer by CNPJ", description = "Retrieves an employer by its CNPJ, with or without " +
+            "punctuation (e.g. 12.345.678/0001-90 or 12345678000190), with a point lookup on the unique index of its digits")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Employer found"),
+        @ApiResponse(responseCode = "400", description = "Not a 14-digit CNPJ"),
+        @ApiResponse(responseCode = "404", description = "Employer not found")
+    })
+    @GetMapping("/by-cnpj/{*cnpj}")
+    public ResponseEntity<EmployerDTO> findByCnpj(
+        @Parameter(description = "CNPJ of the employer; the slash of the formatted CNPJ may stay in the path")
+        @PathVariable String cnpj,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return ETags.ok(employerService.findByCnpj(cnpj), accept);
     }
 
     @Operation(summary = "Get all employers", description = "Retrieves a list of all employers")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "List of employers retrieved successfully")
+        @ApiResponse(responseCode = "200", description = "List of employers retrieved successfully",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = EmployerDTO.class))))
     })
     @GetMapping
-    public ResponseEntity<List<EmployerDTO>> findAll() {
-        return ResponseEntity.ok(employerService.findAll());
+    public ResponseEntity<MappingJacksonValue> findAll(
+        @Parameter(description = "Comma-separated fields to return, e.g. id,name; every field when omitted")
+        @RequestParam(required = false) Set<String> fields) {
+        return ResponseEntity.ok(SparseResponses.of(employerService.findAll(fields), fields));
+    }
+
+    @Operation(summary = "Stream all employers as NDJSON", description = "Streams every employer from a database cursor, " +
+            "one JSON document per line, without loading the collection in memory")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream of employers started")
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllNdjson() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(StreamingResponses.ndjson(employerService::streamAll, objectMapper));
+    }
+
+    @Operation(summary = "Stream all employers as a JSON array", description = "Same payload as the list endpoint, " +
+            "written element by element as a chunked JSON array")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream of employers started")
+    })
+    @GetMapping(params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(StreamingResponses.jsonArray(employerService::streamAll, objectMapper));
     }
 
-    @Operation(summary = "Filter employers", description = "Retrieves a paginated list of employers based on filter criteria")
+    @Operation(summary = "Filter employers", description = "Retrieves a paginated list of employers based on filter criteria. " +
+            "For deep scrolling, pass the nextCursor of the previous page as 'after' instead of a page number. " +
+            "Text filters match literally by default; set matchMode to PREFIX for indexed, case- and accent-insensitive " +
+            "'starts with' matching, or to REGEX for a time-limited pattern match (no backreferences, lookarounds, or " +
+            "repeated groups holding a quantifier or alternation). " +
+            "Outside REGEX mode, a full CNPJ or phone number (area code included) matches exactly on its digits, " +
+            "whatever punctuation either side was typed with. " +
+            "countMode EXACT (default), ESTIMATED or NONE controls the cost of the total; with NONE totals are null. " +
+            "The response ETag changes when any element of the page is written; echo it in If-None-Match to get a 304. " +
+            "List fields (e.g. [\"id\", \"name\"]) to fetch and return only those properties of each element.")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Filtered list of employers retrieved successfully")
+        @ApiResponse(responseCode = "200", description = "Filtered list of employers retrieved successfully",
+            content = @Content(schema = @Schema(implementation = PageDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Page unchanged since the ETag given in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Refused REGEX pattern, or a cursor not issued for this sort")
     })
     @PostMapping("/filter")
-    public ResponseEntity<PageDTO<EmployerDTO>> filter(@RequestBody EmployerFilterQuery filterQuery) {
-        return ResponseEntity.ok(employerService.findWithFilters(filterQuery));
+    public ResponseEntity<MappingJacksonValue> filter(
+        @RequestBody EmployerFilterQuery filterQuery,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PageDTO<EmployerDTO> page = employerService.findWithFilters(filterQuery);
+        String etag = ETags.of(page, filterQuery.getFields(), accept);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(SparseResponses.of(page, filterQuery.getFields()));
     }
 }
\ No newline at end of file
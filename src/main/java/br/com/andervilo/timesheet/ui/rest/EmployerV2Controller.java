@@ -0,0 +1,107 @@
+package br.com.andervilo.timesheet.ui.rest;
+
+import java.util.Set;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.*;
+
+import br.com.andervilo.timesheet.application.ReactiveEmployerService;
+import br.com.andervilo.timesheet.application.dto.EmployerDTO;
+import br.com.andervilo.timesheet.application.dto.PageDTO;
+import br.com.andervilo.timesheet.application.query.EmployerFilterQuery;
+import lombok.RequiredArgsConstructor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read endpoints of {@link EmployerController} on the reactive Mongo driver. The request thread is released
+ * while Mongo works, and streamed results are written as the client reads them.
+ */
+@RestController
+@RequestMapping("/api/v2/employers")
+@RequiredArgsConstructor
+@Tag(name = "Employer Reads (reactive)", description = "Non-blocking read APIs for employers")
+public class EmployerV2Controller {
+
+    private final ReactiveEmployerService reactiveEmployerService;
+
+    @Operation(summary = "Get employer by ID", description = "Same as /api/employers/{id}, including ETag and If-None-Match handling")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Employer found"),
+        @ApiResponse(responseCode = "304", description = "Employer not modified since the given ETag"),
+        @ApiResponse(responseCode = "404", description = "Employer not found")
+    })
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<EmployerDTO>> findById(
+        @Parameter(description = "ID of the employer to retrieve") @PathVariable String id,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Mono<ResponseEntity<EmployerDTO>> found = Mono.defer(() -> reactiveEmployerService.findById(id).map(employer -> ETags.ok(employer, accept)));
+        if (ifNoneMatch == null) {
+            return found;
+        }
+        return reactiveEmployerService.findVersion(id)
+            .map(version -> ETags.of(version, accept))
+            .filter(current -> ETags.matches(ifNoneMatch, current))
+            .map(ETags::<EmployerDTO>notModified)
+            .switchIfEmpty(found);
+    }
+
+    @Operation(summary = "Get all employers", description = "Same as /api/employers; the list is collected before it is written")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "List of employers retrieved successfully",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = EmployerDTO.class))))
+    })
+    @GetMapping
+    public Mono<MappingJacksonValue> findAll(
+        @Parameter(description = "Comma-separated fields to return, e.g. id,name; every field when omitted")
+        @RequestParam(required = false) Set<String> fields) {
+        return reactiveEmployerService.findAll(fields)
+            .collectList()
+            .map(list -> SparseResponses.of(list, fields));
+    }
+
+    @Operation(summary = "Stream all employers as NDJSON", description = "One JSON document per line, pulled from the " +
+            "cursor only as fast as the client reads, so slow readers hold neither threads nor memory")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream of employers started")
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MappingJacksonValue> streamAll(
+        @Parameter(description = "Comma-separated fields to return, e.g. id,name; every field when omitted")
+        @RequestParam(required = false) Set<String> fields) {
+        StreamingResponses.markStreamed();
+        return reactiveEmployerService.findAll(fields).map(element -> SparseResponses.of(element, fields));
+    }
+
+    @Operation(summary = "Filter employers", description = "Same request, response and ETag handling as /api/employers/filter")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Filtered list of employers retrieved successfully",
+            content = @Content(schema = @Schema(implementation = PageDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Page unchanged since the ETag given in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Refused REGEX pattern, or a cursor not issued for this sort")
+    })
+    @PostMapping("/filter")
+    public Mono<ResponseEntity<MappingJacksonValue>> filter(
+        @RequestBody EmployerFilterQuery filterQuery,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return reactiveEmployerService.findWithFilters(filterQuery).map(page -> {
+            String etag = ETags.of(page, filterQuery.getFields(), accept);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ETags.<MappingJacksonValue>notModified(etag);
+            }
+            return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(SparseResponses.of(page, filterQuery.getFields()));
+        });
+    }
+}
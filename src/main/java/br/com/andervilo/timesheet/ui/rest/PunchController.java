@@ -0,0 +1,66 @@
+package br.com.andervilo.timesheet.ui.rest;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import br.com.andervilo.timesheet.application.PunchService;
+import br.com.andervilo.timesheet.application.command.PunchCommand;
+import br.com.andervilo.timesheet.application.dto.PunchDTO;
+import br.com.andervilo.timesheet.application.dto.PunchReceiptDTO;
+import lombok.RequiredArgsConstructor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/punches")
+@RequiredArgsConstructor
+@Tag(name = "Time Tracking", description = "APIs for recording clock-ins and clock-outs")
+public class PunchController {
+
+    // Seconds for a client to wait before resending rejected punches; about a few flush intervals
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final PunchService punchService;
+
+    @Operation(summary = "Record punches", description = "Queues one or more clock-ins/clock-outs for a batched write. " +
+            "Punches without a timestamp are stamped on arrival. They are readable within a flush interval. " +
+            "When the write buffer is full the remaining punches are rejected with 503; resend only those.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "All punches queued"),
+        @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "503", description = "Buffer full or shutting down; the last 'rejected' punches were not queued")
+    })
+    @PostMapping
+    public ResponseEntity<PunchReceiptDTO> record(@RequestBody List<PunchCommand> commands) {
+        PunchReceiptDTO receipt = punchService.record(commands);
+        if (receipt.rejected() > 0) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(receipt);
+        }
+        return ResponseEntity.accepted().body(receipt);
+    }
+
+    @Operation(summary = "Get punches of an employee", description = "Retrieves the punches of an employee in a time range, " +
+            "oldest first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Punches retrieved successfully")
+    })
+    @GetMapping
+    public ResponseEntity<List<PunchDTO>> findByEmploye(
+        @Parameter(description = "ID of the employee") @RequestParam String employeId,
+        @Parameter(description = "Start of the range, inclusive (ISO-8601 instant)")
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+        @Parameter(description = "End of the range, exclusive (ISO-8601 instant)")
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return ResponseEntity.ok(punchService.findByEmploye(employeId, from, to));
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.andervilo.timesheet.ui.rest;
+
+import java.util.Set;
+
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import br.com.andervilo.timesheet.application.dto.SparseFields;
+
+/**
+ * Wraps a response body so the message converter writes only the requested DTO fields.
+ */
+final class SparseResponses {
+
+    private SparseResponses() {
+    }
+
+    static MappingJacksonValue of(Object body, Set<String> fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(SparseFields.provider(fields));
+        return value;
+    }
+}
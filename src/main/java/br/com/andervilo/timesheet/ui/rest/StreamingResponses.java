@@ -0,0 +1,73 @@
+package br.com.andervilo.timesheet.ui.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.andervilo.timesheet.infrastructure.limit.ConcurrencyLimitFilter;
+
+/**
+ * Writes a cursor-backed stream element by element, so the response never holds more than one
+ * flush window of documents. The stream is opened inside the body, on the async thread that writes it.
+ */
+final class StreamingResponses {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private StreamingResponses() {
+    }
+
+    static <T> StreamingResponseBody ndjson(Supplier<Stream<T>> source, ObjectMapper objectMapper) {
+        markStreamed();
+        return out -> write(source, objectMapper, out, false);
+    }
+
+    static <T> StreamingResponseBody jsonArray(Supplier<Stream<T>> source, ObjectMapper objectMapper) {
+        markStreamed();
+        return out -> write(source, objectMapper, out, true);
+    }
+
+    /**
+     * Flags the current request as a stream, whose duration follows the size of the result and the pace of the
+     * client rather than the service, so the concurrency limiter leaves it out of its latency samples.
+     */
+    static void markStreamed() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ConcurrencyLimitFilter.STREAMED, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static <T> void write(Supplier<Stream<T>> source, ObjectMapper objectMapper, OutputStream out, boolean array)
+        throws IOException {
+        try (Stream<T> stream = source.get();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            if (array) {
+                generator.writeStartArray();
+            } else {
+                generator.setRootValueSeparator(null);
+            }
+            int written = 0;
+            for (var iterator = stream.iterator(); iterator.hasNext(); ) {
+                generator.writeObject(iterator.next());
+                if (!array) {
+                    generator.writeRaw('\n');
+                }
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            if (array) {
+                generator.writeEndArray();
+            }
+        }
+    }
+}
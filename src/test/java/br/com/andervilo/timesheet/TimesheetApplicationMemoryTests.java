@@ -0,0 +1,62 @@
+package br.com.andervilo.timesheet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import br.com.andervilo.timesheet.application.EmployeService;
+import br.com.andervilo.timesheet.application.EmployerService;
+import br.com.andervilo.timesheet.application.command.EmployeCreateCommand;
+import br.com.andervilo.timesheet.application.command.EmployerCreateCommand;
+import br.com.andervilo.timesheet.application.dto.EmployeDTO;
+import br.com.andervilo.timesheet.application.dto.EmployerDTO;
+import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import br.com.andervilo.timesheet.infrastructure.repository.EmployeRepository;
+import br.com.andervilo.timesheet.infrastructure.repository.impl.InMemoryEmployeRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("memory")
+class TimesheetApplicationMemoryTests {
+
+	@DynamicPropertySource
+	static void snapshot(DynamicPropertyRegistry registry) throws IOException {
+		Path directory = Files.createTempDirectory("timesheet-memory");
+		registry.add("timesheet.memory.snapshot", () -> directory.resolve("snapshot.json").toString());
+	}
+
+	@Autowired
+	private EmployeRepository employeRepository;
+
+	@Autowired
+	private EmployeService employeService;
+
+	@Autowired
+	private EmployerService employerService;
+
+	@Test
+	void runsWithoutMongo() {
+		assertInstanceOf(InMemoryEmployeRepository.class, employeRepository);
+
+		EmployerDTO employer = employerService.create(new EmployerCreateCommand("Acme", "00.000.000/0001-00", null, null, null));
+		EmployeDTO employe = employeService.create(new EmployeCreateCommand("Ana", "ana@example.com", LocalDate.of(1990, 5, 1)));
+		employeService.assignEmployer(employe.id(), employer.id());
+
+		EmployeFilterQuery query = new EmployeFilterQuery();
+		query.setEmployerId(employer.id());
+		var page = employeService.findWithEmployers(query);
+
+		assertEquals(1, page.content().size());
+		assertEquals(1L, page.content().get(0).employer().headcount());
+	}
+
+}
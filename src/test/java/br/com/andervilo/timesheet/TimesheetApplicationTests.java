@@ -3,7 +3,7 @@ package br.com.andervilo.timesheet;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "timesheet.mongo.indexes.enabled=false")
 class TimesheetApplicationTests {
 
 	@Test
@@ -0,0 +1,119 @@
+package br.com.andervilo.timesheet.application;
+
+import br.com.andervilo.timesheet.application.command.EmployeUpdateCommand;
+import br.com.andervilo.timesheet.config.BulkProperties;
+import br.com.andervilo.timesheet.config.CacheConfig;
+import br.com.andervilo.timesheet.domain.Employe;
+import br.com.andervilo.timesheet.infrastructure.repository.EmployeRepository;
+import br.com.andervilo.timesheet.infrastructure.repository.EmployerRepository;
+import br.com.andervilo.timesheet.infrastructure.search.EmployeTextIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+class EmployeServiceCacheTest {
+
+    @Configuration
+    @Import({CacheConfig.class, EmployeService.class})
+    static class TestConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CacheConfig.EMPLOYEES, CacheConfig.EMPLOYERS);
+        }
+
+        @Bean
+        BulkProperties bulkProperties() {
+            return new BulkProperties(100);
+        }
+    }
+
+    @MockitoBean
+    private EmployeRepository employeRepository;
+
+    @MockitoBean
+    private EmployerRepository employerRepository;
+
+    @MockitoBean
+    private EmployeTextIndex employeTextIndex;
+
+    @Autowired
+    private EmployeService employeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.EMPLOYEES).clear();
+        cacheManager.getCache(CacheConfig.EMPLOYERS).clear();
+
+        Employe employe = Employe.of("John Doe", "john@example.com", LocalDate.of(1990, 1, 15));
+        employe.setId("emp123");
+        when(employeRepository.findById("emp123")).thenReturn(Optional.of(employe));
+        when(employeRepository.save(any(Employe.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from the cache")
+    void shouldServeRepeatedLookupsFromCache() {
+        // When
+        employeService.findById("emp123");
+        employeService.findById("emp123");
+
+        // Then
+        verify(employeRepository, times(1)).findById("emp123");
+    }
+
+    @Test
+    @DisplayName("Should invalidate the cached entry on update and delete")
+    void shouldInvalidateCachedEntryOnUpdateAndDelete() {
+        // Given
+        employeService.findById("emp123");
+
+        // When
+        employeService.update("emp123", new EmployeUpdateCommand("emp123", "John Updated", "john@example.com", LocalDate.of(1990, 1, 15)));
+
+        // Then
+        assertEquals("John Updated", employeService.findById("emp123").name());
+
+        // When
+        employeService.delete("emp123");
+
+        // Then
+        assertNull(cacheManager.getCache(CacheConfig.EMPLOYEES).get("emp123"));
+    }
+
+    @Test
+    @DisplayName("Should invalidate cached employers when a delete releases a headcount")
+    void shouldInvalidateEmployersOnDelete() {
+        // Given
+        Employe linked = Employe.of("John Doe", "john@example.com", LocalDate.of(1990, 1, 15));
+        linked.setEmployerId("employer1");
+        when(employeRepository.findAndDeleteById("emp123")).thenReturn(Optional.of(linked));
+        cacheManager.getCache(CacheConfig.EMPLOYERS).put("employer1", "cached");
+
+        // When
+        employeService.delete("emp123");
+
+        // Then
+        verify(employerRepository).incrementHeadcounts(Map.of("employer1", -1));
+        assertNull(cacheManager.getCache(CacheConfig.EMPLOYERS).get("employer1"));
+    }
+}
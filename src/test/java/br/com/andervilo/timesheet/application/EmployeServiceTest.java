@@ -1,18 +1,28 @@
 package br.com.andervilo.timesheet.application;
 
+import br.com.andervilo.timesheet.application.command.EmployeBulkCommand;
 import br.com.andervilo.timesheet.application.command.EmployeCreateCommand;
 import br.com.andervilo.timesheet.application.command.EmployeUpdateCommand;
+import br.com.andervilo.timesheet.application.dto.BulkItemResultDTO;
+import br.com.andervilo.timesheet.application.dto.BulkResultDTO;
 import br.com.andervilo.timesheet.application.dto.EmployeDTO;
+import br.com.andervilo.timesheet.application.dto.EmploymentDTO;
 import br.com.andervilo.timesheet.application.dto.PageDTO;
 import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import br.com.andervilo.timesheet.config.BulkProperties;
 import br.com.andervilo.timesheet.domain.Employe;
+import br.com.andervilo.timesheet.domain.Employer;
 import br.com.andervilo.timesheet.infrastructure.repository.EmployeRepository;
+import br.com.andervilo.timesheet.infrastructure.repository.EmployerRepository;
+import br.com.andervilo.timesheet.infrastructure.search.EmployeTextIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -20,10 +30,17 @@ import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +49,15 @@ class EmployeServiceTest {
     @Mock
     private EmployeRepository employeRepository;
 
+    @Mock
+    private EmployerRepository employerRepository;
+
+    @Mock
+    private EmployeTextIndex employeTextIndex;
+
+    @Spy
+    private BulkProperties bulkProperties = new BulkProperties(2);
+
     @InjectMocks
     private EmployeService employeService;
 
@@ -50,6 +76,23 @@ class EmployeServiceTest {
         filterQuery.setEmail("john");
     }
 
+    @Test
+    @DisplayName("Should build the text index from the primary, not the routed export stream")
+    void shouldBuildTextIndexFromPrimary() {
+        // Given
+        Employe employe = Employe.of("John Doe", "john@example.com", null);
+        when(employeRepository.streamAllFromPrimary()).thenReturn(Stream.of(employe));
+
+        // When
+        employeService.buildTextIndex();
+
+        // Then
+        ArgumentCaptor<Supplier<Stream<Employe>>> source = ArgumentCaptor.forClass(Supplier.class);
+        verify(employeTextIndex).start(source.capture());
+        assertEquals(List.of(employe), source.getValue().get().toList());
+        verify(employeRepository, never()).streamAll();
+    }
+
     @Test
     @DisplayName("Should create an employee successfully")
     void shouldCreateEmployeeSuccessfully() {
@@ -77,6 +120,7 @@ class EmployeServiceTest {
         assertEquals(LocalDate.of(1990, 1, 15), result.birthDate());
         
         verify(employeRepository, times(1)).save(any(Employe.class));
+        verify(employeTextIndex).put(argThat(employe -> "emp123".equals(employe.getId())));
     }
 
     @Test
@@ -109,6 +153,20 @@ class EmployeServiceTest {
         verify(employeRepository, times(1)).save(any(Employe.class));
     }
 
+    @Test
+    @DisplayName("Should keep derived birth month and day in sync with birth date")
+    void shouldKeepDerivedBirthMonthAndDayInSync() {
+        // Given
+        Employe employe = Employe.of("John Doe", "john@example.com", LocalDate.of(1990, 1, 15));
+        when(employeRepository.findById("emp123")).thenReturn(Optional.of(employe));
+
+        // When
+        employeService.update("emp123", updateCommand);
+
+        // Then
+        verify(employeRepository).save(argThat(saved -> saved.getBirthMonth() == 1 && saved.getBirthDay() == 20));
+    }
+
     @Test
     @DisplayName("Should throw exception when updating non-existent employee")
     void shouldThrowExceptionWhenUpdatingNonExistentEmployee() {
@@ -125,13 +183,76 @@ class EmployeServiceTest {
     @DisplayName("Should delete an employee successfully")
     void shouldDeleteEmployeeSuccessfully() {
         // Given
-        doNothing().when(employeRepository).deleteById("emp123");
+        Employe employe = Employe.of("John Doe", "john@example.com", LocalDate.of(1990, 1, 15));
+        employe.setEmployerId("acme");
+        when(employeRepository.findAndDeleteById("emp123")).thenReturn(Optional.of(employe));
 
         // When
         employeService.delete("emp123");
 
         // Then
-        verify(employeRepository, times(1)).deleteById("emp123");
+        verify(employeRepository, times(1)).findAndDeleteById("emp123");
+        verify(employerRepository).incrementHeadcounts(Map.of("acme", -1));
+        verify(employeTextIndex).remove("emp123");
+    }
+
+    @Test
+    @DisplayName("Should move the headcount from the previous employer to the new one")
+    void shouldMoveHeadcountWhenAssigningEmployer() {
+        // Given
+        Employe previous = Employe.of("John Doe", "john@example.com", LocalDate.of(1990, 1, 15));
+        previous.setEmployerId("globex");
+        when(employerRepository.existsById("acme")).thenReturn(true);
+        when(employeRepository.assignEmployer("emp123", "acme")).thenReturn(Optional.of(previous));
+
+        // When
+        employeService.assignEmployer("emp123", "acme");
+
+        // Then
+        verify(employerRepository).incrementHeadcounts(Map.of("globex", -1, "acme", 1));
+    }
+
+    @Test
+    @DisplayName("Should not link an employee to a missing employer")
+    void shouldRejectUnknownEmployer() {
+        // Given
+        when(employerRepository.existsById("nope")).thenReturn(false);
+
+        // When / Then
+        assertThrows(NoSuchElementException.class, () -> employeService.assignEmployer("emp123", "nope"));
+        verify(employeRepository, never()).assignEmployer(any(), any());
+        verify(employerRepository, never()).incrementHeadcounts(any());
+    }
+
+    @Test
+    @DisplayName("Should resolve the employers of a page with one batched lookup")
+    void shouldResolveEmployersOfPageInOneLookup() {
+        // Given
+        Employe john = Employe.of("John Doe", "john@example.com", LocalDate.of(1990, 1, 15));
+        john.setId("emp1");
+        john.setEmployerId("acme");
+        Employe jane = Employe.of("Jane Doe", "jane@example.com", LocalDate.of(1992, 3, 8));
+        jane.setId("emp2");
+        jane.setEmployerId("acme");
+        Employe solo = Employe.of("Solo", "solo@example.com", null);
+        solo.setId("emp3");
+        Employer acme = Employer.of("Acme", "12345678901234", "1 Main St", "555-1234", "hr@acme.com");
+        acme.setId("acme");
+
+        Page<Employe> page = new PageImpl<>(List.of(john, jane, solo));
+        when(employeRepository.findWithFilters(any(EmployeFilterQuery.class), any(Pageable.class))).thenReturn(page);
+        when(employerRepository.findAllById(Set.of("acme"))).thenReturn(List.of(acme));
+
+        // When
+        PageDTO<EmploymentDTO> result = employeService.findWithEmployers(filterQuery);
+
+        // Then
+        assertEquals(3, result.content().size());
+        assertEquals("Acme", result.content().get(0).employer().name());
+        assertEquals("Acme", result.content().get(1).employer().name());
+        assertNull(result.content().get(2).employer());
+        verify(employerRepository, times(1)).findAllById(any());
+        verify(employerRepository, never()).findById(any());
     }
 
     @Test
@@ -201,6 +322,23 @@ class EmployeServiceTest {
         verify(employeRepository, times(1)).findAll();
     }
 
+    @Test
+    @DisplayName("Should fetch only the requested fields when a sparse fieldset is given")
+    void shouldFindAllWithRequestedFields() {
+        // Given
+        Set<String> fields = Set.of("id", "name");
+        when(employeRepository.findAllWithFields(fields))
+            .thenReturn(List.of(Employe.of("John Doe", null, null)));
+
+        // When
+        List<EmployeDTO> result = employeService.findAll(fields);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals("John Doe", result.get(0).name());
+        verify(employeRepository, never()).findAll();
+    }
+
     @Test
     @DisplayName("Should find employees with filters successfully")
     void shouldFindEmployeesWithFiltersSuccessfully() {
@@ -232,4 +370,56 @@ class EmployeServiceTest {
         
         verify(employeRepository, times(1)).findWithFilters(any(EmployeFilterQuery.class), any(Pageable.class));
     }
+
+    @Test
+    @DisplayName("Should apply bulk commands in batches and report each item")
+    void shouldApplyBulkCommandsInBatchesAndReportEachItem() {
+        // Given
+        EmployeBulkCommand command = new EmployeBulkCommand(
+            List.of(createCommand, createCommand, createCommand),
+            List.of(updateCommand),
+            List.of("emp999")
+        );
+        when(employeRepository.bulkInsert(anyList())).thenReturn(Map.of(), Map.of(0, "E11000 duplicate key"));
+        when(employeRepository.findAllById(List.of("emp123"))).thenReturn(List.of());
+        when(employeRepository.findExistingIds(List.of("emp999"))).thenReturn(Set.of("emp999"));
+        when(employeRepository.bulkDelete(List.of("emp999"))).thenReturn(Map.of());
+
+        // When
+        BulkResultDTO result = employeService.bulk(command);
+
+        // Then
+        assertEquals(2, result.created());
+        assertEquals(1, result.failed());
+        assertEquals(1, result.notFound());
+        assertEquals(1, result.deleted());
+        assertEquals(5, result.items().size());
+        assertEquals(BulkItemResultDTO.Status.FAILED, result.items().get(2).status());
+        assertEquals(2, result.items().get(2).index());
+        assertEquals(BulkItemResultDTO.Status.NOT_FOUND, result.items().get(3).status());
+
+        verify(employeRepository, times(2)).bulkInsert(anyList());
+        verify(employeRepository, never()).bulkReplace(anyList());
+        verify(employeRepository, never()).save(any(Employe.class));
+    }
+
+    @Test
+    @DisplayName("Should report deletes of missing employees as not found")
+    void shouldReportMissingDeletesAsNotFound() {
+        // Given
+        EmployeBulkCommand command = new EmployeBulkCommand(null, null, List.of("missing", "emp123"));
+        when(employeRepository.findExistingIds(List.of("missing", "emp123"))).thenReturn(Set.of("emp123"));
+        when(employeRepository.bulkDelete(List.of("emp123"))).thenReturn(Map.of());
+
+        // When
+        BulkResultDTO result = employeService.bulk(command);
+
+        // Then
+        assertEquals(1, result.notFound());
+        assertEquals(1, result.deleted());
+        assertEquals(BulkItemResultDTO.Status.NOT_FOUND, result.items().get(0).status());
+        assertEquals(0, result.items().get(0).index());
+        assertEquals(1, result.items().get(1).index());
+        verify(employeRepository).bulkDelete(List.of("emp123"));
+    }
 }
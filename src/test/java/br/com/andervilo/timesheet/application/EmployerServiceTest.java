@@ -1,11 +1,16 @@
 package br.com.andervilo.timesheet.application;
 
+import br.com.andervilo.timesheet.application.command.EmployerBulkCommand;
 import br.com.andervilo.timesheet.application.command.EmployerCreateCommand;
 import br.com.andervilo.timesheet.application.command.EmployerUpdateCommand;
+import br.com.andervilo.timesheet.application.dto.BulkItemResultDTO;
+import br.com.andervilo.timesheet.application.dto.BulkResultDTO;
 import br.com.andervilo.timesheet.application.dto.EmployerDTO;
 import br.com.andervilo.timesheet.application.dto.PageDTO;
 import br.com.andervilo.timesheet.application.query.EmployerFilterQuery;
+import br.com.andervilo.timesheet.config.BulkProperties;
 import br.com.andervilo.timesheet.domain.Employer;
+import br.com.andervilo.timesheet.infrastructure.repository.EmployeRepository;
 import br.com.andervilo.timesheet.infrastructure.repository.EmployerRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,16 +18,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +41,12 @@ class EmployerServiceTest {
     @Mock
     private EmployerRepository employerRepository;
 
+    @Mock
+    private EmployeRepository employeRepository;
+
+    @Spy
+    private BulkProperties bulkProperties = new BulkProperties(2);
+
     @InjectMocks
     private EmployerService employerService;
 
@@ -61,6 +77,21 @@ class EmployerServiceTest {
         filterQuery.setCnpj("123");
     }
 
+    @Test
+    @DisplayName("Should find an employer by the digits of its CNPJ, however punctuated")
+    void shouldFindEmployerByCnpjDigits() {
+        // Given
+        when(employerRepository.findByCnpjKey("12345678901234")).thenReturn(Optional.of(employer));
+
+        // When
+        EmployerDTO result = employerService.findByCnpj("12.345.678/9012-34");
+
+        // Then
+        assertEquals(employerId, result.id());
+        assertThrows(IllegalArgumentException.class, () -> employerService.findByCnpj("12.345"));
+        verify(employerRepository, times(1)).findByCnpjKey("12345678901234");
+    }
+
     @Test
     @DisplayName("Should create an employer successfully")
     void shouldCreateEmployerSuccessfully() {
@@ -155,6 +186,41 @@ class EmployerServiceTest {
         verify(employerRepository, times(1)).deleteById(employerId);
     }
 
+    @Test
+    @DisplayName("Should refuse to delete an employer employees are still linked to")
+    void shouldRefuseToDeleteEmployerWithLinkedEmployees() {
+        // Given
+        when(employeRepository.findLinkedEmployerIds(List.of(employerId))).thenReturn(Set.of(employerId));
+
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class, () -> employerService.delete(employerId));
+        verify(employerRepository, never()).deleteById(any());
+    }
+
+    @Test
+    @DisplayName("Should fail bulk deletes of employers employees are still linked to and delete the others")
+    void shouldFailBulkDeletesOfEmployersWithLinkedEmployees() {
+        // Given
+        EmployerBulkCommand command = new EmployerBulkCommand(null, null, List.of(employerId, "emp456"));
+        when(employerRepository.findExistingIds(List.of(employerId, "emp456"))).thenReturn(Set.of(employerId, "emp456"));
+        when(employeRepository.findLinkedEmployerIds(Set.of(employerId, "emp456"))).thenReturn(Set.of(employerId));
+        when(employerRepository.bulkDelete(List.of("emp456"))).thenReturn(Map.of());
+
+        // When
+        BulkResultDTO result = employerService.bulk(command);
+
+        // Then
+        assertEquals(1, result.deleted());
+        assertEquals(1, result.failed());
+        BulkItemResultDTO refused = result.items().stream()
+            .filter(item -> item.status() == BulkItemResultDTO.Status.FAILED)
+            .findFirst()
+            .orElseThrow();
+        assertEquals(employerId, refused.id());
+        assertEquals(0, refused.index());
+        verify(employerRepository, times(1)).bulkDelete(anyList());
+    }
+
     @Test
     @DisplayName("Should find employer by ID successfully")
     void shouldFindEmployerByIdSuccessfully() {
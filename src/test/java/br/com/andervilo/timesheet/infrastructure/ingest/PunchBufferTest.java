@@ -0,0 +1,124 @@
+package br.com.andervilo.timesheet.infrastructure.ingest;
+
+import br.com.andervilo.timesheet.config.PunchProperties;
+import br.com.andervilo.timesheet.domain.Punch;
+import br.com.andervilo.timesheet.domain.PunchType;
+import br.com.andervilo.timesheet.infrastructure.repository.PunchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PunchBufferTest {
+
+    @Mock
+    private PunchRepository punchRepository;
+
+    private SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PunchBuffer punchBuffer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (punchBuffer != null) {
+            punchBuffer.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should flush a full batch without waiting for the interval")
+    void shouldFlushFullBatchBySize() {
+        // Given
+        when(punchRepository.bulkInsert(anyList())).thenReturn(Map.of());
+        punchBuffer = new PunchBuffer(punchRepository, new PunchProperties(3, Duration.ofMinutes(1), 10), registry);
+
+        // When
+        assertEquals(3, punchBuffer.offer(punches(3)));
+
+        // Then
+        verify(punchRepository, timeout(2000)).bulkInsert(argThat(batch -> batch.size() == 3));
+        assertEquals(3.0, registry.counter(PunchBuffer.WRITTEN).count());
+    }
+
+    @Test
+    @DisplayName("Should flush a partial batch after the flush interval")
+    void shouldFlushPartialBatchByTime() {
+        // Given
+        when(punchRepository.bulkInsert(anyList())).thenReturn(Map.of());
+        punchBuffer = new PunchBuffer(punchRepository, new PunchProperties(100, Duration.ofMillis(20), 1000), registry);
+
+        // When
+        punchBuffer.offer(punches(2));
+
+        // Then
+        verify(punchRepository, timeout(2000)).bulkInsert(argThat(batch -> batch.size() == 2));
+    }
+
+    @Test
+    @DisplayName("Should reject punches beyond the buffer capacity")
+    void shouldRejectWhenFull() {
+        // Given
+        punchBuffer = new PunchBuffer(punchRepository, new PunchProperties(100, Duration.ofMinutes(1), 100), registry);
+
+        // When
+        int accepted = punchBuffer.offer(punches(150));
+
+        // Then
+        assertEquals(100, accepted);
+    }
+
+    @Test
+    @DisplayName("Should take no more punches once closing, and flush the ones taken before")
+    void shouldRefuseOffersOnceClosing() throws InterruptedException {
+        // Given
+        when(punchRepository.bulkInsert(anyList())).thenReturn(Map.of());
+        punchBuffer = new PunchBuffer(punchRepository, new PunchProperties(2, Duration.ofMinutes(1), 10), registry);
+        punchBuffer.offer(punches(1));
+
+        // When
+        punchBuffer.close();
+
+        // Then
+        assertEquals(0, punchBuffer.offer(punches(3)));
+        verify(punchRepository).bulkInsert(argThat(batch -> batch.size() == 1));
+        verifyNoMoreInteractions(punchRepository);
+    }
+
+    @Test
+    @DisplayName("Should count failed inserts and keep flushing")
+    void shouldCountFailedInserts() throws InterruptedException {
+        // Given
+        when(punchRepository.bulkInsert(anyList())).thenReturn(Map.of(1, "E11000"));
+        punchBuffer = new PunchBuffer(punchRepository, new PunchProperties(2, Duration.ofMinutes(1), 10), registry);
+        punchBuffer.offer(punches(3));
+
+        // When
+        punchBuffer.close();
+        punchBuffer = null;
+
+        // Then
+        verify(punchRepository, times(2)).bulkInsert(anyList());
+        assertEquals(2.0, registry.counter(PunchBuffer.FAILED).count());
+        assertEquals(1.0, registry.counter(PunchBuffer.WRITTEN).count());
+    }
+
+    private static List<Punch> punches(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> Punch.of("emp" + i, PunchType.CLOCK_IN, Instant.parse("2024-05-01T08:00:00Z").plusSeconds(i)))
+            .toList();
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.andervilo.timesheet.infrastructure.limit;
+
+import br.com.andervilo.timesheet.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should reject requests beyond the limit until a slot is released")
+    void shouldRejectBeyondLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+
+        AdaptiveConcurrencyLimiter.State state = limiter.state();
+        assertEquals(4, state.inFlight());
+        assertEquals(1L, state.rejected());
+        assertEquals(1.0, meterRegistry.get(AdaptiveConcurrencyLimiter.REJECTED).counter().count());
+    }
+
+    @Test
+    @DisplayName("Should shrink the limit when latency rises under load and grow it back once latency recovers")
+    void shouldFollowLatency() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        saturate(limiter, 200, 10);
+        int healthy = limiter.state().limit();
+
+        saturate(limiter, 200, 100);
+        int slow = limiter.state().limit();
+        assertTrue(slow < healthy / 2, "limit " + slow + " after " + healthy);
+        assertTrue(slow >= 4);
+
+        saturate(limiter, 400, 10);
+        assertTrue(limiter.state().limit() > slow * 2, "limit " + limiter.state().limit() + " after " + slow);
+        assertEquals(limiter.state().limit(), (int) meterRegistry.get(AdaptiveConcurrencyLimiter.LIMIT).gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should not move the limit on samples taken while most of it is unused")
+    void shouldIgnoreUnderusedSamples() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(i % 2 == 0 ? 10 : 500));
+        }
+
+        assertEquals(20, limiter.state().limit());
+        assertEquals(0, limiter.state().inFlight());
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(
+            new ConcurrencyLimitProperties(true, initialLimit, 4, 200, 1.5, 0.2, Duration.ofSeconds(1)), meterRegistry);
+    }
+
+    // Completes requests one at a time while the limit is in use
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, int requests, long rttMillis) {
+        for (int i = 0; i < requests; i++) {
+            while (limiter.tryAcquire()) {
+                // fill every slot
+            }
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+            while (limiter.state().inFlight() > 0) {
+                limiter.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.andervilo.timesheet.infrastructure.limit;
+
+import br.com.andervilo.timesheet.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+        new ConcurrencyLimitProperties(true, 4, 4, 200, 1.5, 0.2, Duration.ofSeconds(1)), new SimpleMeterRegistry());
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiter, 2);
+
+    @Test
+    @DisplayName("Should pass requests through and free their slot once answered")
+    void shouldReleaseAfterRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/filter"), response, chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+        assertEquals(0, limiter.state().inFlight());
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After without calling the controller when over the limit")
+    void shouldShedOverLimit() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/filter"), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertEquals(1L, limiter.state().rejected());
+    }
+
+    @Test
+    @DisplayName("Should hold the slot of an async request until it completes and sample its latency then")
+    void shouldSampleAsyncRequestOnCompletion() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v2/employees/filter");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertEquals(1, limiter.state().inFlight());
+        assertEquals(0.0, limiter.state().longRttMillis());
+        request.getAsyncContext().complete();
+        assertEquals(0, limiter.state().inFlight());
+        assertTrue(limiter.state().longRttMillis() > 0);
+    }
+
+    @Test
+    @DisplayName("Should leave streamed responses out of the latency samples")
+    void shouldNotSampleStreamedResponses() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/employees");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(ConcurrencyLimitFilter.STREAMED, Boolean.TRUE);
+            req.startAsync();
+        });
+        request.getAsyncContext().complete();
+
+        assertEquals(0, limiter.state().inFlight());
+        assertEquals(0.0, limiter.state().longRttMillis());
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.andervilo.timesheet.infrastructure.metrics;
+
+import br.com.andervilo.timesheet.application.query.CountMode;
+import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterMetricsTest {
+
+    private static final Set<String> SORT_FIELDS = Set.of("id", "name");
+
+    private SimpleMeterRegistry registry;
+    private FilterMetrics filterMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filterMetrics = new FilterMetrics(registry);
+    }
+
+    @Test
+    @DisplayName("Should tag the timer with the filter shape, sort and modes")
+    void shouldTagTimerWithFilterShape() {
+        EmployeFilterQuery filterQuery = new EmployeFilterQuery();
+        filterQuery.setSortBy("name");
+        filterQuery.setCountMode(CountMode.NONE);
+
+        String result = filterMetrics.record("employe", "findWithFilters", "name+email", filterQuery, SORT_FIELDS,
+            () -> "ok");
+
+        assertEquals("ok", result);
+        Timer timer = registry.get(FilterMetrics.TIMER)
+            .tag("repository", "employe")
+            .tag("method", "findWithFilters")
+            .tag("shape", "name+email")
+            .tag("sort", "name")
+            .tag("countMode", "NONE")
+            .tag("matchMode", "CONTAINS")
+            .tag("paging", "offset")
+            .tag("outcome", "success")
+            .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    @DisplayName("Should collapse unknown sort fields and record failures")
+    void shouldRecordFailureWithBoundedSortTag() {
+        EmployeFilterQuery filterQuery = new EmployeFilterQuery();
+        filterQuery.setSortBy("$where");
+
+        assertThrows(IllegalStateException.class, () -> filterMetrics.record("employe", "findWithFilters", "none",
+            filterQuery, SORT_FIELDS, () -> {
+                throw new IllegalStateException("boom");
+            }));
+
+        Timer timer = registry.get(FilterMetrics.TIMER)
+            .tag("sort", "other")
+            .tag("outcome", "error")
+            .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    @DisplayName("Should record abandoned reactive filters as cancelled, once")
+    void shouldRecordCancelledSubscription() {
+        EmployeFilterQuery filterQuery = new EmployeFilterQuery();
+
+        filterMetrics.record("employe", "findWithFilters", "name", filterQuery, SORT_FIELDS, Mono.never())
+            .subscribe()
+            .dispose();
+        filterMetrics.record("employe", "findWithFilters", "name", filterQuery, SORT_FIELDS, Mono.just("ok"))
+            .flux()
+            .take(1)
+            .blockLast();
+
+        assertEquals(1, registry.get(FilterMetrics.TIMER).tag("outcome", "cancelled").timer().count());
+        assertEquals(1, registry.get(FilterMetrics.TIMER).tag("outcome", "success").timer().count());
+    }
+}
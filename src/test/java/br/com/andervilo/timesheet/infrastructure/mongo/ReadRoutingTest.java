@@ -0,0 +1,52 @@
+package br.com.andervilo.timesheet.infrastructure.mongo;
+
+import br.com.andervilo.timesheet.config.ReadRoutingProperties;
+import br.com.andervilo.timesheet.infrastructure.mongo.ReadRouting.Operation;
+import com.mongodb.ReadPreference;
+import com.mongodb.TaggableReadPreference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadRoutingTest {
+
+    @Test
+    @DisplayName("Should leave unrouted operations to the connection string")
+    void shouldLeaveUnroutedOperations() {
+        ReadRouting routing = new ReadRouting(new ReadRoutingProperties(null, " ", null, Duration.ofSeconds(90)));
+        Query query = new Query();
+
+        assertNull(routing.of(Operation.FILTER));
+        assertNull(routing.of(Operation.EXPORT));
+        assertSame(query, routing.route(query, Operation.COUNT));
+        assertFalse(query.hasReadPreference());
+    }
+
+    @Test
+    @DisplayName("Should route operations to secondaries bounded by max staleness")
+    void shouldRouteWithMaxStaleness() {
+        ReadRouting routing = new ReadRouting(new ReadRoutingProperties("secondaryPreferred", "nearest", "primary",
+            Duration.ofMinutes(2)));
+
+        TaggableReadPreference filter = (TaggableReadPreference) routing.of(Operation.FILTER);
+        assertEquals("secondaryPreferred", filter.getName());
+        assertEquals(120L, filter.getMaxStaleness(TimeUnit.SECONDS));
+        assertEquals("nearest", routing.of(Operation.EXPORT).getName());
+        assertEquals(ReadPreference.primary(), routing.of(Operation.COUNT));
+        assertEquals(filter, routing.route(new Query(), Operation.FILTER).getReadPreference());
+    }
+
+    @Test
+    @DisplayName("Should refuse a max staleness the server would reject, and unknown modes")
+    void shouldRejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new ReadRouting(new ReadRoutingProperties("secondary", null, null, Duration.ofSeconds(30))));
+        assertThrows(IllegalArgumentException.class,
+            () -> new ReadRouting(new ReadRoutingProperties("secondaries", null, null, Duration.ofSeconds(90))));
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.andervilo.timesheet.infrastructure.mongo;
+
+import br.com.andervilo.timesheet.config.SlowQueryProperties;
+import br.com.andervilo.timesheet.domain.Employe;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+
+    // Never connected: the log only maps commands unless explain is on
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoClient = MongoClients.create("mongodb://localhost:1");
+        mongoTemplate = new MongoTemplate(mongoClient, "timesheet");
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoClient.close();
+    }
+
+    @Test
+    @DisplayName("Should keep the shape of the mapped command of calls above the threshold, newest first and bounded")
+    void shouldCaptureSlowCallsInBoundedBuffer() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(mongoTemplate,
+            new SlowQueryProperties(Duration.ZERO, 2, false, Duration.ofSeconds(5)));
+        Query query = new Query(Criteria.where("id").is("emp1")).with(Sort.by("name")).limit(11);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(List.of(), slowQueryLog.find(query, Employe.class, List::of));
+        }
+        slowQueryLog.count(query, Employe.class, () -> 0L);
+
+        List<SlowQueryLog.Entry> entries = slowQueryLog.entries();
+        assertEquals(2, entries.size());
+        assertEquals("count", entries.get(0).operation());
+        SlowQueryLog.Entry find = entries.get(1);
+        assertEquals("employes", find.collection());
+        assertEquals("success", find.outcome());
+        assertEquals(Map.of("_id", "<String>"), find.command().get("filter"));
+        assertEquals(11, ((Number) find.command().get("limit")).intValue());
+        assertNull(find.explain());
+    }
+
+    @Test
+    @DisplayName("Should log the shape of the filter, not the values in it")
+    void shouldShapeFilterValues() {
+        Document command = new Document("find", "employes")
+            .append("filter", new Document("name", "Ana Souza")
+                .append("_id", new Document("$in", List.of("a", "b", "c", "d", "e"))))
+            .append("limit", 11);
+
+        Document shape = SlowQueryLog.shape(command);
+
+        assertEquals(Document.parse("{find: 'employes', filter: {name: '<String>', "
+            + "_id: {$in: ['<String>', '<String>', '<String>', '<2 more>']}}, limit: 11}"), shape);
+    }
+
+    @Test
+    @DisplayName("Should keep the plan of an explain but not the values in its filters and index bounds")
+    void shouldShapePlanValues() {
+        Document explain = Document.parse("{queryPlanner: {parsedQuery: {email: {$eq: 'ana@example.com'}}, "
+            + "winningPlan: {stage: 'FETCH', filter: {email: {$eq: 'ana@example.com'}}, inputStage: {stage: 'IXSCAN', "
+            + "indexName: 'name_1', indexBounds: {name: ['[Ana, Ana]']}}}, "
+            + "slotBasedPlan: {stages: '[1] cfilter {(email == ana@example.com)}'}}, "
+            + "executionStats: {nReturned: 1, executionStages: {stage: 'FETCH', filter: {email: {$eq: 'ana@example.com'}}}}, "
+            + "stages: [{$match: {birthMonth: {$eq: 3}}}]}");
+
+        Document shape = SlowQueryLog.shapePlan(explain);
+
+        assertFalse(shape.toJson().contains("ana@example.com"));
+        assertFalse(shape.toJson().contains("Ana"));
+        assertEquals(Document.parse("{queryPlanner: {parsedQuery: {email: {$eq: '<String>'}}, "
+            + "winningPlan: {stage: 'FETCH', filter: {email: {$eq: '<String>'}}, inputStage: {stage: 'IXSCAN', "
+            + "indexName: 'name_1', indexBounds: {name: ['<String>']}}}}, "
+            + "executionStats: {nReturned: 1, executionStages: {stage: 'FETCH', filter: {email: {$eq: '<String>'}}}}, "
+            + "stages: [{$match: {birthMonth: {$eq: '<Integer>'}}}]}"), shape);
+        assertEquals(SlowQueryLog.flags(explain), SlowQueryLog.flags(shape));
+    }
+
+    @Test
+    @DisplayName("Should ignore calls under the threshold")
+    void shouldIgnoreFastCalls() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(mongoTemplate,
+            new SlowQueryProperties(Duration.ofMinutes(1), 10, true, Duration.ofSeconds(5)));
+
+        slowQueryLog.find(new Query(), Employe.class, List::of);
+
+        assertTrue(slowQueryLog.entries().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should flag collection scans and in-memory sorts in the plans that ran")
+    void shouldFlagCollscanAndInMemorySort() {
+        Document find = Document.parse("{queryPlanner: {winningPlan: {stage: 'LIMIT', inputStage: {stage: 'SORT', "
+            + "inputStage: {stage: 'COLLSCAN'}}}}}");
+        Document indexed = Document.parse("{queryPlanner: {winningPlan: {stage: 'LIMIT', inputStage: {stage: 'FETCH', "
+            + "inputStage: {stage: 'IXSCAN'}}}}}");
+        Document aggregate = Document.parse("{stages: [{$cursor: {queryPlanner: {winningPlan: {stage: 'IXSCAN'}}, "
+            + "executionStats: {executionStages: {stage: 'SORT', inputStage: {stage: 'IXSCAN'}}}}}]}");
+
+        assertEquals(Set.of(SlowQueryLog.COLLSCAN, SlowQueryLog.IN_MEMORY_SORT), SlowQueryLog.flags(find));
+        assertEquals(Set.of(), SlowQueryLog.flags(indexed));
+        assertEquals(Set.of(SlowQueryLog.IN_MEMORY_SORT), SlowQueryLog.flags(aggregate));
+    }
+
+    @Test
+    @DisplayName("Should not flag rejected plans or the stages of the echoed pipeline")
+    void shouldIgnoreRejectedPlansAndPipelineStages() {
+        Document find = Document.parse("{queryPlanner: {winningPlan: {stage: 'FETCH', inputStage: {stage: 'IXSCAN'}}, "
+            + "rejectedPlans: [{stage: 'SORT', inputStage: {stage: 'COLLSCAN'}}]}, "
+            + "command: {find: 'employes', sort: {name: 1}}}");
+        Document aggregate = Document.parse("{stages: [{$cursor: {queryPlanner: {winningPlan: {stage: 'IXSCAN'}, "
+            + "rejectedPlans: [{stage: 'COLLSCAN'}]}}}, {$facet: {content: [{$sort: {name: 1}}]}}], "
+            + "command: {aggregate: 'employes', pipeline: [{$sort: {_id: 1}}]}}");
+
+        assertEquals(Set.of(), SlowQueryLog.flags(find));
+        assertEquals(Set.of(), SlowQueryLog.flags(aggregate));
+    }
+
+    @Test
+    @DisplayName("Should explain an aggregation rendered as the template runs it")
+    void shouldRenderAggregationAsTemplateDoes() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(mongoTemplate,
+            new SlowQueryProperties(Duration.ZERO, 10, false, Duration.ofSeconds(5)));
+        TypedAggregation<Employe> aggregation = Aggregation.newAggregation(Employe.class,
+            Aggregation.match(Criteria.where("birthMonth").is(3)), Aggregation.sort(Sort.by("_id")));
+
+        slowQueryLog.aggregate(aggregation, Employe.class, List::of);
+
+        assertEquals(List.of(Map.of("$match", Map.of("birthMonth", "<Integer>")), Map.of("$sort", Map.of("_id", "<Integer>"))),
+            slowQueryLog.entries().get(0).command().get("pipeline"));
+    }
+}
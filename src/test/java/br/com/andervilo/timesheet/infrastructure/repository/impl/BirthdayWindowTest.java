@@ -0,0 +1,72 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BirthdayWindowTest {
+
+    @Test
+    @DisplayName("Should scan a single month as one range on birthDay")
+    void shouldScanWindowWithinMonth() {
+        List<Criteria> parts = BirthdayWindow.parts(LocalDate.of(2024, 5, 10), 7);
+
+        assertEquals(1, parts.size());
+        assertEquals(Document.parse("{birthMonth: 5, birthDay: {$gte: 10, $lte: 16}}"), parts.get(0).getCriteriaObject());
+    }
+
+    @Test
+    @DisplayName("Should cover the whole months in between when crossing month boundaries")
+    void shouldCrossMonthBoundaries() {
+        List<Criteria> parts = BirthdayWindow.parts(LocalDate.of(2024, 1, 30), 35);
+
+        assertEquals(1, parts.size());
+        assertEquals(Document.parse("{$or: [{birthMonth: 1, birthDay: {$gte: 30}}, {birthMonth: {$gt: 1, $lt: 3}}, "
+            + "{birthMonth: 3, birthDay: {$lte: 4}}]}"), parts.get(0).getCriteriaObject());
+    }
+
+    @Test
+    @DisplayName("Should split a window crossing New Year into December first, then January")
+    void shouldWrapAroundYearEnd() {
+        List<Criteria> parts = BirthdayWindow.parts(LocalDate.of(2024, 12, 25), 14);
+
+        assertEquals(2, parts.size());
+        assertEquals(Document.parse("{birthMonth: 12, birthDay: {$gte: 25, $lte: 31}}"), parts.get(0).getCriteriaObject());
+        assertEquals(Document.parse("{birthMonth: 1, birthDay: {$gte: 1, $lte: 7}}"), parts.get(1).getCriteriaObject());
+    }
+
+    @Test
+    @DisplayName("Should cover the whole year, leap day included, with the maximum window")
+    void shouldCoverWholeYear() {
+        List<Criteria> parts = BirthdayWindow.parts(LocalDate.of(2023, 3, 1), BirthdayWindow.MAX_DAYS);
+
+        assertEquals(2, parts.size());
+        assertEquals(Document.parse("{$or: [{birthMonth: 3, birthDay: {$gte: 1}}, {birthMonth: {$gt: 3, $lt: 12}}, "
+            + "{birthMonth: 12, birthDay: {$lte: 31}}]}"), parts.get(0).getCriteriaObject());
+        assertEquals(Document.parse("{$or: [{birthMonth: 1, birthDay: {$gte: 1}}, {birthMonth: {$gt: 1, $lt: 2}}, "
+            + "{birthMonth: 2, birthDay: {$lte: 29}}]}"), parts.get(1).getCriteriaObject());
+        assertThrows(IllegalArgumentException.class, () -> BirthdayWindow.parts(LocalDate.of(2023, 3, 1), 0));
+    }
+
+    @Test
+    @DisplayName("Should take in leap-day birthdays on Feb 28 of a year without Feb 29")
+    void shouldCountLeapDayAsFebruary28InCommonYears() {
+        List<BirthdayWindow.Part> common = BirthdayWindow.ranges(LocalDate.of(2022, 3, 1), 365);
+        List<BirthdayWindow.Part> leap = BirthdayWindow.ranges(LocalDate.of(2023, 3, 1), 365);
+        List<BirthdayWindow.Part> shortWindow = BirthdayWindow.ranges(LocalDate.of(2023, 2, 20), 9);
+
+        assertEquals(MonthDay.of(2, 29), common.get(1).end());
+        // Feb 28, 2024 is followed by Feb 29, outside the window
+        assertEquals(MonthDay.of(2, 28), leap.get(1).end());
+        assertEquals(List.of(new BirthdayWindow.Part(MonthDay.of(2, 20), MonthDay.of(2, 29))), shortWindow);
+        assertEquals(Document.parse("{birthMonth: 2, birthDay: {$gte: 20, $lte: 29}}"),
+            BirthdayWindow.parts(LocalDate.of(2023, 2, 20), 9).get(0).getCriteriaObject());
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import br.com.andervilo.timesheet.domain.Employer;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.WriteConcernError;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BulkWritesTest {
+
+    private MappingMongoConverter converter;
+    private MongoTemplate mongoTemplate;
+    private BulkOperations operations;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        mongoTemplate = mock(MongoTemplate.class);
+        operations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Employer.class)).thenReturn(operations);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getCollectionName(Employer.class)).thenReturn("employers");
+    }
+
+    @Test
+    @DisplayName("Should replace only over the version read and write the next one")
+    void shouldReplaceOverVersionRead() {
+        Employer employer = employer("Acme", 4L);
+        when(operations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+
+        Map<Integer, String> failures = replace(List.of(employer));
+
+        ArgumentCaptor<Query> filter = ArgumentCaptor.forClass(Query.class);
+        verify(operations).replaceOne(filter.capture(), eq(employer));
+        assertEquals(4L, filter.getValue().getQueryObject().get("version"));
+        assertEquals(5L, employer.getVersion());
+        assertTrue(failures.isEmpty());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Document.class), any(String.class));
+    }
+
+    @Test
+    @DisplayName("Should report a replacement that matched nothing as a version conflict")
+    void shouldReportConflicts() {
+        Employer applied = employer("Acme", 1L);
+        Employer stale = employer("Globex", 1L);
+        when(operations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("employers"))).thenAnswer(invocation -> {
+            Document current = stored(applied);
+            // Changed by another writer to the version the stale replacement would have written
+            Document changed = stored(stale);
+            changed.put("headcount", 7L);
+            return List.of(current, changed);
+        });
+
+        Map<Integer, String> failures = replace(List.of(applied, stale));
+
+        assertEquals(Map.of(1, BulkWrites.VERSION_CONFLICT), failures);
+    }
+
+    @Test
+    @DisplayName("Should fail the whole batch when the write concern was not satisfied")
+    void shouldFailBatchOnWriteConcernError() {
+        BulkWriteResult result = BulkWriteResult.acknowledged(0, 2, 0, 2, List.of(), List.of());
+        WriteConcernError error = new WriteConcernError(64, "WriteConcernFailed", "waiting for replication timed out", new BsonDocument());
+        when(operations.execute()).thenThrow(new BulkOperationException("Bulk write failed",
+            new MongoBulkWriteException(result, List.of(), error, new ServerAddress(), Set.of())));
+
+        Map<Integer, String> failures = BulkWrites.execute(operations, 2);
+
+        assertEquals(Set.of(0, 1), failures.keySet());
+        assertTrue(failures.get(0).contains("waiting for replication timed out"));
+    }
+
+    private Map<Integer, String> replace(List<Employer> employers) {
+        return BulkWrites.replaceVersioned(mongoTemplate, Employer.class, employers, Employer::getId,
+            Employer::getVersion, Employer::setVersion);
+    }
+
+    private Document stored(Employer employer) {
+        Document document = new Document();
+        converter.write(employer, document);
+        return document;
+    }
+
+    private static Employer employer(String name, Long version) {
+        Employer employer = Employer.of(name, null, null, null, null);
+        employer.setId(new ObjectId().toHexString());
+        employer.setVersion(version);
+        return employer;
+    }
+}
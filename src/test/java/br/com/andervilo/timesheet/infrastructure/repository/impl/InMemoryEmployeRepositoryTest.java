@@ -0,0 +1,185 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import br.com.andervilo.timesheet.application.query.CountMode;
+import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import br.com.andervilo.timesheet.application.query.FilterSlice;
+import br.com.andervilo.timesheet.application.query.MatchMode;
+import br.com.andervilo.timesheet.config.TextIndexProperties;
+import br.com.andervilo.timesheet.domain.Employe;
+import br.com.andervilo.timesheet.infrastructure.metrics.FilterMetrics;
+import br.com.andervilo.timesheet.infrastructure.search.EmployeTextIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryEmployeRepositoryTest {
+
+    private InMemoryEmployeRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Never built, so it narrows nothing
+        EmployeTextIndex textIndex = new EmployeTextIndex(new TextIndexProperties(true, 20000, Duration.ofMinutes(15)), meterRegistry);
+        repository = new InMemoryEmployeRepository(new FilterMetrics(meterRegistry), textIndex);
+    }
+
+    @Test
+    @DisplayName("Should assign an id and version on insert and check the version on save")
+    void shouldVersionWrites() {
+        Employe employe = repository.save(Employe.of("João Silva", "joao@example.com", LocalDate.of(1990, 3, 10)));
+
+        assertNotNull(employe.getId());
+        assertEquals(0L, employe.getVersion());
+        assertNotNull(employe.getLastModified());
+
+        Employe stale = repository.findById(employe.getId()).orElseThrow();
+        Employe current = repository.findById(employe.getId()).orElseThrow();
+        current.update("João Souza", "joao@example.com", LocalDate.of(1990, 3, 10));
+        repository.save(current);
+
+        assertEquals(1L, repository.findVersionById(employe.getId()).orElseThrow());
+        assertThrows(OptimisticLockingFailureException.class, () -> repository.save(stale));
+        assertThrows(DuplicateKeyException.class, () -> repository.insert(stale));
+    }
+
+    @Test
+    @DisplayName("Should not let callers change stored documents without a save")
+    void shouldCopyDocumentsInAndOut() {
+        Employe employe = repository.save(Employe.of("Ana", "ana@example.com", null));
+
+        employe.setName("Changed");
+        repository.findById(employe.getId()).orElseThrow().setName("Changed too");
+
+        assertEquals("Ana", repository.findById(employe.getId()).orElseThrow().getName());
+        assertEquals(1, repository.findWithFilters(filter("an", MatchMode.PREFIX), filter("an", MatchMode.PREFIX).toPageable())
+            .getNumberOfElements());
+    }
+
+    @Test
+    @DisplayName("Should match name prefixes ignoring case and accents, sorted on the folded name")
+    void shouldMatchPrefixIgnoringCaseAndAccents() {
+        repository.save(Employe.of("JOÃO Pedro", null, null));
+        repository.save(Employe.of("joao Carlos", null, null));
+        repository.save(Employe.of("Joana", null, null));
+        repository.save(Employe.of("Maria João", null, null));
+
+        EmployeFilterQuery query = filter("João", MatchMode.PREFIX);
+        query.setSortBy("name");
+        FilterSlice<Employe> slice = (FilterSlice<Employe>) repository.findWithFilters(query, query.toPageable());
+
+        assertEquals(List.of("joao Carlos", "JOÃO Pedro"), slice.getContent().stream().map(Employe::getName).toList());
+        assertEquals(2L, slice.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Should match contains filters literally")
+    void shouldMatchContainsLiterally() {
+        repository.save(Employe.of("A.B", null, null));
+        repository.save(Employe.of("AxB", null, null));
+
+        EmployeFilterQuery query = filter("a.b", MatchMode.CONTAINS);
+
+        assertEquals(List.of("A.B"), repository.findWithFilters(query, query.toPageable()).getContent().stream()
+            .map(Employe::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should walk every page with the keyset cursor, in sort order and without repeats")
+    void shouldWalkPagesWithCursor() {
+        for (int i = 0; i < 25; i++) {
+            // Few distinct names so the id tie-breaker matters
+            repository.save(Employe.of("Name " + (i % 4), null, LocalDate.of(1980 + i, 1 + i % 12, 1)));
+        }
+
+        for (String sortBy : new String[] {"name", "birthDate", "email", "id"}) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                EmployeFilterQuery query = new EmployeFilterQuery();
+                query.setSize(7);
+                query.setSortBy(sortBy);
+                query.setDirection(direction);
+                query.setCountMode(CountMode.NONE);
+
+                List<Employe> walked = new ArrayList<>();
+                FilterSlice<Employe> slice;
+                do {
+                    slice = (FilterSlice<Employe>) repository.findWithFilters(query, query.toPageable());
+                    walked.addAll(slice.getContent());
+                    query.setAfter(slice.getNextCursor());
+                } while (slice.hasNext());
+
+                List<Employe> expected = repository.findAll(KeysetCursor.sortOf(query.toPageable()));
+                assertEquals(expected.stream().map(Employe::getId).toList(), walked.stream().map(Employe::getId).toList(),
+                    sortBy + " " + direction);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer birth month filters and upcoming birthdays from the birthday index")
+    void shouldUseBirthdayIndex() {
+        repository.save(Employe.of("December", null, LocalDate.of(1990, 12, 30)));
+        repository.save(Employe.of("January", null, LocalDate.of(1985, 1, 2)));
+        repository.save(Employe.of("Leap", null, LocalDate.of(1992, 2, 29)));
+
+        EmployeFilterQuery query = new EmployeFilterQuery();
+        query.setBirthMonth(2);
+        assertEquals(List.of("Leap"), repository.findWithFilters(query, query.toPageable()).getContent().stream()
+            .map(Employe::getName).toList());
+
+        assertEquals(List.of("December", "January"), repository.findUpcomingBirthdays(LocalDate.of(2025, 12, 20), 30, 10)
+            .stream().map(Employe::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should relink employees atomically and return them as they were")
+    void shouldAssignEmployer() {
+        Employe employe = repository.save(Employe.of("Ana", null, null));
+
+        assertNull(repository.assignEmployer(employe.getId(), "employer-1").orElseThrow().getEmployerId());
+        assertEquals("employer-1", repository.assignEmployer(employe.getId(), "employer-2").orElseThrow().getEmployerId());
+        assertEquals(Map.of(employe.getId(), "employer-2"), repository.findEmployerIds(List.of(employe.getId(), "missing")));
+        assertEquals(Set.of("employer-2"), repository.findLinkedEmployerIds(List.of("employer-1", "employer-2")));
+
+        EmployeFilterQuery query = new EmployeFilterQuery();
+        query.setEmployerId("employer-2");
+        assertEquals(1, repository.findWithFilters(query, query.toPageable()).getNumberOfElements());
+        assertEquals(2L, repository.findById(employe.getId()).orElseThrow().getVersion());
+
+        assertTrue(repository.findAndDeleteById(employe.getId()).isPresent());
+        assertTrue(repository.assignEmployer(employe.getId(), "employer-1").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report failed positions of a bulk insert and write the others")
+    void shouldReportBulkFailures() {
+        Employe existing = repository.save(Employe.of("Ana", null, null));
+        Employe duplicate = Employe.of("Bia", null, null);
+        duplicate.setId(existing.getId());
+
+        Map<Integer, String> failures = repository.bulkInsert(List.of(Employe.of("Caio", null, null), duplicate));
+
+        assertEquals(List.of(1), List.copyOf(failures.keySet()));
+        assertEquals(2L, repository.count());
+    }
+
+    private static EmployeFilterQuery filter(String name, MatchMode mode) {
+        EmployeFilterQuery query = new EmployeFilterQuery();
+        query.setName(name);
+        query.setMatchMode(mode);
+        return query;
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import br.com.andervilo.timesheet.application.query.EmployerFilterQuery;
+import br.com.andervilo.timesheet.application.query.MatchMode;
+import br.com.andervilo.timesheet.domain.Employer;
+import br.com.andervilo.timesheet.infrastructure.metrics.FilterMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryEmployerRepositoryTest {
+
+    private InMemoryEmployerRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryEmployerRepository(new FilterMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @DisplayName("Should refuse a second employer with the same CNPJ digits, as the unique index does")
+    void shouldKeepCnpjUnique() {
+        Employer acme = repository.save(Employer.of("Acme", "12.345.678/0001-90", null, null, null));
+
+        assertThrows(DuplicateKeyException.class,
+            () -> repository.save(Employer.of("Acme Copy", "12345678000190", null, null, null)));
+        assertEquals(Map.of(0, "Duplicate key cnpjKey: 12345678000190"),
+            repository.bulkInsert(List.of(Employer.of("Acme Bulk", "12 345 678 0001 90", null, null, null))));
+
+        Employer stored = repository.findById(acme.getId()).orElseThrow();
+        stored.update("Acme Renamed", stored.getCnpj(), null, null, null);
+        repository.save(stored);
+
+        assertEquals("Acme Renamed", repository.findByCnpjKey("12345678000190").orElseThrow().getName());
+        assertEquals(1L, repository.count());
+    }
+
+    @Test
+    @DisplayName("Should match full identifiers on their digits and partial ones as text")
+    void shouldMatchFullIdentifiersExactly() {
+        repository.save(Employer.of("Acme", "12.345.678/0001-90", null, "+55 (11) 98765-4321", null));
+        repository.save(Employer.of("Beta", "98.765.432/0001-10", null, "(21) 3333-4444", null));
+
+        EmployerFilterQuery cnpj = new EmployerFilterQuery();
+        cnpj.setCnpj("12345678000190");
+        assertEquals(List.of("Acme"), names(cnpj));
+        assertEquals("cnpjKey", CustomEmployerRepositoryImpl.shapeOf(cnpj));
+
+        EmployerFilterQuery phone = new EmployerFilterQuery();
+        phone.setPhone("011 98765 4321");
+        assertEquals(List.of("Acme"), names(phone));
+
+        EmployerFilterQuery partial = new EmployerFilterQuery();
+        partial.setCnpj("0001-10");
+        assertEquals(List.of("Beta"), names(partial));
+        assertEquals("cnpj", CustomEmployerRepositoryImpl.shapeOf(partial));
+
+        EmployerFilterQuery regex = new EmployerFilterQuery();
+        regex.setCnpj("12345678000190");
+        regex.setMatchMode(MatchMode.REGEX);
+        assertEquals(List.of(), names(regex));
+    }
+
+    @Test
+    @DisplayName("Should query by example as Mongo matches the example")
+    void shouldQueryByExample() {
+        repository.save(Employer.of("Acme", "12.345.678/0001-90", "Rua A", null, "contato@acme.com"));
+        repository.save(Employer.of("Acme Labs", "98.765.432/0001-10", "Rua B", null, null));
+        repository.save(Employer.of("Beta", "11.222.333/0001-44", "Rua A", null, null));
+
+        Employer street = new Employer();
+        street.setAddress("Rua A");
+        assertEquals(List.of("Acme", "Beta"), repository.findAll(Example.of(street), Sort.by("name")).stream().map(Employer::getName).toList());
+
+        Employer prefix = new Employer();
+        prefix.setName("acme");
+        Example<Employer> startingWith = Example.of(prefix, ExampleMatcher.matching().withIgnoreCase().withStringMatcher(StringMatcher.STARTING));
+        assertEquals(2, repository.count(startingWith));
+        assertEquals(List.of("Acme Labs"), repository.findBy(startingWith,
+            query -> query.sortBy(Sort.by(Sort.Direction.DESC, "name")).limit(1).stream().map(Employer::getName).toList()));
+
+        Employer noEmail = new Employer();
+        noEmail.setName("Acme");
+        Example<Employer> includingNulls = Example.of(noEmail, ExampleMatcher.matching().withIncludeNullValues()
+            .withIgnorePaths("id", "cnpj", "address", "phone", "cnpjKey", "phoneKey", "headcount", "version", "lastModified"));
+        assertFalse(repository.exists(includingNulls));
+        assertEquals("Acme", repository.findOne(Example.of(noEmail)).orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("Should bulk replace only over the version read, reporting missing and modified documents")
+    void shouldBulkReplaceOverVersionRead() {
+        Employer acme = repository.save(Employer.of("Acme", "12.345.678/0001-90", null, null, null));
+        Employer stale = repository.findById(acme.getId()).orElseThrow();
+        Employer current = repository.findById(acme.getId()).orElseThrow();
+        Employer missing = Employer.of("Ghost", "98.765.432/0001-10", null, null, null);
+        missing.setId("missing");
+        missing.setVersion(0L);
+
+        current.update("Acme Renamed", current.getCnpj(), null, null, null);
+        stale.update("Acme Stale", stale.getCnpj(), null, null, null);
+        Map<Integer, String> failures = repository.bulkReplace(List.of(current, stale, missing));
+
+        assertEquals(Map.of(1, BulkWrites.VERSION_CONFLICT, 2, BulkWrites.VERSION_CONFLICT), failures);
+        assertEquals(0L, missing.getVersion());
+        Employer stored = repository.findById(acme.getId()).orElseThrow();
+        assertEquals("Acme Renamed", stored.getName());
+        assertEquals(1L, stored.getVersion());
+        assertEquals(1L, repository.count());
+    }
+
+    private List<String> names(EmployerFilterQuery query) {
+        return repository.findWithFilters(query, query.toPageable()).getContent().stream().map(Employer::getName).toList();
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import br.com.andervilo.timesheet.application.query.FilterSlice;
+import br.com.andervilo.timesheet.domain.Employe;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.FieldLookupPolicy;
+import org.springframework.data.mongodb.core.aggregation.TypeBasedAggregationOperationContext;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    private MappingMongoConverter converter;
+    private Employe employe;
+    private String employeId;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        employeId = new ObjectId().toHexString();
+        employe = Employe.of("John Doe", "john@example.com", LocalDate.of(1990, 1, 15));
+        employe.setId(employeId);
+    }
+
+    @Test
+    @DisplayName("Should not emit a cursor when there is no next page")
+    void shouldNotEmitCursorWithoutNextPage() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.Direction.ASC, "name");
+
+        FilterSlice<Employe> slice = KeysetCursor.slice(List.of(employe), pageable, null, converter);
+
+        assertFalse(slice.hasNext());
+        assertNull(slice.getNextCursor());
+        assertNull(slice.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Should trim the look-ahead element and seek past the last element of the page")
+    void shouldTrimLookAheadAndSeekPastLastElement() {
+        Pageable pageable = PageRequest.of(0, 1, Sort.Direction.ASC, "name");
+        Employe lookAhead = Employe.of("Mary Doe", "mary@example.com", LocalDate.of(1991, 2, 10));
+
+        FilterSlice<Employe> slice = KeysetCursor.slice(List.of(employe, lookAhead), pageable, 2L, converter);
+        Query query = KeysetCursor.pageQuery(new Criteria(), slice.getNextCursor(), pageable);
+
+        assertEquals(List.of(employe), slice.getContent());
+        assertTrue(slice.hasNext());
+        assertEquals(2, slice.getTotalPages());
+        assertEquals(0, query.getSkip());
+        assertEquals(2, query.getLimit());
+        assertEquals(new Document("name", 1).append("_id", 1), query.getSortObject());
+        String filter = query.getQueryObject().toJson();
+        assertTrue(filter.contains("\"$gt\": \"John Doe\""));
+        assertTrue(filter.contains(employeId));
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor issued for a different sort")
+    void shouldRejectCursorForDifferentSort() {
+        String cursor = KeysetCursor.next(employe, PageRequest.of(0, 1, Sort.Direction.ASC, "name"), converter);
+        Pageable otherSort = PageRequest.of(0, 1, Sort.Direction.DESC, "name");
+
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.pageQuery(new Criteria(), cursor, otherSort));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.pageQuery(new Criteria(), "not-a-cursor", otherSort));
+    }
+
+    @Test
+    @DisplayName("Should sort and seek a birth-month page by _id when sorted by id")
+    void shouldSortAndSeekBirthMonthPageByStoredId() {
+        EmployeFilterQuery filterQuery = new EmployeFilterQuery();
+        filterQuery.setBirthMonth(1);
+        filterQuery.setSortBy("id");
+        filterQuery.setSize(1);
+        filterQuery.setAfter(KeysetCursor.next(employe, filterQuery.toPageable(), converter));
+
+        TypedAggregation<Employe> aggregation = CustomEmployeRepositoryImpl.birthMonthAggregation(
+            filterQuery, filterQuery.toPageable(), null, null);
+        List<Document> pipeline = aggregation.toPipeline(new TypeBasedAggregationOperationContext(
+            Employe.class, converter.getMappingContext(), new QueryMapper(converter), FieldLookupPolicy.relaxed()));
+        List<Document> content = pipeline.get(1).get("$facet", Document.class).getList("content", Document.class);
+
+        assertEquals(new Document("_id", new Document("$gt", new ObjectId(employeId))), content.get(0).get("$match"));
+        assertEquals(new Document("_id", 1), content.get(1).get("$sort"));
+        assertEquals(Sort.by("_id"), KeysetCursor.sortOf(filterQuery.toPageable()));
+    }
+}
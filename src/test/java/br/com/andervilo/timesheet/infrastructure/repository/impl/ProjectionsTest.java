@@ -0,0 +1,53 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectionsTest {
+
+    private static final Set<String> EXPOSED = Set.of("id", "name", "email", "version");
+
+    @Test
+    @DisplayName("Should fetch the whole document when no fields are requested")
+    void shouldFetchWholeDocumentWithoutFields() {
+        assertEquals(List.of(), Projections.of(null, EXPOSED, Sort.unsorted()));
+        assertEquals(List.of(), Projections.of(Set.of(), EXPOSED, Sort.unsorted()));
+    }
+
+    @Test
+    @DisplayName("Should fetch only _id when every requested field is unknown")
+    void shouldFetchOnlyIdForUnknownFields() {
+        assertEquals(List.of("_id"), Projections.of(Set.of("nmae"), EXPOSED, Sort.by("name")));
+    }
+
+    @Test
+    @DisplayName("Should drop unknown fields and keep the known ones")
+    void shouldDropUnknownFields() {
+        List<String> fields = Projections.of(Set.of("nmae", "email"), EXPOSED, Sort.unsorted());
+
+        assertTrue(fields.contains("email"));
+        assertFalse(fields.contains("nmae"));
+    }
+
+    @Test
+    @DisplayName("Should fetch the version with a sparse fieldset, so the page ETag sees edits")
+    void shouldFetchVersionWithSparseFields() {
+        EmployeFilterQuery filterQuery = new EmployeFilterQuery();
+        filterQuery.setFields(Set.of("name"));
+
+        Document fields = CustomEmployeRepositoryImpl
+            .pageQuery(filterQuery, PageRequest.of(0, 10, Sort.by("name")), Set.of())
+            .getFieldsObject();
+
+        assertEquals(new Document("name", 1).append("version", 1), fields);
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import br.com.andervilo.timesheet.application.query.EmployerFilterQuery;
+import br.com.andervilo.timesheet.application.query.MatchMode;
+import org.bson.BsonRegularExpression;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryTemplateTest {
+
+    private final QueryTemplate<EmployerFilterQuery> template = new QueryTemplate<EmployerFilterQuery>()
+        .text("name", EmployerFilterQuery::getName)
+        .equal("cnpj", EmployerFilterQuery::getCnpj);
+
+    @Test
+    @DisplayName("Should compile a shape once and bind new values into it")
+    void shouldReuseCompiledShape() {
+        Document first = template.bind(query("Acme", "123", MatchMode.PREFIX)).getCriteriaObject();
+        Document second = template.bind(query("Globex", "456", MatchMode.PREFIX)).getCriteriaObject();
+
+        assertEquals(1, template.compiledShapes());
+        assertEquals("Acme", first.get("name", Document.class).get("$gte"));
+        assertEquals("Globex", second.get("name", Document.class).get("$gte"));
+        assertEquals("456", second.get("cnpj"));
+    }
+
+    @Test
+    @DisplayName("Should compile a separate shape per set of filters and match mode")
+    void shouldKeyShapesBySetFiltersAndMatchMode() {
+        template.bind(query("Acme", null, MatchMode.PREFIX));
+        Document contains = template.bind(query("Acme", null, MatchMode.CONTAINS)).getCriteriaObject();
+        Document empty = template.bind(query(null, "", MatchMode.CONTAINS)).getCriteriaObject();
+
+        assertEquals(3, template.compiledShapes());
+        assertEquals(new BsonRegularExpression("Acme", "i"), contains.get("name"));
+        assertFalse(contains.containsKey("cnpj"));
+        assertTrue(empty.isEmpty());
+    }
+
+    private static EmployerFilterQuery query(String name, String cnpj, MatchMode matchMode) {
+        EmployerFilterQuery filterQuery = new EmployerFilterQuery();
+        filterQuery.setName(name);
+        filterQuery.setCnpj(cnpj);
+        filterQuery.setMatchMode(matchMode);
+        return filterQuery;
+    }
+}
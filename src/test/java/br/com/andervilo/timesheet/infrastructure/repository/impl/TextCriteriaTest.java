@@ -0,0 +1,98 @@
+package br.com.andervilo.timesheet.infrastructure.repository.impl;
+
+import br.com.andervilo.timesheet.application.query.MatchMode;
+import br.com.andervilo.timesheet.infrastructure.mongo.SearchCollation;
+import org.bson.BsonRegularExpression;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextCriteriaTest {
+
+    @Test
+    @DisplayName("Should match CONTAINS input literally")
+    void shouldQuoteContainsInput() {
+        Document document = new Document();
+        TextCriteria.<String>binder("name", value -> value, MatchMode.CONTAINS).accept("(a+)+$ .*", document);
+
+        BsonRegularExpression regex = (BsonRegularExpression) document.get("name");
+        assertEquals("\\(a\\+\\)\\+\\$ \\.\\*", regex.getPattern());
+        assertEquals("i", regex.getOptions());
+        Pattern pattern = Pattern.compile(regex.getPattern(), Pattern.CASE_INSENSITIVE);
+        assertTrue(pattern.matcher("x (A+)+$ .* y").find());
+        assertFalse(pattern.matcher("aaaa").find());
+    }
+
+    @Test
+    @DisplayName("Should bind PREFIX as a range closed by the highest character")
+    void shouldBindPrefixAsRange() {
+        Document document = new Document();
+        TextCriteria.<String>binder("name", value -> value, MatchMode.PREFIX).accept("Jo.*", document);
+
+        assertEquals(new Document("$gte", "Jo.*").append("$lt", "Jo.*\uFFFF"), document.get("name"));
+        assertTrue(TextCriteria.matcher("joão", MatchMode.PREFIX).test("JOAO Silva"));
+        assertFalse(TextCriteria.matcher("joão", MatchMode.PREFIX).test("Ana Joao"));
+    }
+
+    @Test
+    @DisplayName("Should accept simple regexes and reject unsafe ones")
+    void shouldCheckRegexComplexity() {
+        assertEquals("^jo(h|a)n.*", TextCriteria.checkRegex("^jo(h|a)n.*"));
+        assertEquals("(?:ab)+", TextCriteria.checkRegex("(?:ab)+"));
+
+        assertThrows(IllegalArgumentException.class, () -> TextCriteria.checkRegex("(a+)+$"));
+        assertThrows(IllegalArgumentException.class, () -> TextCriteria.checkRegex("(x\\w*)*y"));
+        assertThrows(IllegalArgumentException.class, () -> TextCriteria.checkRegex("(a)\\1"));
+        assertThrows(IllegalArgumentException.class, () -> TextCriteria.checkRegex("foo(?=bar)"));
+        assertThrows(IllegalArgumentException.class, () -> TextCriteria.checkRegex("[unclosed"));
+        assertThrows(IllegalArgumentException.class, () -> TextCriteria.checkRegex("a".repeat(TextCriteria.REGEX_MAX_LENGTH + 1)));
+    }
+
+    @Test
+    @DisplayName("Should reject repeated groups holding a quantifier or alternation at any depth")
+    void shouldRejectNestedQuantifiersAndAlternations() {
+        assertEquals("(foo|bar)?baz", TextCriteria.checkRegex("(foo|bar)?baz"));
+        assertEquals("(?<year>[0-9]{4})-[(+)]+", TextCriteria.checkRegex("(?<year>[0-9]{4})-[(+)]+"));
+        assertEquals("(?i)ana (ab)+", TextCriteria.checkRegex("(?i)ana (ab)+"));
+
+        assertThrows(IllegalArgumentException.class, () -> TextCriteria.checkRegex("((a+))+"));
+        assertThrows(IllegalArgumentException.class, () -> TextCriteria.checkRegex("(?:(?:a*)b)*c"));
+        assertThrows(IllegalArgumentException.class, () -> TextCriteria.checkRegex("(a|aa)+"));
+        assertThrows(IllegalArgumentException.class, () -> TextCriteria.checkRegex("(a|a)*b"));
+        assertThrows(IllegalArgumentException.class, () -> TextCriteria.checkRegex("((a|b)c){2,}"));
+        assertThrows(IllegalArgumentException.class, () -> TextCriteria.checkRegex("(\\d+)+x"));
+        assertThrows(IllegalArgumentException.class, () -> TextCriteria.checkRegex("foo(?<!bar)"));
+        assertThrows(IllegalArgumentException.class, () -> TextCriteria.checkRegex("(?<n>a)\\k<n>"));
+    }
+
+    @Test
+    @DisplayName("Should cap the server time of REGEX queries only")
+    void shouldCapRegexQueryTime() {
+        Query regex = TextCriteria.withMatchOptions(new Query(), MatchMode.REGEX);
+        Query contains = TextCriteria.withMatchOptions(new Query(), MatchMode.CONTAINS);
+
+        assertEquals(TextCriteria.REGEX_MAX_TIME.toMillis(), regex.getMeta().getMaxTimeMsec());
+        assertNull(contains.getMeta().getMaxTimeMsec());
+    }
+
+    @Test
+    @DisplayName("Should run PREFIX ranges under the case and accent-insensitive pt collation")
+    void shouldCollatePrefixQueries() {
+        Query prefix = TextCriteria.withMatchOptions(new Query(), MatchMode.PREFIX);
+        Query contains = TextCriteria.withMatchOptions(new Query(), MatchMode.CONTAINS);
+
+        Document collation = prefix.getCollation().orElseThrow().toDocument();
+        assertEquals("pt", collation.get("locale"));
+        assertEquals(1, collation.get("strength"));
+        assertNull(prefix.getMeta().getMaxTimeMsec());
+        assertTrue(contains.getCollation().isEmpty());
+        assertEquals(SearchCollation.CASE_AND_ACCENT_INSENSITIVE,
+            TextCriteria.aggregationOptions(MatchMode.PREFIX).build().getCollation().orElseThrow());
+        assertTrue(TextCriteria.aggregationOptions(MatchMode.CONTAINS).build().getCollation().isEmpty());
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.andervilo.timesheet.infrastructure.search;
+
+import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import br.com.andervilo.timesheet.application.query.MatchMode;
+import br.com.andervilo.timesheet.config.TextIndexProperties;
+import br.com.andervilo.timesheet.domain.Employe;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeTextIndexTest {
+
+    private EmployeTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new EmployeTextIndex(new TextIndexProperties(true, 2, Duration.ofMinutes(15)), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    @Test
+    @DisplayName("Should narrow contains filters to the ids sharing every folded trigram")
+    void shouldNarrowContainsFilters() {
+        index.rebuild(() -> Stream.of(
+            employe("1", 0L, "João Silva", "joao@example.com"),
+            employe("2", 0L, "Maria Joana", "maria@example.com"),
+            employe("3", 0L, "Pedro", "pedro@sample.org")));
+
+        assertEquals(Set.of("1"), index.candidates(contains("JOAO", null)));
+        assertEquals(Set.of("1", "2"), index.candidates(contains("joa", null)));
+        assertEquals(Set.of(), index.candidates(contains("xyz", null)));
+        assertEquals(Set.of("1", "2"), index.candidates(contains("ma", "example")));
+        assertEquals(Set.of("1"), index.candidates(contains("silva", "example")));
+    }
+
+    @Test
+    @DisplayName("Should not narrow what it cannot: other match modes, short text, too many candidates, no build")
+    void shouldNotNarrowWhatItCannot() {
+        assertNull(index.candidates(contains("joao", null)));
+
+        index.rebuild(() -> Stream.of(
+            employe("1", 0L, "Ana Souza", null),
+            employe("2", 0L, "Ana Lima", null),
+            employe("3", 0L, "Ana Costa", null)));
+
+        assertNull(index.candidates(contains("an", null)));
+        assertNull(index.candidates(contains("ana", null)));
+        EmployeFilterQuery prefix = contains("souza", null);
+        prefix.setMatchMode(MatchMode.PREFIX);
+        assertNull(index.candidates(prefix));
+    }
+
+    @Test
+    @DisplayName("Should follow puts and removes, ignoring writes older than what is indexed")
+    void shouldFollowWrites() {
+        index.rebuild(Stream::empty);
+
+        index.put(employe("1", 0L, "Carlos", null));
+        index.put(employe("1", 1L, "Roberto", null));
+        index.put(employe("1", 0L, "Carlos", null));
+        assertEquals(Set.of(), index.candidates(contains("carlos", null)));
+        assertEquals(Set.of("1"), index.candidates(contains("robert", null)));
+
+        index.remove("1");
+        assertEquals(Set.of(), index.candidates(contains("robert", null)));
+    }
+
+    @Test
+    @DisplayName("Should replay the writes made while a rebuild reads the repository")
+    void shouldReplayWritesMadeDuringRebuild() {
+        index.rebuild(() -> Stream.of(employe("1", 0L, "Carlos", null)));
+
+        index.rebuild(() -> {
+            // The rebuild read version 0 of "1" before these writes landed
+            index.put(employe("1", 1L, "Roberto", null));
+            index.put(employe("2", 0L, "Beatriz", null));
+            return Stream.of(employe("1", 0L, "Carlos", null));
+        });
+
+        assertEquals(Set.of(), index.candidates(contains("carlos", null)));
+        assertEquals(Set.of("1"), index.candidates(contains("roberto", null)));
+        assertEquals(Set.of("2"), index.candidates(contains("beatriz", null)));
+    }
+
+    @Test
+    @DisplayName("Should keep answering correctly after compacting rewritten documents")
+    void shouldCompact() {
+        index.rebuild(Stream::empty);
+        for (long version = 0; version < 3000; version++) {
+            index.put(employe("1", version, "Name " + version, null));
+            index.put(employe("2", version, "Other " + version, null));
+        }
+
+        assertEquals(Set.of("1"), index.candidates(contains("name 2999", null)));
+        assertEquals(Set.of(), index.candidates(contains("name 2998", null)));
+        assertEquals(List.of("2"), List.copyOf(index.candidates(contains("other", null))));
+    }
+
+    private static Employe employe(String id, Long version, String name, String email) {
+        Employe employe = Employe.of(name, email, null);
+        employe.setId(id);
+        employe.setVersion(version);
+        return employe;
+    }
+
+    private static EmployeFilterQuery contains(String name, String email) {
+        EmployeFilterQuery query = new EmployeFilterQuery();
+        query.setName(name);
+        query.setEmail(email);
+        query.setMatchMode(MatchMode.CONTAINS);
+        return query;
+    }
+}
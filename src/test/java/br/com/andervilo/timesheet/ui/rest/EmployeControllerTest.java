@@ -5,9 +5,16 @@ import br.com.andervilo.timesheet.application.command.EmployeCreateCommand;
 import br.com.andervilo.timesheet.application.command.EmployeUpdateCommand;
 import br.com.andervilo.timesheet.application.dto.EmployeDTO;
 import br.com.andervilo.timesheet.application.dto.PageDTO;
+import br.com.andervilo.timesheet.application.dto.SparseFields;
 import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import br.com.andervilo.timesheet.application.query.MatchMode;
+import br.com.andervilo.timesheet.config.JacksonConfig;
+import br.com.andervilo.timesheet.infrastructure.limit.ConcurrencyLimitFilter;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,22 +22,31 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -55,6 +71,12 @@ class EmployeControllerTest {
     @Mock
     private EmployeService employeService;
 
+    @Spy
+    private ObjectMapper streamObjectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .setFilterProvider(SparseFields.provider(null));
+
     @InjectMocks
     private EmployeController employeController;
 
@@ -73,20 +95,27 @@ class EmployeControllerTest {
         objectMapper.registerModule(javaTimeModule);
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         objectMapper.setDateFormat(new com.fasterxml.jackson.databind.util.StdDateFormat());
+        objectMapper.setFilterProvider(SparseFields.provider(null));
         
         // Create a message converter with our configured ObjectMapper
         MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
         converter.setObjectMapper(objectMapper);
         
+        // Binary converters as configured for the application, negotiated after JSON
+        JacksonConfig jacksonConfig = new JacksonConfig();
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        jacksonConfig.sparseFieldsFilterCustomizer().customize(builder);
+
         // Setup MockMvc with the custom converter
         mockMvc = MockMvcBuilders
             .standaloneSetup(employeController)
-            .setControllerAdvice(new TestControllerAdvice())
-            .setMessageConverters(converter)
+            .setControllerAdvice(new TestControllerAdvice(), new ApiExceptionHandler())
+            .setMessageConverters(converter, jacksonConfig.cborHttpMessageConverter(builder),
+                jacksonConfig.smileHttpMessageConverter(builder))
             .build();
         
         // Setup test data
-        employeDTO = new EmployeDTO(employeId, "John Doe", "john@example.com", LocalDate.of(1990, 1, 15));
+        employeDTO = new EmployeDTO(employeId, "John Doe", "john@example.com", LocalDate.of(1990, 1, 15), null, null, null);
         createCommand = new EmployeCreateCommand("John Doe", "john@example.com", LocalDate.of(1990, 1, 15));
         updateCommand = new EmployeUpdateCommand(null, "John Updated", "john.updated@example.com", LocalDate.of(1990, 1, 20));
         
@@ -118,7 +147,7 @@ class EmployeControllerTest {
     @DisplayName("Should update an employee successfully")
     void shouldUpdateEmployeeSuccessfully() throws Exception {
         // Given
-        EmployeDTO updatedDTO = new EmployeDTO(employeId, "John Updated", "john.updated@example.com", LocalDate.of(1990, 1, 20));
+        EmployeDTO updatedDTO = new EmployeDTO(employeId, "John Updated", "john.updated@example.com", LocalDate.of(1990, 1, 20), null, null, null);
         when(employeService.update(eq(employeId), any(EmployeUpdateCommand.class))).thenReturn(updatedDTO);
 
         // When & Then
@@ -150,6 +179,35 @@ class EmployeControllerTest {
         verify(employeService, times(1)).update(eq("nonexistent"), any(EmployeUpdateCommand.class));
     }
 
+    @Test
+    @DisplayName("Should list upcoming birthdays in a window")
+    void shouldListUpcomingBirthdays() throws Exception {
+        // Given
+        when(employeService.findUpcomingBirthdays(LocalDate.of(2024, 12, 25), 14, 100)).thenReturn(List.of(employeDTO));
+
+        // When & Then
+        mockMvc.perform(get("/api/employees/birthdays/upcoming")
+                .param("from", "2024-12-25")
+                .param("days", "14"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(employeId)));
+    }
+
+    @Test
+    @DisplayName("Should answer 400 to a birthday window outside 1-366 days")
+    void shouldRejectBirthdayWindowOutOfRange() throws Exception {
+        // Given
+        when(employeService.findUpcomingBirthdays(null, 400, 100))
+            .thenThrow(new IllegalArgumentException("days must be between 1 and 366"));
+
+        // When & Then
+        mockMvc.perform(get("/api/employees/birthdays/upcoming")
+                .param("days", "400"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail", is("days must be between 1 and 366")));
+    }
+
     @Test
     @DisplayName("Should delete an employee successfully")
     void shouldDeleteEmployeeSuccessfully() throws Exception {
@@ -193,12 +251,155 @@ class EmployeControllerTest {
         verify(employeService, times(1)).findById("nonexistent");
     }
 
+    @Test
+    @DisplayName("Should send the version as ETag")
+    void shouldSendVersionAsETag() throws Exception {
+        // Given
+        EmployeDTO versioned = new EmployeDTO(employeId, "John Doe", "john@example.com", LocalDate.of(1990, 1, 15), null,
+            3L, Instant.parse("2024-05-01T10:00:00Z"));
+        when(employeService.findById(employeId)).thenReturn(versioned);
+
+        // When & Then
+        mockMvc.perform(get("/api/employees/{id}", employeId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.version", is(3)));
+
+        verify(employeService, never()).findVersion(any());
+    }
+
+    @Test
+    @DisplayName("Should send a strong ETag of its own, varying by Accept, with the CBOR representation")
+    void shouldSendCborETag() throws Exception {
+        // Given
+        EmployeDTO versioned = new EmployeDTO(employeId, "John Doe", "john@example.com", LocalDate.of(1990, 1, 15), null,
+            3L, null);
+        when(employeService.findById(employeId)).thenReturn(versioned);
+
+        // When & Then: the JSON and CBOR bytes differ, so each representation has its own strong validator
+        mockMvc.perform(get("/api/employees/{id}", employeId)
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-cbor\""))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+        mockMvc.perform(get("/api/employees/{id}", employeId)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    @DisplayName("Should not answer 304 to a CBOR request with the ETag of the JSON representation")
+    void shouldNotReturn304ForAnotherRepresentation() throws Exception {
+        // Given
+        EmployeDTO versioned = new EmployeDTO(employeId, "John Doe", "john@example.com", LocalDate.of(1990, 1, 15), null,
+            3L, null);
+        when(employeService.findVersion(employeId)).thenReturn(Optional.of(3L));
+        when(employeService.findById(employeId)).thenReturn(versioned);
+
+        // When & Then
+        mockMvc.perform(get("/api/employees/{id}", employeId)
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-cbor\""));
+        mockMvc.perform(get("/api/employees/{id}", employeId)
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3-cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 from the version alone when the ETag matches")
+    void shouldReturn304WhenETagMatches() throws Exception {
+        // Given
+        when(employeService.findVersion(employeId)).thenReturn(Optional.of(3L));
+
+        // When & Then
+        mockMvc.perform(get("/api/employees/{id}", employeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(employeService, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should return the employee when the ETag is stale")
+    void shouldReturnEmployeeWhenETagIsStale() throws Exception {
+        // Given
+        EmployeDTO versioned = new EmployeDTO(employeId, "John Doe", "john@example.com", LocalDate.of(1990, 1, 15), null,
+            4L, null);
+        when(employeService.findVersion(employeId)).thenReturn(Optional.of(4L));
+        when(employeService.findById(employeId)).thenReturn(versioned);
+
+        // When & Then
+        mockMvc.perform(get("/api/employees/{id}", employeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.name", is("John Doe")));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 to a filter whose page is unchanged")
+    void shouldReturn304WhenFilterPageIsUnchanged() throws Exception {
+        // Given
+        PageDTO<EmployeDTO> pageDTO = new PageDTO<>(List.of(employeDTO), 1, 1, 0, 10, true, true);
+        when(employeService.findWithFilters(any(EmployeFilterQuery.class))).thenReturn(pageDTO);
+        String etag = mockMvc.perform(post("/api/employees/filter")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(filterQuery)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(post("/api/employees/filter")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .content(objectMapper.writeValueAsString(filterQuery)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Should change the page ETag when an element is edited, even when its version is not requested")
+    void shouldChangePageETagWhenElementIsEditedUnderSparseFields() throws Exception {
+        // Given
+        filterQuery.setFields(Set.of("name"));
+        EmployeDTO before = new EmployeDTO(employeId, "John Doe", null, null, null, 3L, null);
+        EmployeDTO after = new EmployeDTO(employeId, "John Smith", null, null, null, 4L, null);
+        when(employeService.findWithFilters(any(EmployeFilterQuery.class)))
+            .thenReturn(new PageDTO<>(List.of(before), 1, 1, 0, 10, true, true))
+            .thenReturn(new PageDTO<>(List.of(after), 1, 1, 0, 10, true, true));
+        String etag = mockMvc.perform(post("/api/employees/filter")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(filterQuery)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(post("/api/employees/filter")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .content(objectMapper.writeValueAsString(filterQuery)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.content[0].name", is("John Smith")))
+                .andExpect(jsonPath("$.content[0].version").doesNotExist());
+    }
+
     @Test
     @DisplayName("Should find all employees successfully")
     void shouldFindAllEmployeesSuccessfully() throws Exception {
         // Given
         List<EmployeDTO> employees = List.of(employeDTO);
-        when(employeService.findAll()).thenReturn(employees);
+        when(employeService.findAll(null)).thenReturn(employees);
 
         // When & Then
         mockMvc.perform(get("/api/employees"))
@@ -209,7 +410,40 @@ class EmployeControllerTest {
                 .andExpect(jsonPath("$[0].email", is("john@example.com")))
                 .andExpect(jsonPath("$[0].birthDate", is("1990-01-15")));
         
-        verify(employeService, times(1)).findAll();
+        verify(employeService, times(1)).findAll(null);
+    }
+
+    @Test
+    @DisplayName("Should answer 400 to a refused REGEX pattern")
+    void shouldRejectRefusedRegex() throws Exception {
+        // Given
+        filterQuery.setName("(a+)+$");
+        filterQuery.setMatchMode(MatchMode.REGEX);
+        when(employeService.findWithFilters(any(EmployeFilterQuery.class)))
+            .thenThrow(new IllegalArgumentException("Regex uses backreferences, lookarounds or nested quantifiers: (a+)+$"));
+
+        // When & Then
+        mockMvc.perform(post("/api/employees/filter")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(filterQuery)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail", containsString("nested quantifiers")));
+    }
+
+    @Test
+    @DisplayName("Should answer 400 to a cursor that cannot be decoded")
+    void shouldRejectInvalidCursor() throws Exception {
+        // Given
+        filterQuery.setAfter("not-a-cursor");
+        when(employeService.findWithFilters(any(EmployeFilterQuery.class)))
+            .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        // When & Then
+        mockMvc.perform(post("/api/employees/filter")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(filterQuery)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail", is("Invalid cursor")));
     }
 
     @Test
@@ -242,4 +476,127 @@ class EmployeControllerTest {
         
         verify(employeService, times(1)).findWithFilters(any(EmployeFilterQuery.class));
     }
+
+    @Test
+    @DisplayName("Should write only the requested fields")
+    void shouldWriteOnlyRequestedFields() throws Exception {
+        // Given
+        Set<String> fields = Set.of("id", "name");
+        when(employeService.findAll(fields)).thenReturn(List.of(employeDTO));
+
+        // When & Then
+        mockMvc.perform(get("/api/employees").param("fields", "id,name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(employeId)))
+                .andExpect(jsonPath("$[0].name", is("John Doe")))
+                .andExpect(jsonPath("$[0].email").doesNotExist())
+                .andExpect(jsonPath("$[0].birthDate").doesNotExist());
+
+        verify(employeService, times(1)).findAll(fields);
+    }
+
+    @Test
+    @DisplayName("Should write only the requested fields of filtered employees")
+    void shouldWriteOnlyRequestedFieldsOfFilteredEmployees() throws Exception {
+        // Given
+        filterQuery.setFields(Set.of("name"));
+        PageDTO<EmployeDTO> pageDTO = new PageDTO<>(List.of(employeDTO), 1, 1, 0, 10, true, true);
+        when(employeService.findWithFilters(any(EmployeFilterQuery.class))).thenReturn(pageDTO);
+
+        // When & Then
+        mockMvc.perform(post("/api/employees/filter")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(filterQuery)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is("John Doe")))
+                .andExpect(jsonPath("$.content[0].id").doesNotExist())
+                .andExpect(jsonPath("$.content[0].email").doesNotExist())
+                .andExpect(jsonPath("$.totalElements", is(1)));
+    }
+
+    @Test
+    @DisplayName("Should write filtered employees as CBOR when asked, honoring the requested fields")
+    void shouldWriteFilteredEmployeesAsCbor() throws Exception {
+        // Given
+        filterQuery.setFields(Set.of("name"));
+        PageDTO<EmployeDTO> pageDTO = new PageDTO<>(List.of(employeDTO), 1, 1, 0, 10, true, true);
+        when(employeService.findWithFilters(any(EmployeFilterQuery.class))).thenReturn(pageDTO);
+
+        // When
+        byte[] body = mockMvc.perform(post("/api/employees/filter")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(objectMapper.writeValueAsString(filterQuery)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        JsonNode page = new CBORMapper().readTree(body);
+        assertEquals("John Doe", page.at("/content/0/name").asText());
+        assertTrue(page.at("/content/0/id").isMissingNode());
+        assertEquals(1, page.get("totalElements").asInt());
+    }
+
+    @Test
+    @DisplayName("Should negotiate Smile and keep JSON as the default")
+    void shouldNegotiateSmileAndDefaultToJson() throws Exception {
+        // Given
+        when(employeService.findById(employeId)).thenReturn(employeDTO);
+
+        // When & Then
+        mockMvc.perform(get("/api/employees/{id}", employeId).accept(MediaType.ALL))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        byte[] body = mockMvc.perform(get("/api/employees/{id}", employeId).accept(new MediaType("application", "x-jackson-smile")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("John Doe", new SmileMapper().readTree(body).get("name").asText());
+    }
+
+    @Test
+    @DisplayName("Should stream all employees as NDJSON")
+    void shouldStreamAllEmployesAsNdjson() throws Exception {
+        // Given
+        EmployeDTO other = new EmployeDTO("emp456", "Jane Doe", "jane@example.com", LocalDate.of(1992, 3, 8), null, null, null);
+        when(employeService.streamAll()).thenReturn(Stream.of(employeDTO, other));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/employees").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andExpect(request().attribute(ConcurrencyLimitFilter.STREAMED, true))
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                    objectMapper.writeValueAsString(employeDTO) + "\n" + objectMapper.writeValueAsString(other) + "\n"));
+        
+        verify(employeService, times(1)).streamAll();
+        verify(employeService, never()).findAll(any());
+    }
+
+    @Test
+    @DisplayName("Should stream all employees as a JSON array")
+    void shouldStreamAllEmployesAsJsonArray() throws Exception {
+        // Given
+        EmployeDTO other = new EmployeDTO("emp456", "Jane Doe", "jane@example.com", LocalDate.of(1992, 3, 8), null, null, null);
+        when(employeService.streamAll()).thenReturn(Stream.of(employeDTO, other));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/employees").param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is("emp123")))
+                .andExpect(jsonPath("$[1].id", is("emp456")));
+        
+        verify(employeService, times(1)).streamAll();
+    }
 }
@@ -0,0 +1,154 @@
+package br.com.andervilo.timesheet.ui.rest;
+
+import br.com.andervilo.timesheet.application.ReactiveEmployeService;
+import br.com.andervilo.timesheet.application.dto.EmployeDTO;
+import br.com.andervilo.timesheet.application.dto.PageDTO;
+import br.com.andervilo.timesheet.application.dto.SparseFields;
+import br.com.andervilo.timesheet.application.query.EmployeFilterQuery;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeV2ControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ReactiveEmployeService reactiveEmployeService;
+
+    @InjectMocks
+    private EmployeV2Controller employeV2Controller;
+
+    private ObjectMapper objectMapper;
+    private EmployeDTO employeDTO;
+    private String employeId = "emp123";
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .setFilterProvider(SparseFields.provider(null));
+
+        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
+        converter.setObjectMapper(objectMapper);
+
+        mockMvc = MockMvcBuilders
+            .standaloneSetup(employeV2Controller)
+            .setMessageConverters(converter)
+            .build();
+
+        employeDTO = new EmployeDTO(employeId, "John Doe", "john@example.com", LocalDate.of(1990, 1, 15), null, 2L, null);
+    }
+
+    @Test
+    @DisplayName("Should find employee by ID with its ETag")
+    void shouldFindEmployeeById() throws Exception {
+        // Given
+        when(reactiveEmployeService.findById(employeId)).thenReturn(Mono.just(employeDTO));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v2/employees/{id}", employeId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(jsonPath("$.id", is(employeId)))
+                .andExpect(jsonPath("$.name", is("John Doe")));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 from the version alone when the ETag matches")
+    void shouldReturn304WhenETagMatches() throws Exception {
+        // Given
+        when(reactiveEmployeService.findVersion(employeId)).thenReturn(Mono.just(2L));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v2/employees/{id}", employeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(reactiveEmployeService, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should stream the requested fields of all employees as NDJSON")
+    void shouldStreamRequestedFieldsAsNdjson() throws Exception {
+        // Given
+        Set<String> fields = Set.of("id", "name");
+        EmployeDTO other = new EmployeDTO("emp456", "Jane Doe", null, null, null, null, null);
+        when(reactiveEmployeService.findAll(fields)).thenReturn(Flux.just(employeDTO, other));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v2/employees").param("fields", "id,name")
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                    "{\"id\":\"emp123\",\"name\":\"John Doe\"}\n{\"id\":\"emp456\",\"name\":\"Jane Doe\"}\n"));
+    }
+
+    @Test
+    @DisplayName("Should filter employees")
+    void shouldFilterEmployees() throws Exception {
+        // Given
+        EmployeFilterQuery filterQuery = new EmployeFilterQuery();
+        filterQuery.setName("John");
+        PageDTO<EmployeDTO> pageDTO = new PageDTO<>(List.of(employeDTO), 1, 1, 0, 10, true, true);
+        when(reactiveEmployeService.findWithFilters(any(EmployeFilterQuery.class))).thenReturn(Mono.just(pageDTO));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v2/employees/filter")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(filterQuery)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name", is("John Doe")))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+    }
+}
@@ -5,6 +5,8 @@ import br.com.andervilo.timesheet.application.command.EmployerCreateCommand;
 import br.com.andervilo.timesheet.application.command.EmployerUpdateCommand;
 import br.com.andervilo.timesheet.application.dto.EmployerDTO;
 import br.com.andervilo.timesheet.application.dto.PageDTO;
+import br.com.andervilo.timesheet.application.dto.SparseFields;
+import br.com.andervilo.timesheet.application.query.CountMode;
 import br.com.andervilo.timesheet.application.query.EmployerFilterQuery;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -15,12 +17,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -28,9 +34,11 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -54,6 +62,12 @@ class EmployerControllerTest {
     @Mock
     private EmployerService employerService;
 
+    @Spy
+    private ObjectMapper streamObjectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .setFilterProvider(SparseFields.provider(null));
+
     @InjectMocks
     private EmployerController employerController;
 
@@ -72,6 +86,7 @@ class EmployerControllerTest {
         objectMapper.registerModule(javaTimeModule);
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         objectMapper.setDateFormat(new com.fasterxml.jackson.databind.util.StdDateFormat());
+        objectMapper.setFilterProvider(SparseFields.provider(null));
         
         // Create a message converter with our configured ObjectMapper
         MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
@@ -80,12 +95,12 @@ class EmployerControllerTest {
         // Setup MockMvc with the custom converter
         mockMvc = MockMvcBuilders
             .standaloneSetup(employerController)
-            .setControllerAdvice(new TestControllerAdvice())
+            .setControllerAdvice(new TestControllerAdvice(), new ApiExceptionHandler())
             .setMessageConverters(converter)
             .build();
         
         // Setup test data
-        employerDTO = new EmployerDTO(employerId, "Acme Inc", "12345678901234", "123 Main St", "555-1234", "contact@acme.com");
+        employerDTO = new EmployerDTO(employerId, "Acme Inc", "12345678901234", "123 Main St", "555-1234", "contact@acme.com", null, null, null);
         createCommand = new EmployerCreateCommand("Acme Inc", "12345678901234", "123 Main St", "555-1234", "contact@acme.com");
         updateCommand = new EmployerUpdateCommand("Acme Updated", "12345678901234", "456 Oak St", "555-5678", "updated@acme.com");
         
@@ -119,7 +134,7 @@ class EmployerControllerTest {
     @DisplayName("Should update an employer successfully")
     void shouldUpdateEmployerSuccessfully() throws Exception {
         // Given
-        EmployerDTO updatedDTO = new EmployerDTO(employerId, "Acme Updated", "12345678901234", "456 Oak St", "555-5678", "updated@acme.com");
+        EmployerDTO updatedDTO = new EmployerDTO(employerId, "Acme Updated", "12345678901234", "456 Oak St", "555-5678", "updated@acme.com", null, null, null);
         when(employerService.update(eq(employerId), any(EmployerUpdateCommand.class))).thenReturn(updatedDTO);
 
         // When & Then
@@ -166,6 +181,19 @@ class EmployerControllerTest {
         verify(employerService, times(1)).delete(employerId);
     }
 
+    @Test
+    @DisplayName("Should answer 409 when deleting an employer employees are still linked to")
+    void shouldReturnConflictWhenDeletingEmployerWithLinkedEmployees() throws Exception {
+        // Given
+        doThrow(new DataIntegrityViolationException("Employer still has linked employees"))
+            .when(employerService).delete(employerId);
+
+        // When & Then
+        mockMvc.perform(delete("/api/employers/" + employerId))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail", is("Employer still has linked employees")));
+    }
+
     @Test
     @DisplayName("Should find employer by ID successfully")
     void shouldFindEmployerByIdSuccessfully() throws Exception {
@@ -198,12 +226,52 @@ class EmployerControllerTest {
         verify(employerService, times(1)).findById("nonexistent");
     }
 
+    @Test
+    @DisplayName("Should find an employer by a formatted CNPJ, slash included in the path")
+    void shouldFindEmployerByFormattedCnpj() throws Exception {
+        // Given
+        when(employerService.findByCnpj("/12.345.678/9012-34")).thenReturn(employerDTO);
+
+        // When & Then
+        mockMvc.perform(get("/api/employers/by-cnpj/12.345.678/9012-34"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(employerId)));
+
+        verify(employerService, times(1)).findByCnpj("/12.345.678/9012-34");
+    }
+
+    @Test
+    @DisplayName("Should answer 400 to a CNPJ without 14 digits")
+    void shouldRejectIncompleteCnpj() throws Exception {
+        // Given
+        when(employerService.findByCnpj("/12.345")).thenThrow(new IllegalArgumentException("cnpj must have 14 digits"));
+
+        // When & Then
+        mockMvc.perform(get("/api/employers/by-cnpj/12.345"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail", is("cnpj must have 14 digits")));
+    }
+
+    @Test
+    @DisplayName("Should answer 409 to a CNPJ another employer already has")
+    void shouldRejectDuplicateCnpj() throws Exception {
+        // Given
+        when(employerService.create(any(EmployerCreateCommand.class)))
+            .thenThrow(new DuplicateKeyException("E11000 duplicate key error index: cnpjKey"));
+
+        // When & Then
+        mockMvc.perform(post("/api/employers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createCommand)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     @DisplayName("Should find all employers successfully")
     void shouldFindAllEmployersSuccessfully() throws Exception {
         // Given
         List<EmployerDTO> employers = List.of(employerDTO);
-        when(employerService.findAll()).thenReturn(employers);
+        when(employerService.findAll(null)).thenReturn(employers);
 
         // When & Then
         mockMvc.perform(get("/api/employers"))
@@ -216,7 +284,7 @@ class EmployerControllerTest {
                 .andExpect(jsonPath("$[0].phone", is("555-1234")))
                 .andExpect(jsonPath("$[0].email", is("contact@acme.com")));
         
-        verify(employerService, times(1)).findAll();
+        verify(employerService, times(1)).findAll(null);
     }
 
     @Test
@@ -251,4 +319,74 @@ class EmployerControllerTest {
         
         verify(employerService, times(1)).findWithFilters(any(EmployerFilterQuery.class));
     }
+
+    @Test
+    @DisplayName("Should report unknown totals when the count is skipped")
+    void shouldReportUnknownTotalsWhenCountIsSkipped() throws Exception {
+        // Given
+        filterQuery.setCountMode(CountMode.NONE);
+        PageDTO<EmployerDTO> pageDTO = new PageDTO<>(
+            List.of(employerDTO), null, null, 0, 1, true, false, "cursor-token"
+        );
+        
+        when(employerService.findWithFilters(any(EmployerFilterQuery.class))).thenReturn(pageDTO);
+
+        // When & Then
+        mockMvc.perform(post("/api/employers/filter")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(filterQuery)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.totalElements", nullValue()))
+                .andExpect(jsonPath("$.totalPages", nullValue()))
+                .andExpect(jsonPath("$.last", is(false)))
+                .andExpect(jsonPath("$.nextCursor", is("cursor-token")));
+        
+        verify(employerService, times(1)).findWithFilters(argThat(query -> query.getCountMode() == CountMode.NONE));
+    }
+
+    @Test
+    @DisplayName("Should stream all employers as NDJSON")
+    void shouldStreamAllEmployersAsNdjson() throws Exception {
+        // Given
+        EmployerDTO other = new EmployerDTO("emp456", "Globex", "98765432109876", "1 Elm St", "555-9999", "hr@globex.com", null, null, null);
+        when(employerService.streamAll()).thenReturn(Stream.of(employerDTO, other));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/employers").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                    objectMapper.writeValueAsString(employerDTO) + "\n" + objectMapper.writeValueAsString(other) + "\n"));
+        
+        verify(employerService, times(1)).streamAll();
+        verify(employerService, never()).findAll(any());
+    }
+
+    @Test
+    @DisplayName("Should stream all employers as a JSON array")
+    void shouldStreamAllEmployersAsJsonArray() throws Exception {
+        // Given
+        EmployerDTO other = new EmployerDTO("emp456", "Globex", "98765432109876", "1 Elm St", "555-9999", "hr@globex.com", null, null, null);
+        when(employerService.streamAll()).thenReturn(Stream.of(employerDTO, other));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/employers").param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is("emp123")))
+                .andExpect(jsonPath("$[1].id", is("emp456")));
+        
+        verify(employerService, times(1)).streamAll();
+    }
 }
@@ -0,0 +1,132 @@
+package br.com.andervilo.timesheet.ui.rest;
+
+import br.com.andervilo.timesheet.application.PunchService;
+import br.com.andervilo.timesheet.application.command.PunchCommand;
+import br.com.andervilo.timesheet.application.dto.PunchDTO;
+import br.com.andervilo.timesheet.application.dto.PunchReceiptDTO;
+import br.com.andervilo.timesheet.domain.PunchType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class PunchControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private PunchService punchService;
+
+    @InjectMocks
+    private PunchController punchController;
+
+    private ObjectMapper objectMapper;
+    private List<PunchCommand> commands;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
+        converter.setObjectMapper(objectMapper);
+
+        mockMvc = MockMvcBuilders
+            .standaloneSetup(punchController)
+            .setControllerAdvice(new ApiExceptionHandler())
+            .setMessageConverters(converter)
+            .build();
+
+        commands = List.of(
+            new PunchCommand("emp123", PunchType.CLOCK_IN, Instant.parse("2024-05-01T08:00:00Z")),
+            new PunchCommand("emp456", PunchType.CLOCK_IN, null)
+        );
+    }
+
+    @Test
+    @DisplayName("Should answer 400 to punches without an employee or a type")
+    void shouldRejectIncompletePunches() throws Exception {
+        // Given
+        when(punchService.record(anyList())).thenThrow(new IllegalArgumentException("Every punch needs an employeId and a type"));
+
+        // When & Then
+        mockMvc.perform(post("/api/punches")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(commands)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail", is("Every punch needs an employeId and a type")));
+    }
+
+    @Test
+    @DisplayName("Should accept punches queued in the buffer")
+    void shouldAcceptPunches() throws Exception {
+        // Given
+        when(punchService.record(anyList())).thenReturn(new PunchReceiptDTO(2, 0));
+
+        // When & Then
+        mockMvc.perform(post("/api/punches")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(commands)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted", is(2)))
+                .andExpect(jsonPath("$.rejected", is(0)));
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when the buffer is full")
+    void shouldReturn503WhenBufferIsFull() throws Exception {
+        // Given
+        when(punchService.record(anyList())).thenReturn(new PunchReceiptDTO(1, 1));
+
+        // When & Then
+        mockMvc.perform(post("/api/punches")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(commands)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.accepted", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)));
+    }
+
+    @Test
+    @DisplayName("Should find the punches of an employee in a range")
+    void shouldFindPunchesOfEmploye() throws Exception {
+        // Given
+        Instant from = Instant.parse("2024-05-01T00:00:00Z");
+        Instant to = Instant.parse("2024-05-02T00:00:00Z");
+        when(punchService.findByEmploye("emp123", from, to)).thenReturn(List.of(
+            new PunchDTO("p1", "emp123", PunchType.CLOCK_IN, Instant.parse("2024-05-01T08:00:00Z"))));
+
+        // When & Then
+        mockMvc.perform(get("/api/punches")
+                .param("employeId", "emp123")
+                .param("from", "2024-05-01T00:00:00Z")
+                .param("to", "2024-05-02T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].type", is("CLOCK_IN")));
+
+        verify(punchService, times(1)).findByEmploye("emp123", from, to);
+    }
+}